@@ -0,0 +1,191 @@
+package com.zvit.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.zvit.config.CryptoConfig;
+import com.zvit.dto.response.GroupStatusesResponse;
+import com.zvit.dto.response.UserStatusResponse;
+import com.zvit.entity.Group;
+import com.zvit.entity.GroupMember;
+import com.zvit.entity.Report;
+import com.zvit.entity.User;
+import com.zvit.entity.enums.Role;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import javax.crypto.Cipher;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Сервіси та дані для бенчмарків, зібрані без Spring-контексту
+ * (налаштування - як у application.yml за замовчуванням)
+ */
+final class BenchmarkFixtures {
+
+    static final String ENCRYPTION_KEY = "MySecretKey12345MySecretKey12345";
+    static final String JWT_SECRET = "v4RqtUyz/NhePzEBUkAs3PeGi9gwD8cmWuH3ccn6bRNhIF4Ui11ZkhK8Wfxnh8dv";
+    static final long JWT_EXPIRATION = 86400000L;
+
+    final CryptoConfig cryptoConfig = new CryptoConfig();
+    final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+    final InMemorySharedStateStore sharedStateStore = new InMemorySharedStateStore();
+    final EncryptionService encryptionService = encryptionService();
+    final KeyRingService keyRingService;
+    final EcKeyService ecKeyService;
+    final SessionKeyService sessionKeyService;
+    final RSAKeyService rsaKeyService;
+    final ResponseEncryptionService responseEncryptionService;
+
+    BenchmarkFixtures() {
+        keyRingService = new KeyRingService(cryptoConfig, sharedStateStore);
+        keyRingService.init();
+        sessionKeyService = new SessionKeyService(sharedStateStore, encryptionService, new LocalCacheInvalidationBus());
+        ecKeyService = new EcKeyService(cryptoConfig, keyRingService);
+        rsaKeyService = new RSAKeyService(cryptoConfig, sessionKeyService, ecKeyService, keyRingService, meterRegistry);
+        rsaKeyService.init();
+        responseEncryptionService = new ResponseEncryptionService(cryptoConfig, objectMapper, sessionKeyService, meterRegistry);
+        responseEncryptionService.init();
+    }
+
+    void close() {
+        rsaKeyService.shutdown();
+    }
+
+    static EncryptionService encryptionService() {
+        EncryptionService service = new EncryptionService();
+        ReflectionTestUtils.setField(service, "encryptionKey", ENCRYPTION_KEY);
+        return service;
+    }
+
+    static JwtService jwtService(int verifiedCacheSize) {
+        JwtService service = new JwtService();
+        ReflectionTestUtils.setField(service, "secret", JWT_SECRET);
+        ReflectionTestUtils.setField(service, "expiration", JWT_EXPIRATION);
+        ReflectionTestUtils.setField(service, "verifiedCacheSize", verifiedCacheSize);
+        service.init();
+        return service;
+    }
+
+    /**
+     * Шифрує значення поточним публічним ключем так, як це робить мобільний клієнт ("kid:" + Base64)
+     */
+    String encryptForServer(String value) {
+        return encryptForServer(value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Шифрує байти (напр. ключ конверта) поточним публічним ключем ("kid:" + Base64)
+     */
+    String encryptForServer(byte[] value) {
+        try {
+            KeyRingService.ServerKey key = keyRingService.current();
+            Cipher cipher = Cipher.getInstance(cryptoConfig.getRsa().getTransformation());
+            cipher.init(Cipher.ENCRYPT_MODE, key.rsa().getPublic());
+            byte[] encrypted = cipher.doFinal(value);
+            return key.kid() + ":" + Base64.getEncoder().encodeToString(encrypted);
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    static Group fixedTimesGroup() {
+        return Group.builder()
+                .id(UUID.randomUUID().toString())
+                .externalName("Бенчмарк")
+                .scheduleType(Group.ScheduleType.FIXED_TIMES)
+                .fixedTime1("08:00")
+                .fixedTime2("12:00")
+                .fixedTime3("16:00")
+                .fixedTime4("20:00")
+                .build();
+    }
+
+    static Group intervalGroup() {
+        return Group.builder()
+                .id(UUID.randomUUID().toString())
+                .externalName("Бенчмарк")
+                .scheduleType(Group.ScheduleType.INTERVAL)
+                .intervalMinutes(90)
+                .intervalStartTime("06:30")
+                .build();
+    }
+
+    /**
+     * Учасники групи: перший - адміністратор, решта - ACCEPTED користувачі із зашифрованими телефонами
+     */
+    List<GroupMember> members(Group group, int count) {
+        List<GroupMember> members = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            User user = User.builder()
+                    .id(UUID.randomUUID().toString())
+                    .name("Користувач " + i)
+                    .phoneEncrypted(encryptionService.encrypt(String.format("+38050%07d", i)))
+                    .build();
+            members.add(GroupMember.builder()
+                    .id(UUID.randomUUID().toString())
+                    .group(group)
+                    .user(user)
+                    .role(i == 0 ? GroupMember.Role.ADMIN : GroupMember.Role.MEMBER)
+                    .status(GroupMember.MemberStatus.ACCEPTED)
+                    .build());
+        }
+        return members;
+    }
+
+    /**
+     * Останні звіти учасників: кожен четвертий без звіту, решта рівномірно розкидані
+     * по останній добі (щоб покрити всі гілки логіки кольорів)
+     */
+    static List<Report> lastReports(List<GroupMember> members, LocalDateTime now) {
+        List<Report> reports = new ArrayList<>(members.size());
+        for (int i = 0; i < members.size(); i++) {
+            if (i % 4 == 3) {
+                reports.add(null);
+                continue;
+            }
+            GroupMember member = members.get(i);
+            reports.add(Report.builder()
+                    .id(UUID.randomUUID().toString())
+                    .user(member.getUser())
+                    .group(member.getGroup())
+                    .reportType(Report.ReportType.SIMPLE)
+                    .simpleResponse(i % 2 == 0 ? "ОК" : "НЕ ОК")
+                    .submittedAt(now.minusMinutes((i * 37L) % 1440))
+                    .build());
+        }
+        return reports;
+    }
+
+    /**
+     * Відповідь getGroupStatuses реалістичного розміру (як бачить її адміністратор - з телефонами)
+     */
+    static GroupStatusesResponse groupStatuses(int users) {
+        LocalDateTime now = LocalDateTime.now();
+        List<UserStatusResponse> statuses = new ArrayList<>(users);
+        for (int i = 0; i < users; i++) {
+            boolean reported = i % 4 != 3;
+            statuses.add(UserStatusResponse.builder()
+                    .userId(UUID.randomUUID().toString())
+                    .userName("Користувач " + i)
+                    .role(i == 0 ? Role.ADMIN : Role.MEMBER)
+                    .hasReported(reported)
+                    .lastReportAt(reported ? now.minusMinutes(i % 1440) : null)
+                    .lastReportResponse(reported ? "ОК" : null)
+                    .colorHex("#C8E6C9")
+                    .percentageElapsed(25.0)
+                    .previousScheduledTime(now.minusHours(2))
+                    .nextScheduledTime(now.plusHours(2))
+                    .serverTime(now)
+                    .timezone("Europe/Kiev")
+                    .phoneNumber(String.format("+38050%07d", i))
+                    .build());
+        }
+        return GroupStatusesResponse.builder().users(statuses).build();
+    }
+}
@@ -0,0 +1,79 @@
+package com.zvit.service;
+
+import com.zvit.dto.request.EnvelopeEncryptedRequest;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import javax.crypto.SecretKey;
+import java.security.GeneralSecurityException;
+import java.security.KeyPairGenerator;
+import java.security.SecureRandom;
+import java.security.interfaces.XECPublicKey;
+import java.util.Base64;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Ключ конверта запиту: X25519 + HKDF (EcKeyService) проти розгортання RSA ключа конверта
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class EcKeyServiceBenchmark {
+
+    private BenchmarkFixtures fixtures;
+    private String ephemeralPublicKey;
+    private EnvelopeEncryptedRequest x25519Request;
+    private EnvelopeEncryptedRequest rsaRequest;
+
+    @Setup
+    public void setUp() throws GeneralSecurityException {
+        fixtures = new BenchmarkFixtures();
+
+        // Ефемерний ключ клієнта: "kid:" + 32 байти raw, як надсилає мобільний клієнт
+        XECPublicKey ephemeral = (XECPublicKey) KeyPairGenerator.getInstance("X25519").generateKeyPair().getPublic();
+        ephemeralPublicKey = fixtures.keyRingService.current().kid() + ":"
+                + Base64.getEncoder().encodeToString(EcKeyService.toRaw(ephemeral));
+        String x25519Key = EcKeyService.ALGORITHM_ID + ":" + ephemeralPublicKey;
+        x25519Request = () -> x25519Key;
+
+        byte[] envelopeKey = new byte[32];
+        new SecureRandom().nextBytes(envelopeKey);
+        String rsaKey = fixtures.encryptForServer(envelopeKey);
+        rsaRequest = () -> rsaKey;
+    }
+
+    @TearDown
+    public void tearDown() {
+        fixtures.close();
+    }
+
+    /** Узгодження ключа X25519 та HKDF-SHA256 */
+    @Benchmark
+    public SecretKey deriveKey() {
+        return fixtures.ecKeyService.deriveKey(ephemeralPublicKey);
+    }
+
+    /** Дешифратор полів запиту з ключем конверта X25519 */
+    @Benchmark
+    public FieldDecryptor fieldDecryptorX25519() {
+        return fixtures.rsaKeyService.fieldDecryptor(x25519Request);
+    }
+
+    /** Дешифратор полів запиту з ключем конверта, зашифрованим RSA (одна операція приватним ключем) */
+    @Benchmark
+    public FieldDecryptor fieldDecryptorRsa() {
+        return fixtures.rsaKeyService.fieldDecryptor(rsaRequest);
+    }
+}
@@ -0,0 +1,40 @@
+package com.zvit.service;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Розшифрування номера телефону (на кожного учасника у статусах, які бачить адміністратор)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class EncryptionServiceBenchmark {
+
+    private EncryptionService encryptionService;
+    private String encryptedPhone;
+
+    @Setup
+    public void setUp() {
+        encryptionService = BenchmarkFixtures.encryptionService();
+        encryptedPhone = encryptionService.encrypt("+380501234567");
+    }
+
+    @Benchmark
+    public String decryptPhone() {
+        return encryptionService.decrypt(encryptedPhone);
+    }
+}
@@ -0,0 +1,60 @@
+package com.zvit.service;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Перевірка JWT на кожному запиті: з кешем перевірених токенів, без нього, та розбір claims
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class JwtServiceBenchmark {
+
+    private JwtService cachedJwtService;
+    private JwtService uncachedJwtService;
+    private String token;
+    private String userId;
+
+    @Setup
+    public void setUp() {
+        cachedJwtService = BenchmarkFixtures.jwtService(10000);
+        uncachedJwtService = BenchmarkFixtures.jwtService(0);
+        userId = UUID.randomUUID().toString();
+        token = cachedJwtService.generateToken(userId, "+380501234567", UUID.randomUUID().toString(), true);
+    }
+
+    @Benchmark
+    public JwtService.VerifiedToken verifyCached() {
+        return cachedJwtService.verify(token);
+    }
+
+    @Benchmark
+    public JwtService.VerifiedToken verifyUncached() {
+        return uncachedJwtService.verify(token);
+    }
+
+    @Benchmark
+    public String extractUserId() {
+        return uncachedJwtService.extractUserId(token);
+    }
+
+    @Benchmark
+    public Boolean validateToken() {
+        return uncachedJwtService.validateToken(token, userId);
+    }
+}
@@ -0,0 +1,59 @@
+package com.zvit.service;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Дешифрування полів звіту приватним RSA ключем (старі клієнти без ключа конверта)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class RSAKeyServiceBenchmark {
+
+    private BenchmarkFixtures fixtures;
+    private String encrypted;
+    private String encryptedWithoutKid;
+
+    @Setup
+    public void setUp() {
+        fixtures = new BenchmarkFixtures();
+        encrypted = fixtures.encryptForServer("Все добре, на місці");
+        encryptedWithoutKid = encrypted.substring(encrypted.indexOf(':') + 1);
+    }
+
+    @TearDown
+    public void tearDown() {
+        fixtures.close();
+    }
+
+    @Benchmark
+    public String decrypt() {
+        return fixtures.rsaKeyService.decrypt(encrypted);
+    }
+
+    @Benchmark
+    public String decryptIfEncrypted() {
+        return fixtures.rsaKeyService.decryptIfEncrypted(encryptedWithoutKid);
+    }
+
+    /** Незашифроване значення - тільки перевірка формату */
+    @Benchmark
+    public String decryptIfEncryptedPlain() {
+        return fixtures.rsaKeyService.decryptIfEncrypted("Все добре, на місці");
+    }
+}
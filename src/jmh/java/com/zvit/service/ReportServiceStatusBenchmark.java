@@ -0,0 +1,104 @@
+package com.zvit.service;
+
+import com.zvit.config.ReportConfig;
+import com.zvit.dto.response.UserStatusResponse;
+import com.zvit.entity.Group;
+import com.zvit.entity.GroupMember;
+import com.zvit.entity.Report;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.time.Clock;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Обчислення розкладу групи та статусів учасників (логіка кольорів) без звернень до БД -
+ * та частина getGroupStatuses, що залежить від розміру групи
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class ReportServiceStatusBenchmark {
+
+    private ReportService reportService;
+    private Group fixedTimesGroup;
+    private Group intervalGroup;
+
+    @Setup
+    public void setUp() {
+        BenchmarkFixtures fixtures = new BenchmarkFixtures();
+        // Репозиторії не потрібні: вимірюється тільки обчислювальна частина
+        reportService = new ReportService(null, null, null, null, null,
+                fixtures.encryptionService, null, fixtures.rsaKeyService, null, new ReportConfig(),
+                Clock.systemDefaultZone());
+        fixedTimesGroup = BenchmarkFixtures.fixedTimesGroup();
+        intervalGroup = BenchmarkFixtures.intervalGroup();
+        fixtures.close();
+    }
+
+    /**
+     * Учасники групи та їх останні звіти (окремий стан, щоб параметри не множили бенчмарки розкладу)
+     */
+    @State(Scope.Benchmark)
+    public static class Members {
+
+        @Param({"100", "1000"})
+        private int members;
+
+        @Param({"false", "true"})
+        private boolean requesterAdmin;
+
+        private List<GroupMember> groupMembers;
+        private List<Report> lastReports;
+
+        @Setup
+        public void setUp(ReportServiceStatusBenchmark benchmark) {
+            BenchmarkFixtures fixtures = new BenchmarkFixtures();
+            groupMembers = fixtures.members(benchmark.fixedTimesGroup, members);
+            lastReports = BenchmarkFixtures.lastReports(groupMembers, LocalDateTime.now());
+            fixtures.close();
+        }
+    }
+
+    @Benchmark
+    public void scheduleFixedTimes(Blackhole blackhole) {
+        blackhole.consume(reportService.calculatePreviousScheduledTime(fixedTimesGroup));
+        blackhole.consume(reportService.calculateNextScheduledTime(fixedTimesGroup));
+    }
+
+    @Benchmark
+    public void scheduleInterval(Blackhole blackhole) {
+        blackhole.consume(reportService.calculatePreviousScheduledTime(intervalGroup));
+        blackhole.consume(reportService.calculateNextScheduledTime(intervalGroup));
+    }
+
+    /** Статуси всієї групи, як у getGroupStatuses */
+    @Benchmark
+    public void groupStatuses(Members state, Blackhole blackhole) {
+        LocalDateTime previous = reportService.calculatePreviousScheduledTime(fixedTimesGroup);
+        LocalDateTime next = reportService.calculateNextScheduledTime(fixedTimesGroup);
+        LocalDateTime serverTime = LocalDateTime.now();
+        for (int i = 0; i < state.groupMembers.size(); i++) {
+            Report lastReport = state.lastReports.get(i);
+            UserStatusResponse status = reportService.createStatusResponse(state.groupMembers.get(i), lastReport,
+                    lastReport != null ? lastReport.getSubmittedAt() : null, previous, next,
+                    serverTime, "Europe/Kiev", state.requesterAdmin, null);
+            blackhole.consume(status);
+        }
+    }
+}
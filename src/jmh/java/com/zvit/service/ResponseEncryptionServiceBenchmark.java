@@ -0,0 +1,166 @@
+package com.zvit.service;
+
+import com.zvit.config.EncryptedBinaryHttpMessageConverter;
+import com.zvit.dto.response.ApiResponse;
+import com.zvit.dto.response.EncryptedData;
+import com.zvit.dto.response.GroupStatusesResponse;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import javax.crypto.SecretKey;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Шифрування відповіді getGroupStatuses (JSON + AES) для груп різного розміру:
+ * в рядок, потоково через ObjectMapper (як у контролерах) та бінарним транспортом (gzip)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class ResponseEncryptionServiceBenchmark {
+
+    private static final String TOKEN_ID = "benchmark";
+
+    @Param({"10", "100", "1000"})
+    private int users;
+
+    private BenchmarkFixtures fixtures;
+    private GroupStatusesResponse response;
+    private SecretKey sessionKey;
+    private EncryptedBinaryHttpMessageConverter binaryConverter;
+
+    @Setup
+    public void setUp() {
+        fixtures = new BenchmarkFixtures();
+        response = BenchmarkFixtures.groupStatuses(users);
+        sessionKey = fixtures.sessionKeyService.createSessionKey(TOKEN_ID,
+                System.currentTimeMillis() + BenchmarkFixtures.JWT_EXPIRATION);
+        binaryConverter = new EncryptedBinaryHttpMessageConverter(fixtures.objectMapper);
+    }
+
+    @TearDown
+    public void tearDown() {
+        fixtures.close();
+    }
+
+    /** Статичний ключ (AES/ECB) - запит без сесійного ключа */
+    @Benchmark
+    public String encryptObject() {
+        return fixtures.responseEncryptionService.encryptObject(response);
+    }
+
+    /** Сесійний ключ токена (AES/GCM) */
+    @Benchmark
+    public String encryptObjectWithSessionKey() {
+        return fixtures.responseEncryptionService.encryptObjectWithSessionKey(response, sessionKey);
+    }
+
+    /** Потокове шифрування статичним ключем: EncryptedData серіалізується ObjectMapper-ом у відповідь */
+    @Benchmark
+    public void encryptObjectStreaming(Blackhole blackhole) throws IOException {
+        EncryptedData data = EncryptedData.of(fixtures.responseEncryptionService.encryptObjectStreaming(response));
+        fixtures.objectMapper.writeValue(new BlackholeOutputStream(blackhole),
+                ApiResponse.success("Статуси отримано", data));
+    }
+
+    /** Потокове шифрування сесійним ключем запиту (AES/GCM) */
+    @Benchmark
+    public void encryptObjectStreamingWithSessionKey(SessionRequest request, Blackhole blackhole) throws IOException {
+        EncryptedData data = EncryptedData.of(fixtures.responseEncryptionService.encryptObjectStreaming(response));
+        fixtures.objectMapper.writeValue(new BlackholeOutputStream(blackhole),
+                ApiResponse.success("Статуси отримано", data));
+    }
+
+    /** Бінарний транспорт: gzip + AES/GCM сесійним ключем, без Base64 (Accept: application/octet-stream) */
+    @Benchmark
+    public void encryptBinaryWithSessionKey(SessionRequest request, Blackhole blackhole) throws IOException {
+        EncryptedData data = EncryptedData.of(fixtures.responseEncryptionService.encryptObjectStreaming(response));
+        binaryConverter.write(ApiResponse.success("Статуси отримано", data), MediaType.APPLICATION_OCTET_STREAM,
+                new BlackholeOutputMessage(blackhole));
+    }
+
+    /**
+     * Контекст запиту з сесійним ключем токена (як після JwtAuthenticationFilter).
+     * RequestContextHolder прив'язаний до потоку, тому стан - на потік бенчмарку
+     */
+    @State(Scope.Thread)
+    public static class SessionRequest {
+
+        @Setup
+        public void setUp() {
+            MockHttpServletRequest request = new MockHttpServletRequest();
+            request.setAttribute(SessionKeyService.TOKEN_ID_ATTRIBUTE, TOKEN_ID);
+            RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+        }
+
+        @TearDown
+        public void tearDown() {
+            RequestContextHolder.resetRequestAttributes();
+        }
+    }
+
+    /**
+     * Тіло відповіді, що віддає записані байти в Blackhole (без буферизації в пам'яті)
+     */
+    private static final class BlackholeOutputStream extends OutputStream {
+
+        private final Blackhole blackhole;
+
+        BlackholeOutputStream(Blackhole blackhole) {
+            this.blackhole = blackhole;
+        }
+
+        @Override
+        public void write(int b) {
+            blackhole.consume(b);
+        }
+
+        @Override
+        public void write(byte[] bytes, int offset, int length) {
+            blackhole.consume(bytes);
+            blackhole.consume(length);
+        }
+    }
+
+    private static final class BlackholeOutputMessage implements HttpOutputMessage {
+
+        private final HttpHeaders headers = new HttpHeaders();
+        private final OutputStream body;
+
+        BlackholeOutputMessage(Blackhole blackhole) {
+            this.body = new BlackholeOutputStream(blackhole);
+        }
+
+        @Override
+        public OutputStream getBody() {
+            return body;
+        }
+
+        @Override
+        public HttpHeaders getHeaders() {
+            return headers;
+        }
+    }
+}
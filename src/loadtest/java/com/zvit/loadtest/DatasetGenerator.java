@@ -0,0 +1,177 @@
+package com.zvit.loadtest;
+
+import com.zvit.service.EncryptionService;
+import com.zvit.service.PasswordHashingService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.UUID;
+
+/**
+ * Синтетична організація: користувачі, групи з розкладом, членство та історія звітів за N днів.
+ * Пишеться напряму пакетними JDBC вставками (сервісний шлях для сотень тисяч звітів занадто повільний).
+ * Телефони та паролі - справжні (зашифровані/хешовані як при реєстрації), тож на стенд можна увійти:
+ * телефон +380500000000 + номер користувача, пароль PASSWORD.
+ */
+@Slf4j
+@RequiredArgsConstructor
+public class DatasetGenerator {
+
+    public static final String PASSWORD = "loadtest";
+
+    private static final int BATCH_SIZE = 5000;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final EncryptionService encryptionService;
+    private final PasswordHashingService passwordHashingService;
+    private final LoadTestProperties properties;
+
+    /** Фіксований seed - однаковий набір даних від прогону до прогону */
+    private final Random random = new Random(42);
+
+    /**
+     * Група стенду
+     * @param adminIds  адміністратори (запускають терміновий збір, дивляться статуси)
+     * @param memberIds звичайні учасники (подають звіти)
+     */
+    public record GroupData(String id, List<String> adminIds, List<String> memberIds) {
+    }
+
+    /**
+     * @param phones телефон користувача за його id (для JWT)
+     */
+    public record Dataset(List<GroupData> groups, Map<String, String> phones, long reports) {
+    }
+
+    public Dataset generate() {
+        LoadTestProperties.Organization organization = properties.getOrganization();
+        LocalDate day = properties.getDay();
+        LocalDateTime createdAt = day.minusDays(organization.getHistoryDays() + 1L).atTime(8, 0);
+        String passwordHash = passwordHashingService.encode(PASSWORD);
+
+        List<Object[]> users = new ArrayList<>(organization.getUsers());
+        Map<String, String> phones = new HashMap<>(organization.getUsers() * 2);
+        for (int i = 0; i < organization.getUsers(); i++) {
+            String userId = UUID.randomUUID().toString();
+            String phone = String.format("+380%09d", 500000000L + i);
+            phones.put(userId, phone);
+            users.add(new Object[] {userId, sha256(phone), encryptionService.encrypt(phone), passwordHash,
+                    "Користувач " + i, Timestamp.valueOf(createdAt), Timestamp.valueOf(createdAt),
+                    random.nextDouble() < organization.getFcmTokenShare() ? "loadtest-fcm-" + i : null});
+        }
+        batchInsert("INSERT INTO users (id, phone_hash, phone_encrypted, password_hash, name, "
+                + "phone_verified, email_verified, is_active, created_at, updated_at, fcm_token) "
+                + "VALUES (?, ?, ?, ?, ?, TRUE, FALSE, TRUE, ?, ?, ?)", users);
+
+        List<GroupData> groups = new ArrayList<>();
+        List<Object[]> groupRows = new ArrayList<>();
+        List<Object[]> memberships = new ArrayList<>(organization.getUsers());
+        List<String> userIds = users.stream().map(row -> (String) row[0]).toList();
+        for (int from = 0; from < userIds.size(); from += organization.getGroupSize()) {
+            List<String> groupUsers = userIds.subList(from, Math.min(from + organization.getGroupSize(), userIds.size()));
+            int admins = Math.min(organization.getAdminsPerGroup(), groupUsers.size());
+            GroupData group = new GroupData(UUID.randomUUID().toString(),
+                    List.copyOf(groupUsers.subList(0, admins)), List.copyOf(groupUsers.subList(admins, groupUsers.size())));
+            groups.add(group);
+
+            int number = groups.size();
+            // Кожна четверта група звітує за інтервалом, решта - у фіксовані години
+            boolean interval = number % 4 == 0;
+            groupRows.add(new Object[] {group.id(), "Підрозділ " + number,
+                    String.format("GROUP-%05d", number), String.format("@loadtest%08d", number),
+                    organization.getGroupSize() * 2, groupUsers.size(),
+                    interval ? "INTERVAL" : "FIXED_TIMES",
+                    interval ? null : "09:00", interval ? null : "13:00", interval ? null : "18:00",
+                    interval ? 180 : null, interval ? "06:00" : null,
+                    group.adminIds().get(0), Timestamp.valueOf(createdAt), Timestamp.valueOf(createdAt)});
+            for (String userId : groupUsers) {
+                memberships.add(new Object[] {UUID.randomUUID().toString(), group.id(), userId,
+                        group.adminIds().contains(userId) ? "ADMIN" : "MEMBER", "ACCEPTED",
+                        Timestamp.valueOf(createdAt)});
+            }
+        }
+        batchInsert("INSERT INTO `groups` (id, external_name, access_code, internal_code, max_members, "
+                + "accepted_count, pending_count, report_type, schedule_type, fixed_time_1, fixed_time_2, "
+                + "fixed_time_3, interval_minutes, interval_start_time, positive_word, negative_word, "
+                + "created_by, created_at, updated_at) "
+                + "VALUES (?, ?, ?, ?, ?, ?, 0, 'SIMPLE', ?, ?, ?, ?, ?, ?, 'ОК', 'НЕ ОК', ?, ?, ?)", groupRows);
+        batchInsert("INSERT INTO group_members (id, group_id, user_id, role, status, joined_at) "
+                + "VALUES (?, ?, ?, ?, ?, ?)", memberships);
+
+        long reports = generateHistory(groups, day, organization);
+        log.info("Dataset: {} users, {} groups, {} reports over {} days",
+                users.size(), groups.size(), reports, organization.getHistoryDays());
+        return new Dataset(groups, phones, reports);
+    }
+
+    /**
+     * Звіти за попередні дні: щоранку після 09:00 (більшість - в перші хвилини), частина - ще й увечері
+     */
+    private long generateHistory(List<GroupData> groups, LocalDate day, LoadTestProperties.Organization organization) {
+        String sql = "INSERT INTO reports (id, user_id, group_id, report_type, simple_response, "
+                + "is_urgent, submitted_at) VALUES (?, ?, ?, 'SIMPLE', ?, FALSE, ?)";
+        List<Object[]> batch = new ArrayList<>(BATCH_SIZE);
+        long total = 0;
+        for (int daysAgo = organization.getHistoryDays(); daysAgo >= 1; daysAgo--) {
+            LocalDateTime morning = day.minusDays(daysAgo).atTime(LocalTime.of(9, 0));
+            for (GroupData group : groups) {
+                for (String userId : group.memberIds()) {
+                    if (random.nextDouble() >= organization.getDailyReportShare()) {
+                        continue;
+                    }
+                    batch.add(report(userId, group.id(), morning.plusSeconds(delaySeconds(180))));
+                    if (random.nextInt(4) == 0) {
+                        batch.add(report(userId, group.id(), morning.plusHours(9).plusSeconds(delaySeconds(600))));
+                    }
+                    if (batch.size() >= BATCH_SIZE) {
+                        total += batchInsert(sql, batch);
+                        batch.clear();
+                    }
+                }
+            }
+        }
+        total += batchInsert(sql, batch);
+        return total;
+    }
+
+    private Object[] report(String userId, String groupId, LocalDateTime submittedAt) {
+        return new Object[] {UUID.randomUUID().toString(), userId, groupId,
+                random.nextInt(20) == 0 ? "НЕ ОК" : "ОК", Timestamp.valueOf(submittedAt)};
+    }
+
+    /** Експоненційна затримка із середнім meanSeconds */
+    private long delaySeconds(double meanSeconds) {
+        return (long) (-Math.log(1 - random.nextDouble()) * meanSeconds);
+    }
+
+    private int batchInsert(String sql, List<Object[]> rows) {
+        if (rows.isEmpty()) {
+            return 0;
+        }
+        jdbcTemplate.batchUpdate(sql, rows);
+        return rows.size();
+    }
+
+    private static String sha256(String value) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(value.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,116 @@
+package com.zvit.loadtest;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Затримки запитів по фазах сценарію та ендпоінтах: p50/p99/max, кількість помилок і пропускна здатність.
+ * Затримка рахується від запланованого часу відправки (а не фактичного), щоб відставання самого драйвера
+ * під навантаженням не ховало черги на сервері.
+ */
+public class LatencyRecorder {
+
+    private final Map<String, Phase> phases = new LinkedHashMap<>();
+
+    private static final class Phase {
+        private final long startedAt = System.nanoTime();
+        private volatile long finishedAt;
+        private final Map<String, Series> endpoints = new ConcurrentHashMap<>();
+    }
+
+    private static final class Series {
+        private long[] latencies = new long[1024];
+        private int count;
+        private int errors;
+
+        synchronized void add(long nanos, boolean error) {
+            if (count == latencies.length) {
+                latencies = Arrays.copyOf(latencies, count * 2);
+            }
+            latencies[count++] = nanos;
+            if (error) {
+                errors++;
+            }
+        }
+
+        synchronized long[] sorted() {
+            long[] copy = Arrays.copyOf(latencies, count);
+            Arrays.sort(copy);
+            return copy;
+        }
+
+        synchronized int errors() {
+            return errors;
+        }
+    }
+
+    /**
+     * Рядок звіту: одна фаза, один ендпоінт
+     */
+    public record Row(String phase, String endpoint, int count, int errors, double throughput,
+                      double p50Ms, double p99Ms, double maxMs) {
+    }
+
+    public synchronized void startPhase(String name) {
+        phases.put(name, new Phase());
+    }
+
+    public synchronized void finishPhase(String name) {
+        phases.get(name).finishedAt = System.nanoTime();
+    }
+
+    /**
+     * @param status HTTP статус, або -1 якщо запит не виконано (таймаут, з'єднання)
+     */
+    public void record(String phase, String endpoint, long latencyNanos, int status) {
+        Phase current;
+        synchronized (this) {
+            current = phases.get(phase);
+        }
+        current.endpoints.computeIfAbsent(endpoint, key -> new Series())
+                .add(latencyNanos, status < 200 || status >= 300);
+    }
+
+    public synchronized List<Row> rows() {
+        List<Row> rows = new ArrayList<>();
+        phases.forEach((name, phase) -> {
+            double seconds = ((phase.finishedAt != 0 ? phase.finishedAt : System.nanoTime()) - phase.startedAt) / 1e9;
+            phase.endpoints.entrySet().stream()
+                    .sorted(Map.Entry.comparingByKey())
+                    .forEach(entry -> {
+                        long[] sorted = entry.getValue().sorted();
+                        rows.add(new Row(name, entry.getKey(), sorted.length, entry.getValue().errors(),
+                                sorted.length / seconds,
+                                percentileMs(sorted, 0.50), percentileMs(sorted, 0.99),
+                                sorted.length > 0 ? sorted[sorted.length - 1] / 1e6 : 0));
+                    });
+        });
+        return rows;
+    }
+
+    private static double percentileMs(long[] sorted, double percentile) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int index = (int) Math.ceil(percentile * sorted.length) - 1;
+        return sorted[Math.max(0, index)] / 1e6;
+    }
+
+    /**
+     * Таблиця для консолі та файлу звіту
+     */
+    public String format() {
+        StringBuilder out = new StringBuilder(String.format("%-10s %-40s %8s %7s %9s %10s %10s %10s%n",
+                "phase", "endpoint", "count", "errors", "req/s", "p50 ms", "p99 ms", "max ms"));
+        for (Row row : rows()) {
+            out.append(String.format("%-10s %-40s %8d %7d %9.1f %10.1f %10.1f %10.1f%n",
+                    row.phase(), row.endpoint(), row.count(), row.errors(), row.throughput(),
+                    row.p50Ms(), row.p99Ms(), row.maxMs()));
+        }
+        return out.toString();
+    }
+}
@@ -0,0 +1,104 @@
+package com.zvit.loadtest;
+
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+/**
+ * Параметри стенду (префікс loadtest в application-loadtest.yml,
+ * перевизначаються змінними оточення, напр. LOADTEST_ORGANIZATION_USERS=20000)
+ */
+@Getter
+@Setter
+public class LoadTestProperties {
+
+    /** Сценарний день (симульована дата спайків) */
+    private LocalDate day = LocalDate.of(2026, 3, 2);
+
+    /** Таймаут одного HTTP запиту, с */
+    private int httpTimeoutSeconds = 30;
+
+    /** Файл звіту (перезаписується) */
+    private String reportFile = "target/loadtest/report.txt";
+
+    private Organization organization = new Organization();
+    private Warmup warmup = new Warmup();
+    private Morning morning = new Morning();
+    private Urgent urgent = new Urgent();
+
+    @Getter
+    @Setter
+    public static class Organization {
+        /** Кількість користувачів */
+        private int users = 1000;
+
+        /** Учасників у групі (останні групи можуть бути меншими) */
+        private int groupSize = 30;
+
+        /** Адміністраторів у групі */
+        private int adminsPerGroup = 2;
+
+        /** Днів історії звітів до сценарного дня */
+        private int historyDays = 60;
+
+        /** Частка учасників, що звітують щодня (в історії) */
+        private double dailyReportShare = 0.9;
+
+        /** Частка користувачів з FCM токеном (отримувачі push) */
+        private double fcmTokenShare = 0.9;
+    }
+
+    /** Прогрів (JIT, пули з'єднань, кеші) перед вимірюваними фазами: тільки читання */
+    @Getter
+    @Setter
+    public static class Warmup {
+        /** Кількість запитів (0 = без прогріву) */
+        private int requests = 1000;
+
+        /** Тривалість, реальні секунди */
+        private int seconds = 60;
+    }
+
+    /** Ранковий спайк: вся організація звітує після планового часу */
+    @Getter
+    @Setter
+    public static class Morning {
+        private LocalTime at = LocalTime.of(9, 0);
+
+        /** Вікно подачі звітів, симульовані хвилини */
+        private int windowMinutes = 15;
+
+        /** Прискорення симульованого часу */
+        private double speedup = 5;
+
+        /** Частка учасників, що подають звіт */
+        private double reportShare = 0.95;
+
+        /** Як часто кожен адміністратор оновлює статуси групи, симульовані секунди */
+        private int statusPollSeconds = 60;
+    }
+
+    /** Терміновий збір: адміністратори частини груп одночасно запускають збір, учасники відповідають */
+    @Getter
+    @Setter
+    public static class Urgent {
+        private LocalTime at = LocalTime.of(14, 0);
+
+        /** Частка груп, що запускають терміновий збір */
+        private double groupShare = 0.3;
+
+        /** Дедлайн збору, хв (5-120, як у API) */
+        private int deadlineMinutes = 15;
+
+        /** Прискорення симульованого часу */
+        private double speedup = 5;
+
+        /** Частка учасників, що відповідають до дедлайну */
+        private double responseShare = 0.85;
+
+        /** Як часто адміністратор оновлює статуси під час збору, симульовані секунди */
+        private int statusPollSeconds = 30;
+    }
+}
@@ -0,0 +1,80 @@
+package com.zvit.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.zvit.ZvitApplication;
+import com.zvit.service.EncryptionService;
+import com.zvit.service.JwtService;
+import com.zvit.service.PasswordHashingService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.support.GenericApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.ZoneId;
+
+/**
+ * Навантажувальний стенд без зовнішніх залежностей:
+ * додаток з профілем loadtest (вбудована H2 в режимі MySQL, заглушка push-шлюзу, симульований час),
+ * синтетична організація з історією звітів і сценарій дня через REST.
+ * Запуск: mvn -Ploadtest -DskipTests verify (параметри - application-loadtest.yml).
+ */
+@Slf4j
+public final class LoadTestRunner {
+
+    private LoadTestRunner() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        SimulatedClock clock = new SimulatedClock(ZoneId.systemDefault());
+
+        SpringApplication application = new SpringApplication(ZvitApplication.class);
+        application.setAdditionalProfiles("loadtest");
+        // Зареєстрований до конфігурацій - AppConfig.clock() не створюється
+        application.addInitializers(context ->
+                ((GenericApplicationContext) context).registerBean("clock", Clock.class, () -> clock));
+
+        String report;
+        try (ConfigurableApplicationContext context = application.run(args)) {
+            LoadTestProperties properties = Binder.get(context.getEnvironment())
+                    .bind("loadtest", LoadTestProperties.class)
+                    .orElseGet(LoadTestProperties::new);
+            clock.set(properties.getDay().atStartOfDay(), 1);
+
+            DatasetGenerator generator = new DatasetGenerator(
+                    context.getBean(JdbcTemplate.class),
+                    context.getBean(EncryptionService.class),
+                    context.getBean(PasswordHashingService.class),
+                    properties);
+            long startedAt = System.nanoTime();
+            DatasetGenerator.Dataset dataset = generator.generate();
+            log.info("Dataset generated in {} s", (System.nanoTime() - startedAt) / 1_000_000_000);
+
+            String baseUrl = "http://localhost:" + context.getEnvironment().getProperty("local.server.port");
+            ScenarioDriver driver = new ScenarioDriver(baseUrl, clock,
+                    context.getBean(JwtService.class), context.getBean(ObjectMapper.class), properties, dataset);
+            report = String.format("dataset: %d users, %d groups, %d historical reports; day %s%n",
+                    dataset.phones().size(), dataset.groups().size(), dataset.reports(), properties.getDay())
+                    + driver.run().format();
+            writeReport(Path.of(properties.getReportFile()), report);
+        }
+
+        System.out.println();
+        System.out.print(report);
+        System.exit(0);
+    }
+
+    private static void writeReport(Path file, String report) throws IOException {
+        if (file.getParent() != null) {
+            Files.createDirectories(file.getParent());
+        }
+        Files.writeString(file, report, StandardCharsets.UTF_8);
+        log.info("Report written to {}", file.toAbsolutePath());
+    }
+}
@@ -0,0 +1,254 @@
+package com.zvit.loadtest;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.zvit.service.JwtService;
+import lombok.extern.slf4j.Slf4j;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Відтворює день організації через справжні REST ендпоінти:
+ * ранковий спайк (всі звітують після 09:00, адміністратори стежать за статусами)
+ * та терміновий збір (частина груп одночасно, учасники відповідають до дедлайну).
+ * Відкрита модель навантаження: запити відправляються за розкладом незалежно від відповідей сервера.
+ */
+@Slf4j
+public class ScenarioDriver {
+
+    private static final String GROUPS = "GET /api/v1/groups";
+    private static final String SIMPLE_REPORT = "POST /api/v1/reports/simple";
+    private static final String STATUSES = "GET /api/v1/reports/statuses/{groupId}";
+    private static final String URGENT = "POST /api/v1/reports/urgent";
+    private static final String END_URGENT = "DELETE /api/v1/reports/urgent/{groupId}";
+
+    private final String baseUrl;
+    private final SimulatedClock clock;
+    private final JwtService jwtService;
+    private final ObjectMapper objectMapper;
+    private final LoadTestProperties properties;
+    private final DatasetGenerator.Dataset dataset;
+    private final LatencyRecorder recorder = new LatencyRecorder();
+
+    private final HttpClient httpClient;
+    private final ScheduledExecutorService scheduler = Executors.newScheduledThreadPool(2, runnable -> {
+        Thread thread = new Thread(runnable, "loadtest-scheduler");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final Map<String, String> tokens = new ConcurrentHashMap<>();
+    private final Random random = new Random(7);
+
+    /**
+     * Запит, запланований на момент сценарію (симульовані мілісекунди від початку фази)
+     */
+    private record Planned(long atMillis, String endpoint, HttpRequest request) {
+    }
+
+    public ScenarioDriver(String baseUrl, SimulatedClock clock, JwtService jwtService, ObjectMapper objectMapper,
+                          LoadTestProperties properties, DatasetGenerator.Dataset dataset) {
+        this.baseUrl = baseUrl;
+        this.clock = clock;
+        this.jwtService = jwtService;
+        this.objectMapper = objectMapper;
+        this.properties = properties;
+        this.dataset = dataset;
+        this.httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(properties.getHttpTimeoutSeconds()))
+                .build();
+    }
+
+    public LatencyRecorder run() throws InterruptedException {
+        warmup();
+        morning();
+        urgent();
+        scheduler.shutdownNow();
+        return recorder;
+    }
+
+    /**
+     * Прогрів до ранкового спайку: рівномірні читання списків груп та статусів (в звіті окремою фазою)
+     */
+    private void warmup() throws InterruptedException {
+        LoadTestProperties.Warmup warmup = properties.getWarmup();
+        if (warmup.getRequests() <= 0) {
+            return;
+        }
+        long durationMillis = TimeUnit.SECONDS.toMillis(warmup.getSeconds());
+        List<Planned> plan = new ArrayList<>(warmup.getRequests());
+        for (int i = 0; i < warmup.getRequests(); i++) {
+            DatasetGenerator.GroupData group = dataset.groups().get(random.nextInt(dataset.groups().size()));
+            long at = durationMillis * i / warmup.getRequests();
+            plan.add(i % 2 == 0
+                    ? new Planned(at, STATUSES, get("/api/v1/reports/statuses/" + group.id(), group.adminIds().get(0)))
+                    : new Planned(at, GROUPS, get("/api/v1/groups", group.adminIds().get(0))));
+        }
+        execute("warmup", properties.getDay().atTime(7, 0), 1, plan);
+    }
+
+    /**
+     * Ранковий спайк: відкриття додатку (список груп) і звіт, вся організація протягом вікна
+     */
+    private void morning() throws InterruptedException {
+        LoadTestProperties.Morning morning = properties.getMorning();
+        long windowMillis = TimeUnit.MINUTES.toMillis(morning.getWindowMinutes());
+        List<Planned> plan = new ArrayList<>();
+
+        for (DatasetGenerator.GroupData group : dataset.groups()) {
+            for (String userId : group.memberIds()) {
+                if (random.nextDouble() >= morning.getReportShare()) {
+                    continue;
+                }
+                // Більшість звітує в перші хвилини після планового часу
+                long at = Math.min(exponentialMillis(windowMillis / 5.0), windowMillis);
+                plan.add(new Planned(at, GROUPS, get("/api/v1/groups", userId)));
+                plan.add(new Planned(Math.min(at + 2000 + random.nextInt(8000), windowMillis), SIMPLE_REPORT,
+                        post("/api/v1/reports/simple", userId, simpleReport(group.id()))));
+            }
+            pollStatuses(plan, group, 0, windowMillis, morning.getStatusPollSeconds());
+        }
+
+        execute("morning", properties.getDay().atTime(morning.getAt()), morning.getSpeedup(), plan);
+    }
+
+    /**
+     * Терміновий збір: адміністратор запускає збір, учасники відповідають звітом, в кінці збір завершується
+     */
+    private void urgent() throws InterruptedException {
+        LoadTestProperties.Urgent urgent = properties.getUrgent();
+        long deadlineMillis = TimeUnit.MINUTES.toMillis(urgent.getDeadlineMinutes());
+        List<Planned> plan = new ArrayList<>();
+
+        List<DatasetGenerator.GroupData> groups = new ArrayList<>(dataset.groups());
+        Collections.shuffle(groups, random);
+        int urgentGroups = (int) Math.ceil(groups.size() * urgent.getGroupShare());
+        for (DatasetGenerator.GroupData group : groups.subList(0, urgentGroups)) {
+            String adminId = group.adminIds().get(0);
+            plan.add(new Planned(random.nextInt(5000), URGENT,
+                    post("/api/v1/reports/urgent", adminId, urgentRequest(group.id(), urgent.getDeadlineMinutes()))));
+            for (String userId : group.memberIds()) {
+                if (random.nextDouble() >= urgent.getResponseShare()) {
+                    continue;
+                }
+                // Відповіді після push: не раніше ніж через 10 с, більшість - в першу третину дедлайну
+                long at = Math.min(10_000 + exponentialMillis(deadlineMillis / 4.0), deadlineMillis - 1000);
+                plan.add(new Planned(at, SIMPLE_REPORT,
+                        post("/api/v1/reports/simple", userId, simpleReport(group.id()))));
+            }
+            pollStatuses(plan, group, 5000, deadlineMillis, urgent.getStatusPollSeconds());
+            plan.add(new Planned(deadlineMillis, END_URGENT,
+                    request("/api/v1/reports/urgent/" + group.id(), adminId).DELETE().build()));
+        }
+
+        execute("urgent", properties.getDay().atTime(urgent.getAt()), urgent.getSpeedup(), plan);
+    }
+
+    /**
+     * Кожен адміністратор групи періодично оновлює статуси (перше оновлення - у випадковий момент періоду)
+     */
+    private void pollStatuses(List<Planned> plan, DatasetGenerator.GroupData group,
+                              long fromMillis, long toMillis, int periodSeconds) {
+        long period = TimeUnit.SECONDS.toMillis(periodSeconds);
+        for (String adminId : group.adminIds()) {
+            HttpRequest request = get("/api/v1/reports/statuses/" + group.id(), adminId);
+            for (long at = fromMillis + random.nextLong(period); at <= toMillis; at += period) {
+                plan.add(new Planned(at, STATUSES, request));
+            }
+        }
+    }
+
+    /**
+     * Переводить годинник на початок фази і відправляє запити за розкладом (час стиснутий у speedup разів)
+     */
+    private void execute(String phase, LocalDateTime at, double speedup, List<Planned> plan) throws InterruptedException {
+        log.info("Phase {}: {} requests from {} (x{} speed)", phase, plan.size(), at, speedup);
+        recorder.startPhase(phase);
+        clock.set(at, speedup);
+        long phaseStart = System.nanoTime();
+
+        List<CompletableFuture<?>> inFlight = Collections.synchronizedList(new ArrayList<>(plan.size()));
+        for (Planned planned : plan) {
+            long delayNanos = (long) (TimeUnit.MILLISECONDS.toNanos(planned.atMillis()) / speedup);
+            scheduler.schedule(() -> {
+                long intendedStart = phaseStart + delayNanos;
+                try {
+                    inFlight.add(httpClient.sendAsync(planned.request(), HttpResponse.BodyHandlers.discarding())
+                            .whenComplete((response, error) -> recorder.record(phase, planned.endpoint(),
+                                    System.nanoTime() - intendedStart, error != null ? -1 : response.statusCode())));
+                } catch (RuntimeException e) {
+                    recorder.record(phase, planned.endpoint(), System.nanoTime() - intendedStart, -1);
+                    inFlight.add(CompletableFuture.completedFuture(null));
+                }
+            }, delayNanos, TimeUnit.NANOSECONDS);
+        }
+
+        long lastDelayNanos = plan.stream().mapToLong(Planned::atMillis).max().orElse(0);
+        TimeUnit.NANOSECONDS.sleep((long) (TimeUnit.MILLISECONDS.toNanos(lastDelayNanos) / speedup));
+        // Дочікуємось запланованих, але ще не відправлених, та відповідей на відправлені
+        while (inFlight.size() < plan.size()) {
+            TimeUnit.MILLISECONDS.sleep(50);
+        }
+        CompletableFuture.allOf(inFlight.toArray(CompletableFuture[]::new))
+                .exceptionally(error -> null)
+                .join();
+        recorder.finishPhase(phase);
+    }
+
+    private long exponentialMillis(double meanMillis) {
+        return (long) (-Math.log(1 - random.nextDouble()) * meanMillis);
+    }
+
+    private String simpleReport(String groupId) {
+        return json(Map.of("groupId", groupId, "simpleResponse", random.nextInt(20) == 0 ? "НЕ ОК" : "ОК"));
+    }
+
+    private String urgentRequest(String groupId, int deadlineMinutes) {
+        return json(Map.of("groupId", groupId, "deadlineMinutes", deadlineMinutes, "message", "Терміновий збір"));
+    }
+
+    private String json(Object body) {
+        try {
+            return objectMapper.writeValueAsString(body);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private HttpRequest get(String path, String userId) {
+        return request(path, userId).GET().build();
+    }
+
+    private HttpRequest post(String path, String userId, String body) {
+        return request(path, userId)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+    }
+
+    /**
+     * Користувачі вже увійшли в додаток - токен видається напряму, без логіну (BCrypt та ліміт логінів)
+     */
+    private HttpRequest.Builder request(String path, String userId) {
+        String token = tokens.computeIfAbsent(userId,
+                id -> jwtService.generateToken(id, dataset.phones().get(id)));
+        return HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .timeout(Duration.ofSeconds(properties.getHttpTimeoutSeconds()))
+                .header("Authorization", "Bearer " + token);
+    }
+}
@@ -0,0 +1,58 @@
+package com.zvit.loadtest;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+
+/**
+ * Симульований час стенду: починається з заданого моменту і йде в speedup разів швидше за реальний.
+ * Підміняє Clock додатку, тому розклад звітів, кольори статусів та дедлайни термінових зборів
+ * рахуються так, ніби зараз 09:00 сценарного дня, а 15 хвилин збору можуть пройти за три.
+ */
+public class SimulatedClock extends Clock {
+
+    private final ZoneId zone;
+
+    private volatile Anchor anchor;
+
+    private record Anchor(Instant simulated, long realNanos, double speedup) {
+    }
+
+    public SimulatedClock(ZoneId zone) {
+        this.zone = zone;
+        this.anchor = new Anchor(Instant.now(), System.nanoTime(), 1.0);
+    }
+
+    /**
+     * Переводить годинник на момент at, далі час іде зі швидкістю speedup
+     */
+    public void set(LocalDateTime at, double speedup) {
+        anchor = new Anchor(at.atZone(zone).toInstant(), System.nanoTime(), speedup);
+    }
+
+    public double getSpeedup() {
+        return anchor.speedup();
+    }
+
+    public LocalDateTime now() {
+        return LocalDateTime.ofInstant(instant(), zone);
+    }
+
+    @Override
+    public Instant instant() {
+        Anchor current = anchor;
+        long elapsed = (long) ((System.nanoTime() - current.realNanos()) * current.speedup());
+        return current.simulated().plusNanos(elapsed);
+    }
+
+    @Override
+    public ZoneId getZone() {
+        return zone;
+    }
+
+    @Override
+    public Clock withZone(ZoneId zone) {
+        throw new UnsupportedOperationException("Симульований годинник працює в одній часовій зоні");
+    }
+}
@@ -0,0 +1,48 @@
+package com.zvit.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Конфігурація access log (AccessLogFilter).
+ * Кожен запит - один рядок JSON в логер "access" (асинхронний appender у logback-spring.xml).
+ * Тіла запитів/відповідей не логуються, крім явно вказаних маршрутів і тільки для частини запитів.
+ */
+@Configuration
+@ConfigurationProperties(prefix = "access-log")
+@Getter
+@Setter
+public class AccessLogConfig {
+
+    /** Увімкнено access log */
+    private boolean enabled = true;
+
+    /** Шляхи без логування (статика, health check) */
+    private List<String> excludePaths = new ArrayList<>(List.of(
+            "/pwa/**", "/icons/**", "/web/admin/**", "/manifest.json", "/service-worker.js",
+            "/favicon.ico", "/api/health"));
+
+    /** Маршрути, для яких логуються тіла (порожньо - ніде) */
+    private List<BodyCapture> bodyCapture = new ArrayList<>();
+
+    @Getter
+    @Setter
+    public static class BodyCapture {
+        /** Ant-шаблони шляхів */
+        private List<String> paths = new ArrayList<>();
+
+        /** HTTP методи (порожньо - всі) */
+        private List<String> methods = new ArrayList<>();
+
+        /** Частка запитів з логуванням тіла (0..1) */
+        private double sampleRate = 0.01;
+
+        /** Максимум байт тіла в лозі */
+        private int maxBytes = 2048;
+    }
+}
@@ -2,9 +2,13 @@ package com.zvit.config;
 
 import lombok.Getter;
 import lombok.Setter;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
 import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
+import java.time.Clock;
+
 /**
  * Централізована конфігурація додатку.
  * Всі константи зчитуються з application.yml
@@ -17,4 +21,14 @@ public class AppConfig {
     private String timezone = "Europe/Kiev";
     private String version = "1.0.0";
     private String baseUrl = "http://localhost:8080";
+
+    /**
+     * Годинник для розкладу звітів та термінових зборів.
+     * Навантажувальний стенд (src/loadtest) підміняє його симульованим часом.
+     */
+    @Bean
+    @ConditionalOnMissingBean
+    public Clock clock() {
+        return Clock.systemDefaultZone();
+    }
 }
@@ -0,0 +1,20 @@
+package com.zvit.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Конфігурація пакетного видалення.
+ * Великі видалення (група, прострочені сесії) виконуються частинами
+ * в коротких транзакціях, щоб не тримати довгих блокувань.
+ */
+@Configuration
+@ConfigurationProperties(prefix = "bulk-delete")
+@Getter
+@Setter
+public class BulkDeleteConfig {
+    /** Максимальна кількість рядків, що видаляються однією транзакцією */
+    private int batchSize = 1000;
+}
@@ -0,0 +1,34 @@
+package com.zvit.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Конфігурація каналу інвалідації кешів між інстансами (CacheInvalidationBus).
+ * Затримка інвалідації на інших інстансах - не більше poll-interval-ms.
+ */
+@Configuration
+@ConfigurationProperties(prefix = "cache-invalidation")
+@Getter
+@Setter
+public class CacheInvalidationConfig {
+
+    public enum Type {
+        LOCAL,
+        JDBC
+    }
+
+    /** Реалізація каналу */
+    private Type type = Type.LOCAL;
+
+    /** Інтервал опитування таблиці cache_events (мс) */
+    private long pollIntervalMs = 1000;
+
+    /** Максимум подій за один запит */
+    private int batchSize = 500;
+
+    /** Скільки зберігати події (мс); має бути значно більше за poll-interval-ms */
+    private long retentionMs = 600_000;
+}
@@ -16,6 +16,8 @@ import org.springframework.context.annotation.Configuration;
 public class CryptoConfig {
     private Hash hash = new Hash();
     private Rsa rsa = new Rsa();
+    private Ec ec = new Ec();
+    private KeyRing keyRing = new KeyRing();
     private Aes aes = new Aes();
 
     @Getter
@@ -39,6 +41,35 @@ public class CryptoConfig {
 
         /** Розмір зашифрованих даних в байтах */
         private int encryptedDataSize = 256;
+
+        /** Кількість потоків для паралельного дешифрування полів запиту (0 = кількість ядер) */
+        private int decryptParallelism = 0;
+    }
+
+    @Getter
+    @Setter
+    public static class Ec {
+        /** Увімкнути X25519 (ECIES) як альтернативу RSA для конверта запиту */
+        private boolean enabled = true;
+    }
+
+    @Getter
+    @Setter
+    public static class KeyRing {
+        /** Каталог з файлами серверних ключів (спільний для всіх інстансів). Порожній = ключі тільки в пам'яті */
+        private String directory = "";
+
+        /** Період ротації ключів в днях */
+        private int rotationDays = 30;
+
+        /** Скільки попередніх ключів приймати після ротації */
+        private int retainPrevious = 1;
+
+        /** Інтервал перевірки ротації та перечитування каталогу (мс) */
+        private long checkIntervalMs = 3600000;
+
+        /** Майстер-ключ для шифрування приватних ключів у файлах (необов'язковий) */
+        private String masterKey = "";
     }
 
     @Getter
@@ -0,0 +1,70 @@
+package com.zvit.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.zvit.dto.response.ApiResponse;
+import com.zvit.dto.response.EncryptedData;
+import com.zvit.dto.response.EncryptedPayload;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.http.converter.HttpMessageNotWritableException;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+
+import java.io.IOException;
+
+/**
+ * Бінарний транспорт зашифрованих відповідей (Accept: application/octet-stream).
+ * Вся відповідь ({"success", "message", "data"} з незашифрованими data) серіалізується в JSON,
+ * стискається gzip і шифрується тим самим ключем, що й payload; тіло - сирий шифротекст
+ * (AES-GCM: IV 12 байт + шифротекст + тег, AES-ECB: шифротекст), без Base64.
+ * Шифр та стиснення вказуються заголовками X-Payload-Cipher та X-Payload-Encoding
+ * (не Content-Encoding, щоб HTTP клієнт не намагався сам розпакувати шифротекст).
+ * Відповіді без зашифрованого payload (помилки, логін) віддаються звичайним JSON.
+ */
+public class EncryptedBinaryHttpMessageConverter extends AbstractHttpMessageConverter<ApiResponse<?>> {
+
+    public static final String CIPHER_HEADER = "X-Payload-Cipher";
+    public static final String ENCODING_HEADER = "X-Payload-Encoding";
+
+    private final MappingJackson2HttpMessageConverter jsonConverter;
+
+    public EncryptedBinaryHttpMessageConverter(ObjectMapper objectMapper) {
+        super(MediaType.APPLICATION_OCTET_STREAM);
+        this.jsonConverter = new MappingJackson2HttpMessageConverter(objectMapper);
+    }
+
+    @Override
+    protected boolean supports(Class<?> clazz) {
+        return ApiResponse.class.isAssignableFrom(clazz);
+    }
+
+    @Override
+    public boolean canRead(Class<?> clazz, MediaType mediaType) {
+        return false;
+    }
+
+    @Override
+    protected ApiResponse<?> readInternal(Class<? extends ApiResponse<?>> clazz, HttpInputMessage inputMessage)
+            throws IOException, HttpMessageNotReadableException {
+        throw new HttpMessageNotReadableException("Бінарний формат підтримується тільки для відповідей", inputMessage);
+    }
+
+    @Override
+    protected void writeInternal(ApiResponse<?> response, HttpOutputMessage outputMessage)
+            throws IOException, HttpMessageNotWritableException {
+        if (!(response.getData() instanceof EncryptedData data) || data.getStreamingPayload() == null) {
+            outputMessage.getHeaders().setContentType(MediaType.APPLICATION_JSON);
+            jsonConverter.write(response, MediaType.APPLICATION_JSON, outputMessage);
+            return;
+        }
+
+        EncryptedPayload payload = data.getStreamingPayload();
+        outputMessage.getHeaders().set(CIPHER_HEADER, payload.getCipherName());
+        outputMessage.getHeaders().set(ENCODING_HEADER, "gzip");
+        payload.writeCompressed(
+                new ApiResponse<>(response.isSuccess(), response.getMessage(), payload.getData()),
+                outputMessage.getBody());
+    }
+}
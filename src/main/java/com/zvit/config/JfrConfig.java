@@ -0,0 +1,33 @@
+package com.zvit.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Конфігурація записів Java Flight Recorder (actuator endpoint /actuator/jfr).
+ */
+@Configuration
+@ConfigurationProperties(prefix = "jfr")
+@Getter
+@Setter
+public class JfrConfig {
+    /** Каталог для .jfr файлів */
+    private String directory = "recordings";
+
+    /** Вбудовані налаштування JDK: default (~1% накладних витрат) або profile (детальніше, ~2%) */
+    private String settings = "default";
+
+    /** Тривалість запису за замовчуванням в секундах */
+    private int defaultDurationSeconds = 120;
+
+    /** Максимальна тривалість запису в секундах */
+    private int maxDurationSeconds = 900;
+
+    /** Поріг для подій криптографії в мілісекундах (коротші операції не записуються) */
+    private long cryptoThresholdMs = 1;
+
+    /** Скільки файлів zvit-*.jfr зберігати (найстаріші видаляються перед новим записом) */
+    private int maxRecordings = 10;
+}
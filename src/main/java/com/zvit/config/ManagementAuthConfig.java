@@ -0,0 +1,28 @@
+package com.zvit.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Облікові дані actuator (management порт): HTTP Basic для всього, крім health.
+ * Порожній пароль - доступ закрито (не покладаємось лише на те, що порт не публікується).
+ */
+@Configuration
+@ConfigurationProperties(prefix = "management.auth")
+@Getter
+@Setter
+public class ManagementAuthConfig {
+    /** Користувач для metrics, prometheus, info */
+    private String username = "actuator";
+
+    /** Пароль (порожній - actuator закритий, крім health) */
+    private String password = "";
+
+    /** Адміністратор: додатково запуск та зупинка записів JFR (POST/DELETE /actuator/jfr) */
+    private String adminUsername = "actuator-admin";
+
+    /** Пароль адміністратора (порожній - записи JFR запускати нікому) */
+    private String adminPassword = "";
+}
@@ -0,0 +1,24 @@
+package com.zvit.config;
+
+import io.micrometer.core.aop.TimedAspect;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Метрики (Micrometer).
+ * Prometheus endpoint доступний на management порту (management.server.port),
+ * HTTP маршрути, Hikari та Hibernate збираються автоматично,
+ * сервіси з @Timed отримують таймер на кожен публічний метод (теги class, method).
+ */
+@Configuration
+public class MetricsConfig {
+
+    /** Назва таймерів криптографічних операцій (тег op: rsa.decrypt, aes.encrypt, bcrypt, ...) */
+    public static final String CRYPTO_TIMER = "zvit.crypto";
+
+    @Bean
+    public TimedAspect timedAspect(MeterRegistry registry) {
+        return new TimedAspect(registry);
+    }
+}
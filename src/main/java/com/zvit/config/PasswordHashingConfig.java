@@ -0,0 +1,32 @@
+package com.zvit.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Конфігурація хешування паролів (BCrypt).
+ * Хешування виконується в окремому обмеженому пулі, щоб хвиля логінів
+ * не займала всі потоки Tomcat обчисленнями BCrypt.
+ */
+@Configuration
+@ConfigurationProperties(prefix = "password-hashing")
+@Getter
+@Setter
+public class PasswordHashingConfig {
+    /** Вартість BCrypt (log2 раундів). При зміні старі хеші перераховуються при наступному логіні */
+    private int strength = 10;
+
+    /** Кількість потоків хешування (0 = кількість ядер) */
+    private int threads = 0;
+
+    /** Максимум операцій в черзі; при переповненні - 503 з Retry-After */
+    private int queueCapacity = 32;
+
+    /** Максимальний час очікування результату (мс) */
+    private long maxWaitMs = 5000;
+
+    /** Значення заголовка Retry-After при перевантаженні (секунди) */
+    private int retryAfterSeconds = 2;
+}
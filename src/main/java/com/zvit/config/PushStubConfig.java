@@ -0,0 +1,28 @@
+package com.zvit.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Заглушка push-шлюзу (firebase.stub): сповіщення не відправляються у FCM,
+ * а "доставляються" із заданою затримкою. Для навантажувальних тестів та локальної розробки.
+ */
+@Configuration
+@ConfigurationProperties(prefix = "firebase.stub")
+@Getter
+@Setter
+public class PushStubConfig {
+    /** Увімкнути заглушку замість FCM */
+    private boolean enabled = false;
+
+    /** Затримка одного виклику шлюзу (як мережевий запит до FCM), мс */
+    private long latencyMs = 50;
+
+    /** Додаткова затримка на кожне повідомлення пакета, мкс */
+    private long perMessageMicros = 200;
+
+    /** Частка невдалих доставок (0.0 - 1.0), напр. для перевірки обробки UNREGISTERED токенів */
+    private double failureRate = 0.0;
+}
@@ -5,27 +5,88 @@ import lombok.Setter;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.context.annotation.Configuration;
 
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
 /**
  * Конфігурація Rate Limiting.
- * Захист від brute-force атак.
+ * Кожен маршрут (клас запитів) має власний token bucket на клієнта:
+ * ємність - скільки запитів можна зробити підряд, поповнення - сталий темп.
+ * Маршрути перевіряються в порядку оголошення, спрацьовує перший, що підійшов.
  */
 @Configuration
 @ConfigurationProperties(prefix = "rate-limit")
 @Getter
 @Setter
 public class RateLimitConfig {
-    /** Максимальна кількість спроб логіну за вікно часу */
-    private int maxAttemptsLogin = 5;
 
-    /** Максимальна кількість спроб реєстрації за вікно часу */
-    private int maxAttemptsRegister = 3;
+    /** Увімкнено обмеження запитів */
+    private boolean enabled = true;
+
+    /** Маршрути за іменем (порядок важливий) */
+    private Map<String, Route> routes = defaultRoutes();
+
+    public enum KeyType {
+        /** Ліміт на IP клієнта */
+        IP,
+        /** Ліміт на автентифікованого користувача, для анонімних - на IP */
+        PRINCIPAL_OR_IP
+    }
+
+    @Getter
+    @Setter
+    public static class Route {
+        /** Ant-шаблони шляхів (порожньо - маршрут використовується тільки з коду) */
+        private List<String> paths = new ArrayList<>();
+
+        /** HTTP методи (порожньо - всі) */
+        private List<String> methods = new ArrayList<>();
+
+        /** Ємність відра - максимум запитів підряд */
+        private int capacity = 60;
+
+        /** Скільки токенів додається за період */
+        private int refillTokens = 1;
+
+        /** Період поповнення в мілісекундах */
+        private long refillPeriodMs = 1000;
 
-    /** Розмір вікна часу в мілісекундах (1 хвилина) */
-    private long windowSizeMs = 60_000;
+        /** Чим ідентифікується клієнт */
+        private KeyType key = KeyType.PRINCIPAL_OR_IP;
 
-    /** Тривалість блокування в мілісекундах (5 хвилин) */
-    private long blockDurationMs = 300_000;
+        static Route of(List<String> paths, List<String> methods, KeyType key,
+                        int capacity, int refillTokens, long refillPeriodMs) {
+            Route route = new Route();
+            route.setPaths(new ArrayList<>(paths));
+            route.setMethods(new ArrayList<>(methods));
+            route.setKey(key);
+            route.setCapacity(capacity);
+            route.setRefillTokens(refillTokens);
+            route.setRefillPeriodMs(refillPeriodMs);
+            return route;
+        }
+    }
 
-    /** Інтервал очищення застарілих записів в хвилинах */
-    private int cleanupIntervalMinutes = 5;
+    private static Map<String, Route> defaultRoutes() {
+        Map<String, Route> routes = new LinkedHashMap<>();
+        routes.put("login", Route.of(List.of("/api/v1/auth/login", "/api/v1/pwa/login"),
+                List.of("POST"), KeyType.IP, 5, 1, 60_000));
+        routes.put("register", Route.of(List.of("/api/v1/auth/register", "/api/v1/pwa/register"),
+                List.of("POST"), KeyType.IP, 3, 1, 120_000));
+        routes.put("password-reset", Route.of(List.of("/api/v1/auth/reset-password"),
+                List.of("POST"), KeyType.IP, 3, 1, 300_000));
+        routes.put("report-submit", Route.of(List.of("/api/v1/reports/**", "/api/v1/pwa/groups/*/reports/**"),
+                List.of("POST"), KeyType.PRINCIPAL_OR_IP, 20, 1, 3_000));
+        routes.put("web-api", Route.of(List.of("/api/web/**", "/api/web-session/**", "/api/web-auth/**"),
+                List.of(), KeyType.IP, 60, 2, 1_000));
+        routes.put("pwa", Route.of(List.of("/api/v1/pwa/**"),
+                List.of(), KeyType.PRINCIPAL_OR_IP, 60, 10, 1_000));
+        routes.put("admin-qr", Route.of(List.of(),
+                List.of(), KeyType.IP, 1, 1, 300_000));
+        routes.put("api", Route.of(List.of("/api/**"),
+                List.of(), KeyType.PRINCIPAL_OR_IP, 120, 20, 1_000));
+        return routes;
+    }
 }
@@ -19,6 +19,8 @@ public class ReportConfig {
 
     private Color color = new Color();
     private Percentage percentage = new Percentage();
+    private Archive archive = new Archive();
+    private History history = new History();
 
     @Getter
     @Setter
@@ -62,4 +64,30 @@ public class ReportConfig {
         /** Поріг для критичного стану */
         private double critical = 80.0;
     }
+
+    @Getter
+    @Setter
+    public static class Archive {
+        /** Чи увімкнена архівація старих звітів */
+        private boolean enabled = true;
+
+        /** Вік звіту в днях, після якого він переноситься в архів */
+        private int afterDays = 90;
+
+        /** Кількість звітів, що переносяться за одну транзакцію */
+        private int batchSize = 500;
+
+        /** Максимум пакетів за один запуск (щоб не тримати планувальник годинами) */
+        private int maxBatchesPerRun = 200;
+
+        /** Інтервал запуску архіватора в мілісекундах */
+        private long intervalMs = 3_600_000;
+    }
+
+    @Getter
+    @Setter
+    public static class History {
+        /** Максимальний limit сторінки історії (без limit/cursor історія віддається повністю) */
+        private int maxPageSize = 1000;
+    }
 }
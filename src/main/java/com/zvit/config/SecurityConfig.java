@@ -1,27 +1,99 @@
 package com.zvit.config;
 
+import com.zvit.jfr.JfrRecordingEndpoint;
 import com.zvit.security.JwtAuthenticationFilter;
 import com.zvit.security.RateLimitFilter;
 import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.autoconfigure.security.servlet.EndpointRequest;
+import org.springframework.boot.actuate.health.HealthEndpoint;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpMethod;
+import org.springframework.security.authentication.AuthenticationProvider;
+import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
+import org.springframework.security.config.Customizer;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.http.SessionCreationPolicy;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.factory.PasswordEncoderFactories;
 import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.provisioning.InMemoryUserDetailsManager;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
+import org.springframework.security.web.util.matcher.AndRequestMatcher;
+import org.springframework.util.StringUtils;
 
 @Configuration
 @EnableWebSecurity
 @RequiredArgsConstructor
 public class SecurityConfig {
 
+    private static final String ACTUATOR_ROLE = "ACTUATOR";
+    private static final String ACTUATOR_ADMIN_ROLE = "ACTUATOR_ADMIN";
+
     private final JwtAuthenticationFilter jwtAuthFilter;
     private final RateLimitFilter rateLimitFilter;
+    private final ManagementAuthConfig managementAuthConfig;
+
+    /**
+     * Actuator (management порт): health відкритий для проб, решта - HTTP Basic з management.auth.
+     * Окремий ланцюжок, щоб JWT та rate limiting основного API сюди не потрапляли
+     */
+    @Bean
+    @Order(1)
+    public SecurityFilterChain actuatorSecurityFilterChain(HttpSecurity http) throws Exception {
+        http
+            .securityMatcher(EndpointRequest.toAnyEndpoint())
+            .csrf(csrf -> csrf.disable())
+            .sessionManagement(session ->
+                session.sessionCreationPolicy(SessionCreationPolicy.STATELESS)
+            )
+            .authorizeHttpRequests(auth -> auth
+                .requestMatchers(EndpointRequest.to(HealthEndpoint.class)).permitAll()
+                // Запуск/зупинка записів JFR пишуть файли на диск - тільки адміністратор
+                .requestMatchers(new AndRequestMatcher(EndpointRequest.to(JfrRecordingEndpoint.class),
+                        request -> !HttpMethod.GET.matches(request.getMethod()))).hasRole(ACTUATOR_ADMIN_ROLE)
+                .anyRequest().hasRole(ACTUATOR_ROLE)
+            )
+            .authenticationProvider(actuatorAuthenticationProvider())
+            .httpBasic(Customizer.withDefaults());
+
+        return http.build();
+    }
+
+    /**
+     * Власний провайдер: пароль actuator порівнюється як є ({noop}), а не BCrypt-енкодером паролів користувачів
+     */
+    private AuthenticationProvider actuatorAuthenticationProvider() {
+        DaoAuthenticationProvider provider = new DaoAuthenticationProvider();
+        provider.setUserDetailsService(actuatorUsers());
+        provider.setPasswordEncoder(PasswordEncoderFactories.createDelegatingPasswordEncoder());
+        return provider;
+    }
+
+    private UserDetailsService actuatorUsers() {
+        InMemoryUserDetailsManager users = new InMemoryUserDetailsManager();
+        if (StringUtils.hasText(managementAuthConfig.getPassword())) {
+            users.createUser(User.withUsername(managementAuthConfig.getUsername())
+                    .password("{noop}" + managementAuthConfig.getPassword())
+                    .roles(ACTUATOR_ROLE)
+                    .build());
+        }
+        if (StringUtils.hasText(managementAuthConfig.getAdminPassword())) {
+            users.createUser(User.withUsername(managementAuthConfig.getAdminUsername())
+                    .password("{noop}" + managementAuthConfig.getAdminPassword())
+                    .roles(ACTUATOR_ROLE, ACTUATOR_ADMIN_ROLE)
+                    .build());
+        }
+        return users;
+    }
 
     @Bean
+    @Order(2)
     public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
         http
             .csrf(csrf -> csrf.disable())
@@ -65,15 +137,15 @@ public class SecurityConfig {
                 .requestMatchers("/api/v1/pwa/**").authenticated() // PWA API (no encryption)
                 .anyRequest().authenticated()
             )
-            // Rate limiting фільтр виконується першим
-            .addFilterBefore(rateLimitFilter, UsernamePasswordAuthenticationFilter.class)
-            .addFilterBefore(jwtAuthFilter, UsernamePasswordAuthenticationFilter.class);
+            .addFilterBefore(jwtAuthFilter, UsernamePasswordAuthenticationFilter.class)
+            // Rate limiting після JWT, щоб ліміти рахувались на користувача, а не на IP
+            .addFilterAfter(rateLimitFilter, JwtAuthenticationFilter.class);
 
         return http.build();
     }
 
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public PasswordEncoder passwordEncoder(PasswordHashingConfig passwordHashingConfig) {
+        return new BCryptPasswordEncoder(passwordHashingConfig.getStrength());
     }
 }
\ No newline at end of file
@@ -0,0 +1,28 @@
+package com.zvit.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Конфігурація спільного стану інстансів (SharedStateStore).
+ * memory - для одного інстансу, jdbc - для кількох інстансів за proxy.
+ */
+@Configuration
+@ConfigurationProperties(prefix = "shared-state")
+@Getter
+@Setter
+public class SharedStateConfig {
+
+    public enum Type {
+        MEMORY,
+        JDBC
+    }
+
+    /** Реалізація сховища */
+    private Type type = Type.MEMORY;
+
+    /** Інтервал видалення прострочених записів (мс) */
+    private long sweepIntervalMs = 60_000;
+}
@@ -0,0 +1,32 @@
+package com.zvit.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Конфігурація профілювання повільних запитів (SlowRequestFilter).
+ * SQL запити кожного HTTP запиту збираються через проксі DataSource,
+ * звіт пишеться в лог тільки якщо запит перевищив один з порогів.
+ */
+@Configuration
+@ConfigurationProperties(prefix = "slow-request")
+@Getter
+@Setter
+public class SlowRequestConfig {
+    /** Увімкнено (вимкнення прибирає і проксі DataSource, тоді statements у JFR подіях - 0) */
+    private boolean enabled = true;
+
+    /** Поріг тривалості запиту в мілісекундах */
+    private long latencyThresholdMs = 1000;
+
+    /** Поріг кількості SQL запитів за один HTTP запит */
+    private int statementThreshold = 50;
+
+    /** Скільки найдорожчих запитів показувати */
+    private int topStatements = 5;
+
+    /** Максимум різних SQL текстів на запит (решта рахується в один рядок) */
+    private int maxDistinctStatements = 200;
+}
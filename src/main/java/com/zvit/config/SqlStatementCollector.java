@@ -0,0 +1,157 @@
+package com.zvit.config;
+
+import lombok.RequiredArgsConstructor;
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * Збирає SQL запити поточного HTTP запиту (кількість та час кожного тексту запиту).
+ * Підключається до проксі DataSource (DataSourceProxyConfig), збір ведеться тільки
+ * між start() і finish() в потоці запиту - фонові задачі не враховуються.
+ * Текст нормалізується лише при побудові звіту, під час запиту - тільки лічильники в HashMap.
+ */
+@Component
+@RequiredArgsConstructor
+public class SqlStatementCollector implements QueryExecutionListener {
+
+    private static final String OTHER_STATEMENTS = "(інші запити)";
+    private static final int MAX_STATEMENT_LENGTH = 300;
+
+    private static final Pattern STRING_LITERAL = Pattern.compile("'(?:[^']|'')*'");
+    private static final Pattern NUMBER_LITERAL = Pattern.compile("\\b\\d+(?:\\.\\d+)?\\b");
+    private static final Pattern IN_LIST = Pattern.compile("\\(\\s*\\?(?:\\s*,\\s*\\?)+\\s*\\)");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    private static final ThreadLocal<RequestStatements> CURRENT = new ThreadLocal<>();
+
+    private final SlowRequestConfig config;
+
+    /**
+     * Починає збір для поточного потоку
+     */
+    public RequestStatements start() {
+        RequestStatements statements = new RequestStatements(config.getMaxDistinctStatements());
+        CURRENT.set(statements);
+        return statements;
+    }
+
+    /**
+     * Завершує збір для поточного потоку
+     */
+    public void finish() {
+        CURRENT.remove();
+    }
+
+    /**
+     * Кількість SQL запитів, зібраних у поточному потоці з моменту start()
+     * (0 поза HTTP запитом або якщо профілювання вимкнене) - для JFR подій (com.zvit.jfr)
+     */
+    public static long currentCount() {
+        RequestStatements statements = CURRENT.get();
+        return statements != null ? statements.count : 0;
+    }
+
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        RequestStatements statements = CURRENT.get();
+        if (statements != null) {
+            statements.startedAt = System.nanoTime();
+        }
+    }
+
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        RequestStatements statements = CURRENT.get();
+        if (statements == null || queryInfoList.isEmpty()) {
+            return;
+        }
+        long nanos = System.nanoTime() - statements.startedAt;
+        // Пакет (batch) - одне виконання на кілька наборів параметрів
+        int executions = execInfo.isBatch() ? Math.max(1, execInfo.getBatchSize()) : 1;
+        long nanosPerQuery = nanos / queryInfoList.size();
+        for (QueryInfo query : queryInfoList) {
+            statements.record(query.getQuery(), executions, nanosPerQuery);
+        }
+    }
+
+    /**
+     * Нормалізує SQL для групування: літерали та списки IN замінюються на ?, пробіли стискаються
+     */
+    static String normalize(String sql) {
+        String normalized = STRING_LITERAL.matcher(sql).replaceAll("?");
+        normalized = NUMBER_LITERAL.matcher(normalized).replaceAll("?");
+        normalized = IN_LIST.matcher(normalized).replaceAll("(?...)");
+        normalized = WHITESPACE.matcher(normalized).replaceAll(" ").trim();
+        return normalized.length() > MAX_STATEMENT_LENGTH
+                ? normalized.substring(0, MAX_STATEMENT_LENGTH) + "..."
+                : normalized;
+    }
+
+    /**
+     * SQL запити одного HTTP запиту
+     */
+    public static final class RequestStatements {
+
+        private final int maxDistinct;
+        private final Map<String, long[]> bySql = new HashMap<>();
+        private long startedAt;
+        private long count;
+        private long totalNanos;
+
+        RequestStatements(int maxDistinct) {
+            this.maxDistinct = maxDistinct;
+        }
+
+        void record(String sql, int executions, long nanos) {
+            count += executions;
+            totalNanos += nanos;
+            long[] stats = bySql.get(sql);
+            if (stats == null) {
+                stats = bySql.computeIfAbsent(bySql.size() < maxDistinct ? sql : OTHER_STATEMENTS,
+                        key -> new long[2]);
+            }
+            stats[0] += executions;
+            stats[1] += nanos;
+        }
+
+        public long getCount() {
+            return count;
+        }
+
+        public long getTotalNanos() {
+            return totalNanos;
+        }
+
+        /**
+         * Найдорожчі (за сумарним часом) нормалізовані запити
+         */
+        public List<StatementStats> top(int limit) {
+            Map<String, long[]> normalized = new HashMap<>();
+            bySql.forEach((sql, stats) -> {
+                long[] merged = normalized.computeIfAbsent(
+                        OTHER_STATEMENTS.equals(sql) ? sql : normalize(sql), key -> new long[2]);
+                merged[0] += stats[0];
+                merged[1] += stats[1];
+            });
+            List<StatementStats> result = new ArrayList<>(normalized.size());
+            normalized.forEach((sql, stats) -> result.add(new StatementStats(sql, stats[0], stats[1])));
+            result.sort(Comparator.comparingLong(StatementStats::totalNanos).reversed());
+            return result.size() > limit ? result.subList(0, limit) : result;
+        }
+    }
+
+    /**
+     * Нормалізований SQL з кількістю виконань та сумарним часом
+     */
+    public record StatementStats(String sql, long count, long totalNanos) {
+    }
+}
@@ -0,0 +1,26 @@
+package com.zvit.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.List;
+
+/**
+ * Налаштування Spring MVC
+ */
+@Configuration
+@RequiredArgsConstructor
+public class WebConfig implements WebMvcConfigurer {
+
+    private final ObjectMapper objectMapper;
+
+    @Override
+    public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+        // В кінці списку: JSON лишається форматом за замовчуванням (Accept: */*),
+        // бінарний вибирається тільки явним Accept: application/octet-stream
+        converters.add(new EncryptedBinaryHttpMessageConverter(objectMapper));
+    }
+}
@@ -9,8 +9,11 @@ import com.zvit.dto.response.LoginResponse;
 import com.zvit.dto.response.PublicKeyResponse;
 import com.zvit.dto.response.RegisterResponse;
 import com.zvit.service.AuthService;
+import com.zvit.service.EcKeyService;
+import com.zvit.service.JwtService;
 import com.zvit.service.RSAKeyService;
 import com.zvit.service.ResponseEncryptionService;
+import com.zvit.service.SessionKeyService;
 import com.zvit.service.UserService;
 import com.zvit.dto.response.ApiResponse;
 import jakarta.validation.Valid;
@@ -21,6 +24,10 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
 
+import javax.crypto.SecretKey;
+import java.util.ArrayList;
+import java.util.List;
+
 @Slf4j
 @RestController
 @RequestMapping("/api/v1/auth")
@@ -31,6 +38,11 @@ public class AuthController {
     private final UserService userService;
     private final RSAKeyService rsaKeyService;
     private final ResponseEncryptionService encryptionService;
+    private final SessionKeyService sessionKeyService;
+    private final JwtService jwtService;
+    private final EcKeyService ecKeyService;
+
+    private static final String BEARER_PREFIX = "Bearer ";
 
     @PostMapping("/register")
     public ResponseEntity<ApiResponse<RegisterResponse>> register(@Valid @RequestBody RegisterRequest request) {
@@ -60,6 +72,20 @@ public class AuthController {
         LoginResponse loginData = authService.login(request);
         log.info("✅ LOGIN successful, userId: {}", loginData.getUserId());
 
+        // Сесійний режим: відповідь і всі подальші запити шифруються сесійним ключем (AES-GCM)
+        if (loginData.getSessionCipher() != null) {
+            SecretKey sessionKey = sessionKeyService.findSessionKey(jwtService.extractTokenId(loginData.getToken()))
+                    .orElseThrow(() -> new RuntimeException("Сесійний ключ не знайдено"));
+            EncryptedData response = EncryptedData.builder()
+                    .payload(encryptionService.encryptObjectWithSessionKey(loginData, sessionKey))
+                    .encrypted(true)
+                    .encryptionKey(encryptionService.getSessionKeyEncrypted(sessionKey, request.getClientPublicKey()))
+                    .cipher(loginData.getSessionCipher())
+                    .build();
+            log.info("   Session key issued ({})", loginData.getSessionCipher());
+            return ResponseEntity.ok(ApiResponse.success("Вхід успішний", response));
+        }
+
         // Шифруємо відповідь AES
         String encryptedPayload = encryptionService.encryptObject(loginData);
 
@@ -88,10 +114,19 @@ public class AuthController {
      */
     @GetMapping("/public-key")
     public ResponseEntity<ApiResponse<PublicKeyResponse>> getPublicKey() {
+        List<String> algorithms = new ArrayList<>();
+        algorithms.add("rsa");
+        if (ecKeyService.isEnabled()) {
+            algorithms.add(EcKeyService.ALGORITHM_ID);
+        }
+
         PublicKeyResponse response = PublicKeyResponse.builder()
                 .publicKey(rsaKeyService.getPublicKeyBase64())
-                .algorithm("RSA")
-                .keySize(2048)
+                .algorithm(rsaKeyService.getAlgorithm())
+                .keySize(rsaKeyService.getKeySize())
+                .keyId(rsaKeyService.getKeyId())
+                .algorithms(algorithms)
+                .ecPublicKey(ecKeyService.getPublicKeyBase64())
                 .build();
         return ResponseEntity.ok(ApiResponse.success("Публічний ключ", response));
     }
@@ -111,6 +146,20 @@ public class AuthController {
         return ResponseEntity.ok(ApiResponse.success("Пароль успішно змінено", null));
     }
 
+    /**
+     * Вихід: поточний токен більше не приймається
+     */
+    @PostMapping("/logout")
+    public ResponseEntity<ApiResponse<Void>> logout(
+            @RequestHeader(value = "Authorization", required = false) String authHeader
+    ) {
+        if (authHeader == null || !authHeader.startsWith(BEARER_PREFIX)) {
+            return ResponseEntity.badRequest().body(ApiResponse.error("Потрібен заголовок Authorization: Bearer <token>"));
+        }
+        authService.logout(authHeader.substring(BEARER_PREFIX.length()));
+        return ResponseEntity.ok(ApiResponse.success("Вихід виконано", null));
+    }
+
     /**
      * Зберігає FCM токен для Push-сповіщень
      */
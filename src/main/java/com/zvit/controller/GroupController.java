@@ -5,6 +5,7 @@ import com.zvit.dto.request.ChangeRoleRequest;
 import com.zvit.dto.request.CreateGroupRequest;
 import com.zvit.dto.request.JoinGroupRequest;
 import com.zvit.dto.response.EncryptedData;
+import com.zvit.dto.response.EncryptedPayload;
 import com.zvit.dto.response.GroupMemberResponse;
 import com.zvit.dto.response.GroupResponse;
 import com.zvit.entity.GroupMember;
@@ -44,11 +45,11 @@ public class GroupController {
         String userId = authentication.getName(); // Отримуємо з JWT
 
         // Дешифруємо назву групи якщо вона зашифрована
-        String decryptedGroupName = rsaKeyService.decryptIfEncrypted(request.getExternalName());
+        String decryptedGroupName = rsaKeyService.fieldDecryptor(request).decrypt(request.getExternalName());
         request.setExternalName(decryptedGroupName);
 
         GroupResponse response = groupService.createGroup(request, userId);
-        String encryptedPayload = encryptionService.encryptObject(response);
+        EncryptedPayload encryptedPayload = encryptionService.encryptObjectStreaming(response);
         return ResponseEntity
                 .status(HttpStatus.CREATED)
                 .body(ApiResponse.success("Групу створено", EncryptedData.of(encryptedPayload)));
@@ -61,7 +62,7 @@ public class GroupController {
         String userId = authentication.getName();
         List<GroupResponse> groups = groupService.getUserGroups(userId);
         // Шифруємо чутливі дані
-        String encryptedPayload = encryptionService.encryptObject(groups);
+        EncryptedPayload encryptedPayload = encryptionService.encryptObjectStreaming(groups);
         return ResponseEntity.ok(ApiResponse.success("Групи отримано", EncryptedData.of(encryptedPayload)));
     }
 
@@ -72,7 +73,7 @@ public class GroupController {
     ) {
         String userId = authentication.getName();
         GroupResponse response = groupService.getGroupById(groupId, userId);
-        String encryptedPayload = encryptionService.encryptObject(response);
+        EncryptedPayload encryptedPayload = encryptionService.encryptObjectStreaming(response);
         return ResponseEntity.ok(ApiResponse.success("Групу знайдено", EncryptedData.of(encryptedPayload)));
     }
 
@@ -94,7 +95,7 @@ public class GroupController {
     ) {
         String userId = authentication.getName();
         GroupResponse response = groupService.joinGroupByAccessCode(request, userId);
-        String encryptedPayload = encryptionService.encryptObject(response);
+        EncryptedPayload encryptedPayload = encryptionService.encryptObjectStreaming(response);
         return ResponseEntity.ok(ApiResponse.success("Ви приєдналися до групи", EncryptedData.of(encryptedPayload)));
     }
 
@@ -105,7 +106,7 @@ public class GroupController {
     ) {
         String userId = authentication.getName();
         List<GroupMemberResponse> members = groupService.getGroupMembers(groupId, userId);
-        String encryptedPayload = encryptionService.encryptObject(members);
+        EncryptedPayload encryptedPayload = encryptionService.encryptObjectStreaming(members);
         return ResponseEntity.ok(ApiResponse.success("Учасники отримано", EncryptedData.of(encryptedPayload)));
     }
 
@@ -12,6 +12,7 @@ import com.zvit.dto.response.GroupMemberResponse;
 import com.zvit.dto.response.GroupResponse;
 import com.zvit.dto.response.LoginResponse;
 import com.zvit.dto.response.RegisterResponse;
+import com.zvit.dto.response.ReportHistoryPage;
 import com.zvit.dto.response.ReportResponse;
 import com.zvit.service.AuthService;
 import com.zvit.service.GroupService;
@@ -149,20 +150,24 @@ public class PwaController {
     @GetMapping("/groups/{groupId}/reports")
     public ResponseEntity<ApiResponse<List<ReportResponse>>> getGroupReports(
             @PathVariable String groupId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit,
             Authentication authentication
     ) {
         String userId = authentication.getName();
-        List<ReportResponse> reports;
+        ReportHistoryPage page;
 
         try {
             // Спробуємо отримати всі звіти (працює тільки для адмінів)
-            reports = reportService.getAllGroupReports(groupId, userId);
+            page = reportService.getAllGroupReports(groupId, userId, cursor, limit);
         } catch (RuntimeException e) {
             // Якщо не адмін - отримуємо тільки свої звіти
-            reports = reportService.getMyReports(groupId, userId);
+            page = reportService.getMyReports(groupId, userId, cursor, limit);
         }
 
-        return ResponseEntity.ok(ApiResponse.success("Звіти отримано", reports));
+        return ResponseEntity.ok()
+                .headers(page.cursorHeaders())
+                .body(ApiResponse.success("Звіти отримано", page.getReports()));
     }
 
     /**
@@ -170,11 +175,15 @@ public class PwaController {
      */
     @GetMapping("/reports")
     public ResponseEntity<ApiResponse<List<ReportResponse>>> getUserReports(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit,
             Authentication authentication
     ) {
         String userId = authentication.getName();
-        List<ReportResponse> reports = reportService.getAllMyReports(userId);
-        return ResponseEntity.ok(ApiResponse.success("Звіти отримано", reports));
+        ReportHistoryPage page = reportService.getAllMyReports(userId, cursor, limit);
+        return ResponseEntity.ok()
+                .headers(page.cursorHeaders())
+                .body(ApiResponse.success("Звіти отримано", page.getReports()));
     }
 
     /**
@@ -4,7 +4,9 @@ import com.zvit.dto.request.ExtendedReportRequest;
 import com.zvit.dto.request.SimpleReportRequest;
 import com.zvit.dto.request.UrgentReportRequest;
 import com.zvit.dto.response.EncryptedData;
+import com.zvit.dto.response.EncryptedPayload;
 import com.zvit.dto.response.GroupStatusesResponse;
+import com.zvit.dto.response.ReportHistoryPage;
 import com.zvit.dto.response.ReportResponse;
 import com.zvit.service.ReportService;
 import com.zvit.service.ResponseEncryptionService;
@@ -58,23 +60,31 @@ public class ReportController {
 
     @GetMapping("/my")
     public ResponseEntity<ApiResponse<EncryptedData>> getAllMyReports(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit,
             Authentication authentication
     ) {
         String userId = authentication.getName();
-        List<ReportResponse> reports = reportService.getAllMyReports(userId);
-        String encryptedPayload = encryptionService.encryptObject(reports);
-        return ResponseEntity.ok(ApiResponse.success("Всі звіти отримано", EncryptedData.of(encryptedPayload)));
+        ReportHistoryPage page = reportService.getAllMyReports(userId, cursor, limit);
+        EncryptedPayload encryptedPayload = encryptionService.encryptObjectStreaming(page.getReports());
+        return ResponseEntity.ok()
+                .headers(page.cursorHeaders())
+                .body(ApiResponse.success("Всі звіти отримано", EncryptedData.of(encryptedPayload)));
     }
 
     @GetMapping("/my/{groupId}")
     public ResponseEntity<ApiResponse<EncryptedData>> getMyReports(
             @PathVariable String groupId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit,
             Authentication authentication
     ) {
         String userId = authentication.getName();
-        List<ReportResponse> reports = reportService.getMyReports(groupId, userId);
-        String encryptedPayload = encryptionService.encryptObject(reports);
-        return ResponseEntity.ok(ApiResponse.success("Звіти отримано", EncryptedData.of(encryptedPayload)));
+        ReportHistoryPage page = reportService.getMyReports(groupId, userId, cursor, limit);
+        EncryptedPayload encryptedPayload = encryptionService.encryptObjectStreaming(page.getReports());
+        return ResponseEntity.ok()
+                .headers(page.cursorHeaders())
+                .body(ApiResponse.success("Звіти отримано", EncryptedData.of(encryptedPayload)));
     }
 
     @GetMapping("/my/{groupId}/last")
@@ -84,7 +94,7 @@ public class ReportController {
     ) {
         String userId = authentication.getName();
         ReportResponse report = reportService.getMyLastReport(groupId, userId);
-        String encryptedPayload = encryptionService.encryptObject(report);
+        EncryptedPayload encryptedPayload = encryptionService.encryptObjectStreaming(report);
         return ResponseEntity.ok(ApiResponse.success("Останній звіт отримано", EncryptedData.of(encryptedPayload)));
     }
 
@@ -95,7 +105,7 @@ public class ReportController {
     ) {
         String userId = authentication.getName();
         GroupStatusesResponse statuses = reportService.getGroupStatuses(groupId, userId);
-        String encryptedPayload = encryptionService.encryptObject(statuses);
+        EncryptedPayload encryptedPayload = encryptionService.encryptObjectStreaming(statuses);
         return ResponseEntity.ok(ApiResponse.success("Статуси отримано", EncryptedData.of(encryptedPayload)));
     }
 
@@ -122,23 +132,31 @@ public class ReportController {
     @GetMapping("/group/{groupId}")
     public ResponseEntity<ApiResponse<EncryptedData>> getAllGroupReports(
             @PathVariable String groupId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit,
             Authentication authentication
     ) {
         String userId = authentication.getName();
-        List<ReportResponse> reports = reportService.getAllGroupReports(groupId, userId);
-        String encryptedPayload = encryptionService.encryptObject(reports);
-        return ResponseEntity.ok(ApiResponse.success("Всі звіти отримано", EncryptedData.of(encryptedPayload)));
+        ReportHistoryPage page = reportService.getAllGroupReports(groupId, userId, cursor, limit);
+        EncryptedPayload encryptedPayload = encryptionService.encryptObjectStreaming(page.getReports());
+        return ResponseEntity.ok()
+                .headers(page.cursorHeaders())
+                .body(ApiResponse.success("Всі звіти отримано", EncryptedData.of(encryptedPayload)));
     }
 
     @GetMapping("/group/{groupId}/user/{targetUserId}")
     public ResponseEntity<ApiResponse<EncryptedData>> getUserReportsInGroup(
             @PathVariable String groupId,
             @PathVariable String targetUserId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit,
             Authentication authentication
     ) {
         String userId = authentication.getName();
-        List<ReportResponse> reports = reportService.getUserReportsInGroup(groupId, targetUserId, userId);
-        String encryptedPayload = encryptionService.encryptObject(reports);
-        return ResponseEntity.ok(ApiResponse.success("Звіти користувача отримано", EncryptedData.of(encryptedPayload)));
+        ReportHistoryPage page = reportService.getUserReportsInGroup(groupId, targetUserId, userId, cursor, limit);
+        EncryptedPayload encryptedPayload = encryptionService.encryptObjectStreaming(page.getReports());
+        return ResponseEntity.ok()
+                .headers(page.cursorHeaders())
+                .body(ApiResponse.success("Звіти користувача отримано", EncryptedData.of(encryptedPayload)));
     }
 }
@@ -1,6 +1,7 @@
 package com.zvit.controller;
 
 import com.zvit.dto.response.GroupStatusesResponse;
+import com.zvit.dto.response.ReportHistoryPage;
 import com.zvit.dto.response.ReportResponse;
 import com.zvit.dto.response.UserStatusResponse;
 import com.zvit.entity.Group;
@@ -98,6 +99,8 @@ public class WebReportController {
     public ResponseEntity<List<ReportResponse>> getUserReports(
             @PathVariable String groupId,
             @PathVariable String userId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit,
             @RequestHeader("X-Session-Token") String sessionToken) {
 
         // Перевірити та отримати авторизовану сесію
@@ -111,9 +114,11 @@ public class WebReportController {
         }
 
         // Отримати звіти користувача
-        List<ReportResponse> reports = reportService.getUserReportsInGroup(groupId, userId, session.getUserId());
+        ReportHistoryPage page = reportService.getUserReportsInGroup(groupId, userId, session.getUserId(), cursor, limit);
 
-        return ResponseEntity.ok(reports);
+        return ResponseEntity.ok()
+                .headers(page.cursorHeaders())
+                .body(page.getReports());
     }
 
     /**
@@ -3,6 +3,7 @@ package com.zvit.controller;
 import com.zvit.dto.response.QrSessionResponse;
 import com.zvit.entity.QrSession;
 import com.zvit.service.QrSessionService;
+import com.zvit.service.RateLimitService;
 import com.zvit.service.ReportService;
 import jakarta.servlet.http.HttpServletRequest;
 import lombok.RequiredArgsConstructor;
@@ -13,9 +14,6 @@ import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.Map;
-
 @Controller
 @RequiredArgsConstructor
 @Slf4j
@@ -23,10 +21,10 @@ public class WebViewController {
 
     private final QrSessionService qrSessionService;
     private final ReportService reportService;
+    private final RateLimitService rateLimitService;
 
-    // Rate limiting: IP -> timestamp останнього доступу
-    private final Map<String, Long> rateLimitCache = new ConcurrentHashMap<>();
-    private static final long RATE_LIMIT_MS = 5 * 60 * 1000; // 5 хвилин
+    // Маршрут rate-limit.routes.admin-qr (1 раз на 5 хв з одного IP)
+    private static final String ADMIN_QR_ROUTE = "admin-qr";
 
     /**
      * GET / - головна сторінка (landing page)
@@ -101,25 +99,13 @@ public class WebViewController {
         String clientIp = getClientIp(request);
 
         // Перевірка rate limit
-        Long lastAccess = rateLimitCache.get(clientIp);
-        long now = System.currentTimeMillis();
-
-        if (lastAccess != null) {
-            long timeSinceLastAccess = now - lastAccess;
-            if (timeSinceLastAccess < RATE_LIMIT_MS) {
-                long remainingSeconds = (RATE_LIMIT_MS - timeSinceLastAccess) / 1000;
-                model.addAttribute("rateLimited", true);
-                model.addAttribute("remainingSeconds", remainingSeconds);
-                return "rate-limited";
-            }
+        long waitMs = rateLimitService.tryAcquire(ADMIN_QR_ROUTE, "ip:" + clientIp);
+        if (waitMs > 0) {
+            model.addAttribute("rateLimited", true);
+            model.addAttribute("remainingSeconds", waitMs / 1000);
+            return "rate-limited";
         }
 
-        // Оновлюємо час останнього доступу
-        rateLimitCache.put(clientIp, now);
-
-        // Очищаємо старі записи (старші за 10 хвилин)
-        cleanupOldEntries();
-
         // Створюємо QR сесію
         QrSessionResponse session = qrSessionService.createSession();
         model.addAttribute("sessionToken", session.getSessionToken());
@@ -182,13 +168,4 @@ public class WebViewController {
         }
         return request.getRemoteAddr();
     }
-
-    /**
-     * Очищає записи старші за 10 хвилин
-     */
-    private void cleanupOldEntries() {
-        long now = System.currentTimeMillis();
-        long maxAge = 10 * 60 * 1000; // 10 хвилин
-        rateLimitCache.entrySet().removeIf(entry -> (now - entry.getValue()) > maxAge);
-    }
 }
@@ -12,7 +12,7 @@ import lombok.NoArgsConstructor;
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
-public class CreateGroupRequest {
+public class CreateGroupRequest implements EnvelopeEncryptedRequest {
 
     @NotBlank(message = "Назва групи обов'язкова")
     private String externalName;
@@ -24,4 +24,6 @@ public class CreateGroupRequest {
 
     @NotNull(message = "Тип звіту обов'язковий")
     private Group.ReportType reportType;
+
+    private String encryptedKey; // AES ключ конверта, див. EnvelopeEncryptedRequest
 }
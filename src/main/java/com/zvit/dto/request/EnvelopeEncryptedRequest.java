@@ -0,0 +1,18 @@
+package com.zvit.dto.request;
+
+/**
+ * Запит, поля якого можуть бути зашифровані конвертом (envelope encryption).
+ * Клієнт генерує випадковий AES-256 ключ, шифрує його RSA публічним ключем сервера
+ * і передає в encryptedKey, а всі чутливі поля шифрує AES-GCM цим ключем:
+ * Base64(IV 12 байт + шифротекст + тег 16 байт).
+ * Так на запит припадає одна операція приватним ключем замість однієї на кожне поле.
+ * Замість RSA ключ конверта можна узгодити через X25519: encryptedKey = "x25519:" + ефемерний ключ (див. EcKeyService).
+ * Якщо encryptedKey відсутній - поля обробляються як раніше (окреме RSA на поле або відкритий текст).
+ */
+public interface EnvelopeEncryptedRequest {
+
+    /**
+     * AES ключ конверта, зашифрований RSA (Base64), або null
+     */
+    String getEncryptedKey();
+}
@@ -8,7 +8,7 @@ import lombok.NoArgsConstructor;
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
-public class ExtendedReportRequest {
+public class ExtendedReportRequest implements EnvelopeEncryptedRequest {
 
     @NotBlank(message = "ID групи обов'язковий")
     private String groupId;
@@ -20,4 +20,6 @@ public class ExtendedReportRequest {
     private String field5;
 
     private String comment;
+
+    private String encryptedKey; // AES ключ конверта, див. EnvelopeEncryptedRequest
 }
@@ -9,7 +9,7 @@ import lombok.Data;
  * Валідація формату відбувається після дешифрування в AuthService.
  */
 @Data
-public class LoginRequest {
+public class LoginRequest implements EnvelopeEncryptedRequest {
 
     @NotBlank(message = "Номер телефону не може бути порожнім")
     private String phone;
@@ -22,4 +22,14 @@ public class LoginRequest {
      * Якщо присутній - AES ключ буде зашифрований цим ключем.
      */
     private String clientPublicKey;
+
+    private String encryptedKey; // AES ключ конверта, див. EnvelopeEncryptedRequest
+
+    /**
+     * Шифр сесії, який підтримує клієнт ("AES-GCM").
+     * Якщо вказано - сервер генерує сесійний ключ, і всі подальші запити/відповіді
+     * з цим токеном шифруються AES-GCM сесійним ключем.
+     * Потребує clientPublicKey: сесійний ключ повертається тільки зашифрованим ним.
+     */
+    private String sessionCipher;
 }
@@ -10,7 +10,7 @@ import lombok.Data;
  * Валідація формату відбувається після дешифрування в AuthService.
  */
 @Data
-public class RegisterRequest {
+public class RegisterRequest implements EnvelopeEncryptedRequest {
 
     @NotBlank(message = "Номер телефону не може бути порожнім")
     private String phone;
@@ -22,4 +22,6 @@ public class RegisterRequest {
 
     @NotBlank(message = "Ім'я не може бути порожнім")
     private String name; // Валідація розміру після дешифрування в AuthService
+
+    private String encryptedKey; // AES ключ конверта, див. EnvelopeEncryptedRequest
 }
@@ -8,7 +8,7 @@ import lombok.Data;
  * Поля phone та newPassword можуть бути RSA-зашифрованими.
  */
 @Data
-public class ResetPasswordRequest {
+public class ResetPasswordRequest implements EnvelopeEncryptedRequest {
 
     @NotBlank(message = "Номер телефону не може бути порожнім")
     private String phone;
@@ -18,4 +18,6 @@ public class ResetPasswordRequest {
 
     @NotBlank(message = "Firebase токен не може бути порожнім")
     private String firebaseIdToken;
+
+    private String encryptedKey; // AES ключ конверта, див. EnvelopeEncryptedRequest
 }
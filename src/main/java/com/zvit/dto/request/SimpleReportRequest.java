@@ -8,7 +8,7 @@ import lombok.NoArgsConstructor;
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
-public class SimpleReportRequest {
+public class SimpleReportRequest implements EnvelopeEncryptedRequest {
 
     @NotBlank(message = "ID групи обов'язковий")
     private String groupId;
@@ -17,4 +17,6 @@ public class SimpleReportRequest {
     private String simpleResponse;
 
     private String comment;
+
+    private String encryptedKey; // AES ключ конверта, див. EnvelopeEncryptedRequest
 }
@@ -7,9 +7,11 @@ import lombok.Data;
  * Поле email може бути RSA-зашифрованим.
  */
 @Data
-public class UpdateProfileRequest {
+public class UpdateProfileRequest implements EnvelopeEncryptedRequest {
 
     private String name;
 
     private String email;
+
+    private String encryptedKey; // AES ключ конверта, див. EnvelopeEncryptedRequest
 }
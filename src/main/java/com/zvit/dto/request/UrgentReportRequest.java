@@ -7,7 +7,7 @@ import jakarta.validation.constraints.Size;
 import lombok.Data;
 
 @Data
-public class UrgentReportRequest {
+public class UrgentReportRequest implements EnvelopeEncryptedRequest {
 
     @NotBlank(message = "ID групи обов'язковий")
     private String groupId;
@@ -18,4 +18,6 @@ public class UrgentReportRequest {
 
     // Валідація довжини відбувається після дешифрування в сервісі
     private String message;
+
+    private String encryptedKey; // AES ключ конверта, див. EnvelopeEncryptedRequest
 }
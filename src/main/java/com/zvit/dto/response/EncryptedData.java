@@ -1,5 +1,8 @@
 package com.zvit.dto.response;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -11,19 +14,28 @@ import lombok.NoArgsConstructor;
  */
 @Data
 @Builder
+@JsonPropertyOrder({"payload", "encrypted", "encryptionKey", "cipher"})
 @NoArgsConstructor
 @AllArgsConstructor
 public class EncryptedData {
 
     /** AES-зашифрований JSON у Base64 форматі */
+    @JsonIgnore
     private String payload;
 
+    /** Payload, що шифрується під час запису відповіді (замість готового рядка payload) */
+    @JsonIgnore
+    private EncryptedPayload streamingPayload;
+
     /** Прапорець що дані зашифровані */
     private boolean encrypted;
 
     /** AES ключ для дешифрування (Base64) - передається тільки при логіні */
     private String encryptionKey;
 
+    /** Шифр payload: null - AES/ECB статичним ключем, "AES-GCM" - сесійним ключем (тільки при логіні) */
+    private String cipher;
+
     public static EncryptedData of(String encryptedPayload) {
         return EncryptedData.builder()
                 .payload(encryptedPayload)
@@ -31,6 +43,13 @@ public class EncryptedData {
                 .build();
     }
 
+    public static EncryptedData of(EncryptedPayload streamingPayload) {
+        return EncryptedData.builder()
+                .streamingPayload(streamingPayload)
+                .encrypted(true)
+                .build();
+    }
+
     public static EncryptedData ofWithKey(String encryptedPayload, String encryptionKey) {
         return EncryptedData.builder()
                 .payload(encryptedPayload)
@@ -38,4 +57,10 @@ public class EncryptedData {
                 .encryptionKey(encryptionKey)
                 .build();
     }
+
+    /** В JSON обидва варіанти виглядають як поле payload з Base64 рядком */
+    @JsonProperty("payload")
+    Object payloadForJson() {
+        return streamingPayload != null ? streamingPayload : payload;
+    }
 }
@@ -0,0 +1,106 @@
+package com.zvit.dto.response;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Зашифрований payload, що шифрується під час запису відповіді.
+ * Замість JSON рядка -> байтів -> шифротексту -> Base64 рядка об'єкт серіалізується Jackson-ом
+ * одразу в шифруючий потік, а Base64 пишеться прямо у вихідний потік відповіді,
+ * тому великі списки звітів не копіюються в пам'яті.
+ * В JSON виглядає так само як звичайний payload (Base64 рядок).
+ * Для бінарного режиму (Accept: application/octet-stream) дані стискаються перед шифруванням
+ * і віддаються без Base64 (див. EncryptedBinaryHttpMessageConverter).
+ */
+@JsonSerialize(using = EncryptedPayload.Serializer.class)
+public final class EncryptedPayload {
+
+    /**
+     * Шифрування payload ключем, визначеним під час створення відповіді
+     */
+    public interface Encryptor {
+
+        /** Пише Base64(шифротекст JSON значення) у потік (потік не закривається) */
+        void writeBase64(Object value, OutputStream out) throws IOException;
+
+        /** Пише шифротекст стиснутого gzip JSON значення у потік (потік не закривається) */
+        void writeCompressed(Object value, OutputStream out) throws IOException;
+
+        /** Назва шифру: "AES-GCM" (сесійний ключ) або "AES-ECB" (статичний ключ) */
+        String cipherName();
+    }
+
+    private final Object data;
+    private final Encryptor encryptor;
+
+    public EncryptedPayload(Object data, Encryptor encryptor) {
+        this.data = data;
+        this.encryptor = encryptor;
+    }
+
+    /**
+     * Незашифровані дані
+     */
+    public Object getData() {
+        return data;
+    }
+
+    public String getCipherName() {
+        return encryptor.cipherName();
+    }
+
+    /**
+     * Шифрує (стиснутим) вказане значення тим самим ключем, що й payload
+     */
+    public void writeCompressed(Object value, OutputStream out) throws IOException {
+        encryptor.writeCompressed(value, out);
+    }
+
+    /**
+     * Шифрує в рядок (коли потокова відповідь недоступна)
+     */
+    @Override
+    public String toString() {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try {
+            encryptor.writeBase64(data, out);
+        } catch (IOException e) {
+            throw new IllegalStateException("Помилка шифрування даних", e);
+        }
+        return out.toString(StandardCharsets.US_ASCII);
+    }
+
+    static class Serializer extends StdSerializer<EncryptedPayload> {
+
+        Serializer() {
+            super(EncryptedPayload.class);
+        }
+
+        @Override
+        public void serialize(EncryptedPayload value, JsonGenerator gen, SerializerProvider provider) throws IOException {
+            // Base64 не потребує JSON екранування, тому його можна писати прямо в байтовий потік генератора
+            // (для Writer / TokenBuffer - звичайний рядок)
+            if (!(gen.getOutputTarget() instanceof OutputStream out)) {
+                gen.writeString(value.toString());
+                return;
+            }
+            gen.writeRawValue("\"");
+            // Скидаємо буфер генератора без flush самого потоку (щоб не фіксувати відповідь передчасно)
+            boolean flushPassed = gen.isEnabled(JsonGenerator.Feature.FLUSH_PASSED_TO_STREAM);
+            gen.disable(JsonGenerator.Feature.FLUSH_PASSED_TO_STREAM);
+            gen.flush();
+            if (flushPassed) {
+                gen.enable(JsonGenerator.Feature.FLUSH_PASSED_TO_STREAM);
+            }
+            value.encryptor.writeBase64(value.data, out);
+            gen.writeRaw('"');
+        }
+    }
+}
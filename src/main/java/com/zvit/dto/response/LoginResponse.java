@@ -22,4 +22,7 @@ public class LoginResponse {
 
     /** AES ключ для дешифрування наступних відповідей (Base64) */
     private String encryptionKey;
+
+    /** Шифр сесії ("AES-GCM"), якщо для токена створено сесійний ключ */
+    private String sessionCipher;
 }
\ No newline at end of file
@@ -5,6 +5,8 @@ import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import java.util.List;
+
 @Data
 @Builder
 @NoArgsConstructor
@@ -13,4 +15,9 @@ public class PublicKeyResponse {
     private String publicKey;   // Base64 encoded public key
     private String algorithm;   // RSA
     private int keySize;        // 2048
+    private String keyId;       // id ключа; префікс "keyId:" у шифротексті вказує серверу яким ключем дешифрувати
+
+    // Алгоритми ключа конверта, які підтримує сервер: "rsa", "x25519"
+    private List<String> algorithms;
+    private String ecPublicKey; // X25519 публічний ключ (X.509, Base64), якщо підтримується
 }
@@ -0,0 +1,37 @@
+package com.zvit.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.http.HttpHeaders;
+
+import java.util.List;
+
+/**
+ * Історія звітів (від новіших до старіших).
+ * Без параметрів сторінки - вся історія; з limit/cursor - одна сторінка,
+ * курсор наступної передається в заголовку X-Next-Cursor (відсутній - далі звітів немає).
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReportHistoryPage {
+
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
+    private List<ReportResponse> reports;
+
+    /** Курсор наступної сторінки (submittedAt_reportId останнього звіту) або null */
+    private String nextCursor;
+
+    /**
+     * Заголовки відповіді: X-Next-Cursor, якщо є наступна сторінка
+     */
+    public HttpHeaders cursorHeaders() {
+        HttpHeaders headers = new HttpHeaders();
+        if (nextCursor != null) {
+            headers.add(NEXT_CURSOR_HEADER, nextCursor);
+        }
+        return headers;
+    }
+}
@@ -0,0 +1,69 @@
+package com.zvit.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.domain.Persistable;
+
+import java.time.LocalDateTime;
+
+/**
+ * Архівний (холодний) звіт.
+ * Звіти старші за report.archive.after-days переносяться сюди з таблиці reports.
+ * Текстові поля звіту зберігаються одним стиснутим блоком (payload),
+ * щоб архів займав мінімум місця і не заважав гарячим запитам статусів.
+ */
+@Entity
+@Table(name = "reports_archive", indexes = {
+    @Index(name = "idx_reports_archive_group_submitted", columnList = "group_id, submitted_at"),
+    @Index(name = "idx_reports_archive_user_submitted", columnList = "user_id, submitted_at")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ArchivedReport implements Persistable<String> {
+
+    @Id
+    @Column(length = 36)
+    private String id;  // Той самий ID, що був у reports
+
+    @Column(name = "user_id", nullable = false, length = 36)
+    private String userId;
+
+    @Column(name = "group_id", nullable = false, length = 36)
+    private String groupId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "report_type", nullable = false, length = 20)
+    private Report.ReportType reportType;
+
+    @Column(name = "submitted_at", nullable = false, updatable = false)
+    private LocalDateTime submittedAt;
+
+    @Column(name = "archived_at", nullable = false, updatable = false)
+    private LocalDateTime archivedAt;
+
+    /** Стиснутий (Deflate) JSON з текстовими полями звіту */
+    @Lob
+    @Column(name = "payload", nullable = false)
+    private byte[] payload;
+
+    /** ID призначається вручну, тому явно повідомляємо Spring Data що запис новий (без зайвого SELECT) */
+    @Transient
+    @Builder.Default
+    private boolean newEntity = true;
+
+    @Override
+    public boolean isNew() {
+        return newEntity;
+    }
+
+    @PostLoad
+    @PostPersist
+    protected void markNotNew() {
+        newEntity = false;
+    }
+}
@@ -0,0 +1,40 @@
+package com.zvit.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Подія інвалідації кешу (JdbcCacheInvalidationBus).
+ * Інстанси читають нові події за зростанням id, тому id - автоінкремент.
+ */
+@Entity
+@Table(name = "cache_events", indexes = {
+    @Index(name = "idx_cache_events_created", columnList = "created_at")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class CacheEvent {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "cache_name", nullable = false, length = 64)
+    private String cacheName;
+
+    @Column(name = "cache_key", length = 191)
+    private String cacheKey;  // null - весь кеш
+
+    @Column(name = "origin", nullable = false, length = 36)
+    private String origin;  // ID інстансу, що опублікував подію
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+}
@@ -33,6 +33,29 @@ public class Group {
     @Column(name = "max_members", nullable = false)
     private int maxMembers;
 
+    // Лічильники учасників (денормалізовано).
+    // Змінюються тільки атомарними UPDATE з GroupRepository, тому updatable = false
+    @Column(name = "accepted_count", nullable = false, updatable = false, columnDefinition = "integer default 0")
+    @Builder.Default
+    private int acceptedCount = 0;  // Учасники зі статусом ACCEPTED
+
+    @Column(name = "pending_count", nullable = false, updatable = false, columnDefinition = "integer default 0")
+    @Builder.Default
+    private int pendingCount = 0;  // Запити зі статусом PENDING
+
+    // Група видаляється частинами: нові учасники, звіти та архівація вже не приймаються.
+    // Встановлюється тільки GroupRepository.markDeleting
+    @Column(name = "deleting", nullable = false, updatable = false, columnDefinition = "boolean default false")
+    @Builder.Default
+    private boolean deleting = false;
+
+    /**
+     * Загальна кількість учасників (ACCEPTED + PENDING), що враховується в maxMembers
+     */
+    public int getMemberCount() {
+        return acceptedCount + pendingCount;
+    }
+
     @Enumerated(EnumType.STRING)
     @Column(name = "report_type", nullable = false, length = 20)
     private ReportType reportType;
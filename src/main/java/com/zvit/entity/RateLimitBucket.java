@@ -0,0 +1,43 @@
+package com.zvit.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+
+/**
+ * Token bucket спільного rate limiting (JdbcSharedStateStore).
+ * Зберігається тільки теоретичний час наступного запиту (GCRA): відро повне, коли tat <= now,
+ * тоді запис не потрібен і видаляється.
+ */
+@Entity
+@Table(name = "rate_limit_buckets", indexes = {
+    @Index(name = "idx_rate_limit_buckets_tat", columnList = "tat")
+})
+@IdClass(RateLimitBucket.Key.class)
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RateLimitBucket {
+
+    @Id
+    @Column(name = "namespace", length = 64)
+    private String namespace;
+
+    @Id
+    @Column(name = "bucket_key", length = 191)
+    private String bucketKey;
+
+    @Column(name = "tat", nullable = false)
+    private long tat;  // Epoch millis
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        private String namespace;
+        private String bucketKey;
+    }
+}
@@ -9,7 +9,10 @@ import lombok.NoArgsConstructor;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "reports")
+@Table(name = "reports", indexes = {
+    @Index(name = "idx_reports_group_user_submitted", columnList = "group_id, user_id, submitted_at"),
+    @Index(name = "idx_reports_submitted", columnList = "submitted_at")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
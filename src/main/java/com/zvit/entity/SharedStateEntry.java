@@ -0,0 +1,45 @@
+package com.zvit.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+
+/**
+ * Запис спільного стану інстансів (JdbcSharedStateStore).
+ * Прострочені записи не повертаються запитами і видаляються періодично.
+ */
+@Entity
+@Table(name = "shared_state", indexes = {
+    @Index(name = "idx_shared_state_expires", columnList = "expires_at")
+})
+@IdClass(SharedStateEntry.Key.class)
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SharedStateEntry {
+
+    @Id
+    @Column(name = "namespace", length = 64)
+    private String namespace;
+
+    @Id
+    @Column(name = "state_key", length = 191)
+    private String stateKey;
+
+    @Column(name = "state_value", nullable = false, columnDefinition = "TEXT")
+    private String stateValue;
+
+    @Column(name = "expires_at", nullable = false)
+    private long expiresAt;  // Epoch millis
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        private String namespace;
+        private String stateKey;
+    }
+}
@@ -0,0 +1,17 @@
+package com.zvit.exception;
+
+import lombok.Getter;
+import org.springframework.http.HttpStatus;
+
+/**
+ * Сервер тимчасово перевантажений - клієнту повертається 503 з Retry-After
+ */
+@Getter
+public class ServiceOverloadedException extends BusinessException {
+    private final int retryAfterSeconds;
+
+    public ServiceOverloadedException(String message, int retryAfterSeconds) {
+        super(message, HttpStatus.SERVICE_UNAVAILABLE);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+}
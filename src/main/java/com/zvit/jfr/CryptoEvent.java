@@ -0,0 +1,37 @@
+package com.zvit.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Одна криптографічна операція (rsa.decrypt, aes.encrypt, aes.encrypt.stream).
+ * Поріг 1 мс в налаштуваннях запису відсікає дрібні AES операції.
+ */
+@Name("com.zvit.Crypto")
+@Label("Crypto Operation")
+@Category({"Zvit", "Crypto"})
+@StackTrace(false)
+public class CryptoEvent extends jdk.jfr.Event {
+
+    @Label("Operation")
+    public String operation;
+
+    @Label("Bytes")
+    @DataAmount
+    public long bytes;
+
+    /**
+     * Завершує подію, якщо вона потрапляє в запис (інакше поля не заповнюються)
+     */
+    public void complete(String operation, long bytes) {
+        end();
+        if (shouldCommit()) {
+            this.operation = operation;
+            this.bytes = bytes;
+            commit();
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package com.zvit.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Побудова статусів учасників групи (getGroupStatuses)
+ */
+@Name("com.zvit.GroupStatuses")
+@Label("Group Statuses")
+@Category({"Zvit", "Reports"})
+@Description("Побудова статусів учасників групи")
+public class GroupStatusesEvent extends jdk.jfr.Event {
+
+    @Label("Group Id")
+    public String groupId;
+
+    @Label("Members")
+    public int members;
+
+    @Label("Statements")
+    @Description("SQL запитів, виконаних потоком під час побудови")
+    public long statements;
+}
@@ -0,0 +1,130 @@
+package com.zvit.jfr;
+
+import com.zvit.config.JfrConfig;
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+import jdk.jfr.RecordingState;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.text.ParseException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+/**
+ * Запис JFR на вимогу адміністратора (management порт):
+ * POST /actuator/jfr {"durationSeconds": 120} - почати запис,
+ * GET /actuator/jfr - стан, DELETE /actuator/jfr - зупинити достроково.
+ * Запис зберігається у jfr.directory і аналізується офлайн (JDK Mission Control, jfr print).
+ * Одночасно працює тільки один запис, у каталозі лишається не більше jfr.max-recordings файлів.
+ * Запуск і зупинка - тільки з роллю ACTUATOR_ADMIN (SecurityConfig).
+ */
+@Slf4j
+@Component
+@Endpoint(id = "jfr")
+@RequiredArgsConstructor
+public class JfrRecordingEndpoint {
+
+    private static final DateTimeFormatter FILE_TIMESTAMP = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss");
+    private static final String FILE_PREFIX = "zvit-";
+    private static final String FILE_SUFFIX = ".jfr";
+
+    private final JfrConfig config;
+
+    private Recording recording;
+    private Path destination;
+
+    @ReadOperation
+    public synchronized Map<String, Object> status() {
+        Map<String, Object> status = new LinkedHashMap<>();
+        boolean running = recording != null && recording.getState() == RecordingState.RUNNING;
+        status.put("running", running);
+        if (recording != null) {
+            status.put("state", recording.getState().name());
+            status.put("startedAt", recording.getStartTime() != null ? recording.getStartTime().toString() : null);
+            status.put("durationSeconds", recording.getDuration() != null ? recording.getDuration().toSeconds() : null);
+            status.put("file", destination.toAbsolutePath().toString());
+        }
+        return status;
+    }
+
+    @WriteOperation
+    public synchronized Map<String, Object> start(@Nullable Integer durationSeconds) throws IOException, ParseException {
+        if (recording != null && recording.getState() == RecordingState.RUNNING) {
+            throw new IllegalStateException("Запис JFR вже виконується");
+        }
+
+        int seconds = durationSeconds != null ? durationSeconds : config.getDefaultDurationSeconds();
+        seconds = Math.max(1, Math.min(seconds, config.getMaxDurationSeconds()));
+
+        Path directory = Paths.get(config.getDirectory());
+        Files.createDirectories(directory);
+        removeOldRecordings(directory);
+        destination = directory.resolve(FILE_PREFIX + LocalDateTime.now().format(FILE_TIMESTAMP) + FILE_SUFFIX);
+
+        Recording newRecording = new Recording(Configuration.getConfiguration(config.getSettings()));
+        newRecording.setName("zvit-on-demand");
+        newRecording.setToDisk(true);
+        newRecording.setDuration(Duration.ofSeconds(seconds));
+        newRecording.setDestination(destination);
+        newRecording.enable(ReportIngestEvent.class);
+        newRecording.enable(GroupStatusesEvent.class);
+        newRecording.enable(PushFanoutEvent.class);
+        newRecording.enable(CryptoEvent.class).withThreshold(Duration.ofMillis(config.getCryptoThresholdMs()));
+        newRecording.start();
+
+        if (recording != null) {
+            recording.close();
+        }
+        recording = newRecording;
+        log.info("JFR recording started: {}s -> {}", seconds, destination.toAbsolutePath());
+        return status();
+    }
+
+    /**
+     * Видаляє найстаріші записи, щоб разом з новим у каталозі було не більше jfr.max-recordings
+     * (мітка часу в імені файлу сортується як рядок)
+     */
+    private void removeOldRecordings(Path directory) throws IOException {
+        List<Path> recordings;
+        try (Stream<Path> files = Files.list(directory)) {
+            recordings = files
+                    .filter(file -> {
+                        String name = file.getFileName().toString();
+                        return name.startsWith(FILE_PREFIX) && name.endsWith(FILE_SUFFIX);
+                    })
+                    .sorted()
+                    .toList();
+        }
+        int excess = recordings.size() - Math.max(0, config.getMaxRecordings() - 1);
+        for (int i = 0; i < excess; i++) {
+            Files.deleteIfExists(recordings.get(i));
+            log.info("Old JFR recording removed: {}", recordings.get(i).toAbsolutePath());
+        }
+    }
+
+    @DeleteOperation
+    public synchronized Map<String, Object> stop() {
+        if (recording != null && recording.getState() == RecordingState.RUNNING) {
+            // stop() записує дані у destination
+            recording.stop();
+            log.info("JFR recording stopped: {}", destination.toAbsolutePath());
+        }
+        return status();
+    }
+}
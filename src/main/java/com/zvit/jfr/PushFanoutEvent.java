@@ -0,0 +1,23 @@
+package com.zvit.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Пакетне розсилання push-сповіщень (FirebaseService.sendPushNotificationToMultiple)
+ */
+@Name("com.zvit.PushFanout")
+@Label("Push Fan-out")
+@Category({"Zvit", "Push"})
+public class PushFanoutEvent extends jdk.jfr.Event {
+
+    @Label("Recipients")
+    public int recipients;
+
+    @Label("Succeeded")
+    public int succeeded;
+
+    @Label("Failed")
+    public int failed;
+}
@@ -0,0 +1,30 @@
+package com.zvit.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Прийом звіту (createSimpleReport / createExtendedReport): дешифрування полів та вставка
+ */
+@Name("com.zvit.ReportIngest")
+@Label("Report Ingest")
+@Category({"Zvit", "Reports"})
+@Description("Створення звіту учасником групи")
+public class ReportIngestEvent extends jdk.jfr.Event {
+
+    @Label("Group Id")
+    public String groupId;
+
+    @Label("Report Type")
+    public String reportType;
+
+    @Label("Field Count")
+    @Description("Кількість непорожніх текстових полів звіту")
+    public int fieldCount;
+
+    @Label("Statements")
+    @Description("SQL запитів, виконаних потоком під час обробки")
+    public long statements;
+}
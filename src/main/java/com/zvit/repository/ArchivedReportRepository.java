@@ -0,0 +1,51 @@
+package com.zvit.repository;
+
+import com.zvit.entity.ArchivedReport;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface ArchivedReportRepository extends JpaRepository<ArchivedReport, String> {
+
+    /**
+     * Сторінка архівних звітів користувача (від новіших до старіших) після курсора (submittedAt, id).
+     * cursorAt = null - з найновішого; Pageable.unpaged() - до кінця історії
+     */
+    @Query("SELECT a FROM ArchivedReport a WHERE a.userId = :userId " +
+           "AND (:cursorAt IS NULL OR a.submittedAt < :cursorAt " +
+           "OR (a.submittedAt = :cursorAt AND a.id < :cursorId)) ORDER BY a.submittedAt DESC, a.id DESC")
+    List<ArchivedReport> findUserPage(@Param("userId") String userId, @Param("cursorAt") LocalDateTime cursorAt,
+            @Param("cursorId") String cursorId, Pageable pageable);
+
+    @Query("SELECT a FROM ArchivedReport a WHERE a.groupId = :groupId AND a.userId = :userId " +
+           "AND (:cursorAt IS NULL OR a.submittedAt < :cursorAt " +
+           "OR (a.submittedAt = :cursorAt AND a.id < :cursorId)) ORDER BY a.submittedAt DESC, a.id DESC")
+    List<ArchivedReport> findUserPageInGroup(@Param("groupId") String groupId, @Param("userId") String userId,
+            @Param("cursorAt") LocalDateTime cursorAt, @Param("cursorId") String cursorId, Pageable pageable);
+
+    Optional<ArchivedReport> findFirstByGroupIdAndUserIdOrderBySubmittedAtDesc(String groupId, String userId);
+
+    @Query("SELECT a FROM ArchivedReport a WHERE a.groupId = :groupId " +
+           "AND (:cursorAt IS NULL OR a.submittedAt < :cursorAt " +
+           "OR (a.submittedAt = :cursorAt AND a.id < :cursorId)) ORDER BY a.submittedAt DESC, a.id DESC")
+    List<ArchivedReport> findGroupPage(@Param("groupId") String groupId, @Param("cursorAt") LocalDateTime cursorAt,
+            @Param("cursorId") String cursorId, Pageable pageable);
+
+    @Query("SELECT MAX(a.submittedAt) FROM ArchivedReport a WHERE a.groupId = :groupId AND a.userId = :userId")
+    Optional<LocalDateTime> findLastSubmittedAt(@Param("groupId") String groupId, @Param("userId") String userId);
+
+    /**
+     * Видаляє один пакет архівних звітів групи (для видалення групи частинами)
+     */
+    @Modifying
+    @Query(value = "DELETE FROM reports_archive WHERE group_id = :groupId LIMIT :limit", nativeQuery = true)
+    int deleteChunkByGroupId(@Param("groupId") String groupId, @Param("limit") int limit);
+}
@@ -0,0 +1,35 @@
+package com.zvit.repository;
+
+import com.zvit.entity.CacheEvent;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface CacheEventRepository extends JpaRepository<CacheEvent, Long> {
+
+    @Query("SELECT MAX(e.id) FROM CacheEvent e")
+    Optional<Long> findMaxId();
+
+    /**
+     * Наступні події після позначки (за зростанням id)
+     */
+    List<CacheEvent> findByIdGreaterThanOrderByIdAsc(Long id, Pageable pageable);
+
+    List<CacheEvent> findByIdIn(Collection<Long> ids);
+
+    /**
+     * Видаляє один пакет старих подій
+     */
+    @Modifying
+    @Query(value = "DELETE FROM cache_events WHERE created_at < :cutoff LIMIT :limit", nativeQuery = true)
+    int deleteOlderThanChunk(@Param("cutoff") LocalDateTime cutoff, @Param("limit") int limit);
+}
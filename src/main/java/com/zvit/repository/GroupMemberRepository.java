@@ -16,12 +16,40 @@ public interface GroupMemberRepository extends JpaRepository<GroupMember, String
 
     List<GroupMember> findByUserId(String userId);
 
-    List<GroupMember> findByGroupId(String groupId);
+    /**
+     * Учасники групи разом з користувачами та групою одним запитом
+     * (EAGER зв'язки інакше завантажуються окремим SELECT на кожного користувача)
+     */
+    @Query("SELECT gm FROM GroupMember gm JOIN FETCH gm.group g JOIN FETCH gm.user WHERE g.id = :groupId")
+    List<GroupMember> findByGroupId(@Param("groupId") String groupId);
 
     Optional<GroupMember> findByGroupIdAndUserId(String groupId, String userId);
 
     long countByGroupId(String groupId);
 
+    /**
+     * Прийняті членства користувача разом з групою та часом останнього звіту в кожній групі
+     * (гаряча таблиця, а якщо там порожньо - архів). Один запит замість 2 запитів на групу.
+     */
+    @Query("SELECT gm AS membership, " +
+           "COALESCE(" +
+           "(SELECT MAX(r.submittedAt) FROM Report r WHERE r.group.id = g.id AND r.user.id = :userId), " +
+           "(SELECT MAX(a.submittedAt) FROM ArchivedReport a WHERE a.groupId = g.id AND a.userId = :userId)" +
+           ") AS lastReportAt " +
+           "FROM GroupMember gm JOIN FETCH gm.group g JOIN FETCH gm.user u " +
+           "WHERE u.id = :userId AND gm.status = com.zvit.entity.GroupMember$MemberStatus.ACCEPTED")
+    List<MembershipWithLastReport> findAcceptedWithLastReport(@Param("userId") String userId);
+
+    /**
+     * Дані для запису звіту одним запитом: членство, ім'я користувача,
+     * назва групи та активна термінова сесія (без EAGER-завантаження сутностей)
+     */
+    @Query("SELECT u.name AS userName, g.externalName AS groupName, gm.role AS role, " +
+           "g.urgentSessionId AS urgentSessionId, g.urgentExpiresAt AS urgentExpiresAt " +
+           "FROM GroupMember gm JOIN gm.group g JOIN gm.user u " +
+           "WHERE g.id = :groupId AND u.id = :userId")
+    Optional<ReportContext> findReportContext(@Param("groupId") String groupId, @Param("userId") String userId);
+
     @Query("SELECT CASE WHEN COUNT(gm) > 0 THEN true ELSE false END " +
            "FROM GroupMember gm " +
            "WHERE gm.group.id = :groupId " +
@@ -30,11 +58,36 @@ public interface GroupMemberRepository extends JpaRepository<GroupMember, String
     boolean isUserAdminOfGroup(@Param("groupId") String groupId, @Param("userId") String userId);
 
     /**
-     * Видаляє всі pending запити старші за вказану дату
+     * Видаляє один пакет pending запитів старших за вказану дату
+     */
+    @Modifying
+    @Query(value = "DELETE FROM group_members " +
+                   "WHERE status = 'PENDING' AND joined_at < :cutoffTime LIMIT :limit", nativeQuery = true)
+    int deleteExpiredPendingMembersChunk(@Param("cutoffTime") LocalDateTime cutoffTime, @Param("limit") int limit);
+
+    /**
+     * Видаляє один пакет учасників групи (для видалення групи частинами)
      */
     @Modifying
-    @Query("DELETE FROM GroupMember gm " +
-           "WHERE gm.status = com.zvit.entity.GroupMember$MemberStatus.PENDING " +
-           "AND gm.joinedAt < :cutoffTime")
-    int deleteExpiredPendingMembers(@Param("cutoffTime") LocalDateTime cutoffTime);
+    @Query(value = "DELETE FROM group_members WHERE group_id = :groupId LIMIT :limit", nativeQuery = true)
+    int deleteChunkByGroupId(@Param("groupId") String groupId, @Param("limit") int limit);
+
+    /**
+     * Членство з часом останнього звіту користувача в групі
+     */
+    interface MembershipWithLastReport {
+        GroupMember getMembership();
+        LocalDateTime getLastReportAt();
+    }
+
+    /**
+     * Контекст учасника для запису звіту
+     */
+    interface ReportContext {
+        String getUserName();
+        String getGroupName();
+        GroupMember.Role getRole();
+        String getUrgentSessionId();
+        LocalDateTime getUrgentExpiresAt();
+    }
 }
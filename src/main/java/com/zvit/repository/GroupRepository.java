@@ -2,6 +2,9 @@ package com.zvit.repository;
 
 import com.zvit.entity.Group;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.Optional;
@@ -12,4 +15,76 @@ public interface GroupRepository extends JpaRepository<Group, String> {
     Optional<Group> findByAccessCode(String accessCode);
 
     boolean existsByAccessCode(String accessCode);
+
+    /**
+     * Атомарно резервує місце для прийнятого учасника
+     * @return 1 якщо місце зарезервовано, 0 якщо група заповнена або видаляється
+     */
+    @Modifying
+    @Query("UPDATE Group g SET g.acceptedCount = g.acceptedCount + 1 " +
+           "WHERE g.id = :groupId AND g.deleting = false AND g.acceptedCount + g.pendingCount < g.maxMembers")
+    int reserveAcceptedSlot(@Param("groupId") String groupId);
+
+    /**
+     * Атомарно резервує місце для запиту на приєднання
+     * @return 1 якщо місце зарезервовано, 0 якщо група заповнена або видаляється
+     */
+    @Modifying
+    @Query("UPDATE Group g SET g.pendingCount = g.pendingCount + 1 " +
+           "WHERE g.id = :groupId AND g.deleting = false AND g.acceptedCount + g.pendingCount < g.maxMembers")
+    int reservePendingSlot(@Param("groupId") String groupId);
+
+    /**
+     * Переводить зарезервоване місце з PENDING в ACCEPTED (при затвердженні)
+     */
+    @Modifying
+    @Query("UPDATE Group g SET g.pendingCount = g.pendingCount - 1, g.acceptedCount = g.acceptedCount + 1 " +
+           "WHERE g.id = :groupId AND g.pendingCount > 0")
+    int promotePendingSlot(@Param("groupId") String groupId);
+
+    /**
+     * Позначає групу як таку, що видаляється (перший крок видалення частинами)
+     */
+    @Modifying
+    @Query("UPDATE Group g SET g.deleting = true WHERE g.id = :groupId")
+    int markDeleting(@Param("groupId") String groupId);
+
+    @Modifying
+    @Query("UPDATE Group g SET g.acceptedCount = g.acceptedCount - 1 WHERE g.id = :groupId AND g.acceptedCount > 0")
+    int releaseAcceptedSlot(@Param("groupId") String groupId);
+
+    @Modifying
+    @Query("UPDATE Group g SET g.pendingCount = g.pendingCount - 1 WHERE g.id = :groupId AND g.pendingCount > 0")
+    int releasePendingSlot(@Param("groupId") String groupId);
+
+    /**
+     * Поточна кількість учасників групи (ACCEPTED + PENDING) - після атомарного резервування місця
+     */
+    @Query("SELECT g.acceptedCount + g.pendingCount FROM Group g WHERE g.id = :groupId")
+    int findMemberCount(@Param("groupId") String groupId);
+
+    /**
+     * Заповнює лічильники з group_members для груп, де вони ще не заповнені (після міграції).
+     * Група завжди має хоча б одного адміністратора, тож нульові лічильники за наявності учасників
+     * означають, що колонки додано до вже існуючої групи
+     */
+    @Modifying
+    @Query("UPDATE Group g SET " +
+           "g.acceptedCount = (SELECT COUNT(gm) FROM GroupMember gm WHERE gm.group.id = g.id " +
+           "AND gm.status = com.zvit.entity.GroupMember$MemberStatus.ACCEPTED), " +
+           "g.pendingCount = (SELECT COUNT(gm) FROM GroupMember gm WHERE gm.group.id = g.id " +
+           "AND gm.status = com.zvit.entity.GroupMember$MemberStatus.PENDING) " +
+           "WHERE g.acceptedCount = 0 AND g.pendingCount = 0 " +
+           "AND EXISTS (SELECT 1 FROM GroupMember gm WHERE gm.group.id = g.id)")
+    int backfillMemberCounters();
+
+    /**
+     * Перераховує лічильник запитів у групах, де вони є (після видалення прострочених запитів)
+     */
+    @Modifying
+    @Query("UPDATE Group g SET " +
+           "g.pendingCount = (SELECT COUNT(gm) FROM GroupMember gm WHERE gm.group.id = g.id " +
+           "AND gm.status = com.zvit.entity.GroupMember$MemberStatus.PENDING) " +
+           "WHERE g.pendingCount > 0")
+    int recountPendingMembers();
 }
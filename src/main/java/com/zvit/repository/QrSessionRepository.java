@@ -4,6 +4,7 @@ import com.zvit.entity.QrSession;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
@@ -14,7 +15,10 @@ public interface QrSessionRepository extends JpaRepository<QrSession, Long> {
 
     Optional<QrSession> findBySessionToken(String sessionToken);
 
+    /**
+     * Видаляє один пакет прострочених сесій
+     */
     @Modifying
-    @Query("DELETE FROM QrSession q WHERE q.expiresAt < :now")
-    void deleteExpiredSessions(LocalDateTime now);
+    @Query(value = "DELETE FROM qr_sessions WHERE expires_at < :now LIMIT :limit", nativeQuery = true)
+    int deleteExpiredSessionsChunk(@Param("now") LocalDateTime now, @Param("limit") int limit);
 }
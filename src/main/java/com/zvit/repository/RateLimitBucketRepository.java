@@ -0,0 +1,53 @@
+package com.zvit.repository;
+
+import com.zvit.entity.RateLimitBucket;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Optional;
+
+@Repository
+public interface RateLimitBucketRepository extends JpaRepository<RateLimitBucket, RateLimitBucket.Key> {
+
+    /**
+     * Бере дозвіл з існуючого відра: зсуває tat на інтервал, якщо він не виходить за вікно ємності
+     * @return 1 якщо дозволено, 0 якщо відра немає або воно порожнє
+     */
+    @Transactional
+    @Modifying
+    @Query(value = "UPDATE rate_limit_buckets SET tat = GREATEST(tat, :now) + :interval " +
+                   "WHERE namespace = :namespace AND bucket_key = :bucketKey " +
+                   "AND GREATEST(tat, :now) + :interval <= :now + :window",
+           nativeQuery = true)
+    int acquire(@Param("namespace") String namespace,
+                @Param("bucketKey") String bucketKey,
+                @Param("now") long now,
+                @Param("interval") long interval,
+                @Param("window") long window);
+
+    /**
+     * Створює відро з першим взятим дозволом
+     * @return 1 якщо створено, 0 якщо відро вже існує
+     */
+    @Transactional
+    @Modifying
+    @Query(value = "INSERT IGNORE INTO rate_limit_buckets (namespace, bucket_key, tat) VALUES (:namespace, :bucketKey, :tat)",
+           nativeQuery = true)
+    int insertIfAbsent(@Param("namespace") String namespace,
+                       @Param("bucketKey") String bucketKey,
+                       @Param("tat") long tat);
+
+    @Query("SELECT b.tat FROM RateLimitBucket b WHERE b.namespace = :namespace AND b.bucketKey = :bucketKey")
+    Optional<Long> findTat(@Param("namespace") String namespace, @Param("bucketKey") String bucketKey);
+
+    /**
+     * Видаляє один пакет повних (вже не потрібних) відер
+     */
+    @Modifying
+    @Query(value = "DELETE FROM rate_limit_buckets WHERE tat <= :now LIMIT :limit", nativeQuery = true)
+    int deleteExpiredChunk(@Param("now") long now, @Param("limit") int limit);
+}
@@ -1,20 +1,126 @@
 package com.zvit.repository;
 
 import com.zvit.entity.Report;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface ReportRepository extends JpaRepository<Report, String> {
 
-    List<Report> findByUser_IdOrderBySubmittedAtDesc(String userId);
+    /**
+     * Сторінка звітів користувача (від новіших до старіших) після курсора (submittedAt, id).
+     * cursorAt = null - з найновішого; Pageable.unpaged() - до кінця історії
+     */
+    @Query("SELECT r FROM Report r WHERE r.user.id = :userId " +
+           "AND (:cursorAt IS NULL OR r.submittedAt < :cursorAt " +
+           "OR (r.submittedAt = :cursorAt AND r.id < :cursorId)) ORDER BY r.submittedAt DESC, r.id DESC")
+    List<Report> findUserPage(@Param("userId") String userId, @Param("cursorAt") LocalDateTime cursorAt,
+            @Param("cursorId") String cursorId, Pageable pageable);
 
-    List<Report> findByGroup_IdAndUser_IdOrderBySubmittedAtDesc(String groupId, String userId);
+    @Query("SELECT r FROM Report r WHERE r.group.id = :groupId AND r.user.id = :userId " +
+           "AND (:cursorAt IS NULL OR r.submittedAt < :cursorAt " +
+           "OR (r.submittedAt = :cursorAt AND r.id < :cursorId)) ORDER BY r.submittedAt DESC, r.id DESC")
+    List<Report> findUserPageInGroup(@Param("groupId") String groupId, @Param("userId") String userId,
+            @Param("cursorAt") LocalDateTime cursorAt, @Param("cursorId") String cursorId, Pageable pageable);
 
     Optional<Report> findFirstByGroup_IdAndUser_IdOrderBySubmittedAtDesc(String groupId, String userId);
 
-    List<Report> findByGroup_IdOrderBySubmittedAtDesc(String groupId);
-}
\ No newline at end of file
+    @Query("SELECT r FROM Report r WHERE r.group.id = :groupId " +
+           "AND (:cursorAt IS NULL OR r.submittedAt < :cursorAt " +
+           "OR (r.submittedAt = :cursorAt AND r.id < :cursorId)) ORDER BY r.submittedAt DESC, r.id DESC")
+    List<Report> findGroupPage(@Param("groupId") String groupId, @Param("cursorAt") LocalDateTime cursorAt,
+            @Param("cursorId") String cursorId, Pageable pageable);
+
+    /**
+     * Останній звіт кожного учасника групи одним запитом (замість запиту на кожного учасника)
+     */
+    @Query("SELECT r FROM Report r JOIN FETCH r.user JOIN FETCH r.group " +
+           "WHERE r.group.id = :groupId AND r.submittedAt = " +
+           "(SELECT MAX(r2.submittedAt) FROM Report r2 WHERE r2.group.id = :groupId AND r2.user.id = r.user.id)")
+    List<Report> findLatestPerUserInGroup(@Param("groupId") String groupId);
+
+    /**
+     * Час останнього звіту користувача в групі (без завантаження сутності звіту)
+     */
+    @Query("SELECT MAX(r.submittedAt) FROM Report r WHERE r.group.id = :groupId AND r.user.id = :userId")
+    Optional<LocalDateTime> findLastSubmittedAt(@Param("groupId") String groupId, @Param("userId") String userId);
+
+    /**
+     * Найстаріші звіти, що підлягають архівації.
+     * Проекція без EAGER-завантаження користувача та групи.
+     * Звіти груп, що видаляються, пропускаються - їх видаляє GroupService.deleteGroup.
+     */
+    @Query("SELECT r.id AS id, r.user.id AS userId, r.group.id AS groupId, r.reportType AS reportType, " +
+           "r.simpleResponse AS simpleResponse, r.comment AS comment, " +
+           "r.field1Value AS field1Value, r.field2Value AS field2Value, r.field3Value AS field3Value, " +
+           "r.field4Value AS field4Value, r.field5Value AS field5Value, " +
+           "r.isUrgent AS isUrgent, r.deadlineAt AS deadlineAt, r.submittedAt AS submittedAt " +
+           "FROM Report r WHERE r.submittedAt < :cutoff AND r.group.deleting = false ORDER BY r.submittedAt")
+    List<ArchiveCandidate> findArchiveCandidates(@Param("cutoff") LocalDateTime cutoff, Pageable pageable);
+
+    /**
+     * Вставляє звіт тільки якщо користувач є учасником групи, що не видаляється (один запит замість
+     * перевірки членства та окремого INSERT).
+     * @return 1 якщо звіт збережено, 0 якщо користувач не є учасником групи
+     */
+    @Modifying
+    @Query(value = "INSERT INTO reports (id, user_id, group_id, report_type, simple_response, comment, " +
+                   "field1_value, field2_value, field3_value, field4_value, field5_value, is_urgent, submitted_at) " +
+                   "SELECT :id, :userId, :groupId, :reportType, :simpleResponse, :comment, " +
+                   ":field1, :field2, :field3, :field4, :field5, false, :submittedAt FROM DUAL " +
+                   "WHERE EXISTS (SELECT 1 FROM group_members gm JOIN `groups` g ON g.id = gm.group_id " +
+                   "WHERE gm.group_id = :groupId AND gm.user_id = :userId AND g.deleting = false)",
+           nativeQuery = true)
+    int insertIfMember(@Param("id") String id,
+                       @Param("groupId") String groupId,
+                       @Param("userId") String userId,
+                       @Param("reportType") String reportType,
+                       @Param("simpleResponse") String simpleResponse,
+                       @Param("comment") String comment,
+                       @Param("field1") String field1,
+                       @Param("field2") String field2,
+                       @Param("field3") String field3,
+                       @Param("field4") String field4,
+                       @Param("field5") String field5,
+                       @Param("submittedAt") LocalDateTime submittedAt);
+
+    @Modifying
+    @Query("DELETE FROM Report r WHERE r.id IN :ids")
+    int deleteByIdIn(@Param("ids") Collection<String> ids);
+
+    /**
+     * Видаляє один пакет звітів групи (для видалення групи частинами)
+     */
+    @Modifying
+    @Query(value = "DELETE FROM reports WHERE group_id = :groupId LIMIT :limit", nativeQuery = true)
+    int deleteChunkByGroupId(@Param("groupId") String groupId, @Param("limit") int limit);
+
+    /**
+     * Плоский рядок звіту для перенесення в архів
+     */
+    interface ArchiveCandidate {
+        String getId();
+        String getUserId();
+        String getGroupId();
+        Report.ReportType getReportType();
+        String getSimpleResponse();
+        String getComment();
+        String getField1Value();
+        String getField2Value();
+        String getField3Value();
+        String getField4Value();
+        String getField5Value();
+        Boolean getIsUrgent();
+        LocalDateTime getDeadlineAt();
+        LocalDateTime getSubmittedAt();
+    }
+}
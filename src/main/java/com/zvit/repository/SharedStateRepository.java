@@ -0,0 +1,73 @@
+package com.zvit.repository;
+
+import com.zvit.entity.SharedStateEntry;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface SharedStateRepository extends JpaRepository<SharedStateEntry, SharedStateEntry.Key> {
+
+    @Query("SELECT e.stateValue FROM SharedStateEntry e " +
+           "WHERE e.namespace = :namespace AND e.stateKey = :stateKey AND e.expiresAt > :now")
+    Optional<String> findValue(@Param("namespace") String namespace,
+                               @Param("stateKey") String stateKey,
+                               @Param("now") long now);
+
+    @Query("SELECT e FROM SharedStateEntry e WHERE e.namespace = :namespace AND e.expiresAt > :now")
+    List<SharedStateEntry> findActive(@Param("namespace") String namespace, @Param("now") long now);
+
+    /**
+     * Записує або перезаписує значення одним запитом
+     */
+    @Transactional
+    @Modifying
+    @Query(value = "INSERT INTO shared_state (namespace, state_key, state_value, expires_at) " +
+                   "VALUES (:namespace, :stateKey, :stateValue, :expiresAt) " +
+                   "ON DUPLICATE KEY UPDATE state_value = VALUES(state_value), expires_at = VALUES(expires_at)",
+           nativeQuery = true)
+    int upsert(@Param("namespace") String namespace,
+               @Param("stateKey") String stateKey,
+               @Param("stateValue") String stateValue,
+               @Param("expiresAt") long expiresAt);
+
+    /**
+     * Записує значення тільки якщо ключа ще немає
+     * @return 1 якщо записано
+     */
+    @Transactional
+    @Modifying
+    @Query(value = "INSERT IGNORE INTO shared_state (namespace, state_key, state_value, expires_at) " +
+                   "VALUES (:namespace, :stateKey, :stateValue, :expiresAt)",
+           nativeQuery = true)
+    int insertIfAbsent(@Param("namespace") String namespace,
+                       @Param("stateKey") String stateKey,
+                       @Param("stateValue") String stateValue,
+                       @Param("expiresAt") long expiresAt);
+
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM SharedStateEntry e WHERE e.namespace = :namespace AND e.stateKey = :stateKey")
+    int deleteKey(@Param("namespace") String namespace, @Param("stateKey") String stateKey);
+
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM SharedStateEntry e " +
+           "WHERE e.namespace = :namespace AND e.stateKey = :stateKey AND e.expiresAt <= :now")
+    int deleteKeyIfExpired(@Param("namespace") String namespace,
+                           @Param("stateKey") String stateKey,
+                           @Param("now") long now);
+
+    /**
+     * Видаляє один пакет прострочених записів
+     */
+    @Modifying
+    @Query(value = "DELETE FROM shared_state WHERE expires_at <= :now LIMIT :limit", nativeQuery = true)
+    int deleteExpiredChunk(@Param("now") long now, @Param("limit") int limit);
+}
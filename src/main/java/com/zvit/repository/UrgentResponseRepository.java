@@ -2,8 +2,13 @@ package com.zvit.repository;
 
 import com.zvit.entity.UrgentResponse;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -34,4 +39,40 @@ public interface UrgentResponseRepository extends JpaRepository<UrgentResponse,
      * Видалити всі відповіді для термінової сесії (при закритті)
      */
     void deleteByUrgentSessionId(String urgentSessionId);
+
+    /**
+     * Записує відповідь на терміновий запит, якщо користувач ще не відповідав (один запит)
+     * @return 1 якщо відповідь записано, 0 якщо вона вже була
+     */
+    @Modifying
+    @Query(value = "INSERT INTO urgent_responses (id, urgent_session_id, group_id, user_id, report_id, responded_at) " +
+                   "SELECT :id, :sessionId, :groupId, :userId, :reportId, :respondedAt FROM DUAL " +
+                   "WHERE NOT EXISTS (SELECT 1 FROM urgent_responses ur " +
+                   "WHERE ur.urgent_session_id = :sessionId AND ur.user_id = :userId)",
+           nativeQuery = true)
+    int insertIfNotResponded(@Param("id") String id,
+                             @Param("sessionId") String sessionId,
+                             @Param("groupId") String groupId,
+                             @Param("userId") String userId,
+                             @Param("reportId") String reportId,
+                             @Param("respondedAt") LocalDateTime respondedAt);
+
+    /**
+     * Знайти відповіді, пов'язані зі звітами (для архівації)
+     */
+    List<UrgentResponse> findByReportIdIn(Collection<String> reportIds);
+
+    /**
+     * Видалити відповіді, пов'язані зі звітами (після архівації)
+     */
+    @Modifying
+    @Query("DELETE FROM UrgentResponse u WHERE u.reportId IN :reportIds")
+    int deleteByReportIdIn(@Param("reportIds") Collection<String> reportIds);
+
+    /**
+     * Видаляє один пакет відповідей групи (для видалення групи частинами)
+     */
+    @Modifying
+    @Query(value = "DELETE FROM urgent_responses WHERE group_id = :groupId LIMIT :limit", nativeQuery = true)
+    int deleteChunkByGroupId(@Param("groupId") String groupId, @Param("limit") int limit);
 }
@@ -2,8 +2,13 @@ package com.zvit.repository;
 
 import com.zvit.entity.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
 import java.util.Optional;
 
 @Repository
@@ -14,4 +19,19 @@ public interface UserRepository extends JpaRepository<User, String> {
     boolean existsByPhoneHash(String phoneHash);
 
     boolean existsByEmailHash(String emailHash);
+
+    /**
+     * Оновлює час останнього входу (без завантаження сутності в транзакції логіну)
+     */
+    @Transactional
+    @Modifying
+    @Query("UPDATE User u SET u.lastLoginAt = :lastLoginAt WHERE u.id = :userId")
+    int updateLastLoginAt(@Param("userId") String userId, @Param("lastLoginAt") LocalDateTime lastLoginAt);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE User u SET u.passwordHash = :passwordHash, u.updatedAt = :updatedAt WHERE u.id = :userId")
+    int updatePasswordHash(@Param("userId") String userId,
+                           @Param("passwordHash") String passwordHash,
+                           @Param("updatedAt") LocalDateTime updatedAt);
 }
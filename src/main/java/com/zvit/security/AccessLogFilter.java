@@ -0,0 +1,317 @@
+package com.zvit.security;
+
+import com.fasterxml.jackson.core.io.JsonStringEncoder;
+import com.zvit.config.AccessLogConfig;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+import org.springframework.web.util.ContentCachingRequestWrapper;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Структурований access log: один рядок JSON на запит
+ * (метод, шаблон маршруту, статус, тривалість, розміри, користувач).
+ * Відповідь не буферизується - розмір рахується під час запису.
+ * Тіла логуються тільки для маршрутів з access-log.body-capture і тільки для вибірки запитів,
+ * з обмеженням розміру. Запис йде в логер "access" з асинхронним appender-ом,
+ * який при переповненні черги відкидає записи замість блокування запитів.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+@RequiredArgsConstructor
+public class AccessLogFilter extends OncePerRequestFilter {
+
+    private static final Logger ACCESS_LOG = LoggerFactory.getLogger("access");
+    private static final int MAX_PATH_LENGTH = 200;
+
+    private final AccessLogConfig config;
+    private final AntPathMatcher pathMatcher = new AntPathMatcher();
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        if (!config.isEnabled() || !ACCESS_LOG.isInfoEnabled()) {
+            return true;
+        }
+        String path = path(request);
+        for (String pattern : config.getExcludePaths()) {
+            if (pathMatcher.match(pattern, path)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+                                    HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+
+        AccessLogConfig.BodyCapture capture = sampleBodyCapture(request);
+        HttpServletRequest loggedRequest = capture != null
+                ? new ContentCachingRequestWrapper(request, capture.getMaxBytes())
+                : request;
+        CountingResponseWrapper loggedResponse = new CountingResponseWrapper(response,
+                capture != null ? capture.getMaxBytes() : 0);
+
+        long startNanos = System.nanoTime();
+        try {
+            filterChain.doFilter(loggedRequest, loggedResponse);
+        } finally {
+            loggedResponse.flushWriter();
+            long durationMicros = (System.nanoTime() - startNanos) / 1000;
+            ACCESS_LOG.info(format(loggedRequest, loggedResponse, durationMicros));
+        }
+    }
+
+    private String format(HttpServletRequest request, CountingResponseWrapper response, long durationMicros) {
+        StringBuilder json = new StringBuilder(256);
+        json.append('{');
+        field(json, "method", request.getMethod());
+        Object route = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        if (route != null) {
+            field(json, "route", route.toString());
+        } else {
+            // Маршрут не визначено (404, відмова фільтра) - сирий шлях, обрізаний
+            String path = path(request);
+            field(json, "path", path.length() > MAX_PATH_LENGTH ? path.substring(0, MAX_PATH_LENGTH) : path);
+        }
+        json.append(",\"status\":").append(response.getStatus());
+        json.append(",\"ms\":").append(durationMicros / 1000).append('.')
+                .append((char) ('0' + (durationMicros / 100) % 10));
+        json.append(",\"reqBytes\":").append(Math.max(0, request.getContentLengthLong()));
+        json.append(",\"respBytes\":").append(response.getBytesWritten());
+        Object userId = request.getAttribute(JwtAuthenticationFilter.USER_ID_ATTRIBUTE);
+        if (userId != null) {
+            field(json, "user", userId.toString());
+        }
+        field(json, "ip", getClientIp(request));
+        if (request instanceof ContentCachingRequestWrapper cachingRequest) {
+            field(json, "reqBody", new String(cachingRequest.getContentAsByteArray(), StandardCharsets.UTF_8));
+            field(json, "respBody", response.getCapturedBody());
+        }
+        json.append('}');
+        return json.toString();
+    }
+
+    private static void field(StringBuilder json, String name, String value) {
+        if (json.length() > 1) {
+            json.append(',');
+        }
+        json.append('"').append(name).append("\":\"");
+        JsonStringEncoder.getInstance().quoteAsString(value, json);
+        json.append('"');
+    }
+
+    /**
+     * Правило логування тіл для запиту, якщо запит потрапив у вибірку
+     */
+    private AccessLogConfig.BodyCapture sampleBodyCapture(HttpServletRequest request) {
+        if (config.getBodyCapture().isEmpty()) {
+            return null;
+        }
+        String path = path(request);
+        String method = request.getMethod().toUpperCase(Locale.ROOT);
+        for (AccessLogConfig.BodyCapture capture : config.getBodyCapture()) {
+            if (!capture.getMethods().isEmpty() && !capture.getMethods().contains(method)) {
+                continue;
+            }
+            for (String pattern : capture.getPaths()) {
+                if (pathMatcher.match(pattern, path)) {
+                    return ThreadLocalRandom.current().nextDouble() < capture.getSampleRate() ? capture : null;
+                }
+            }
+        }
+        return null;
+    }
+
+    private static String path(HttpServletRequest request) {
+        return request.getRequestURI().substring(request.getContextPath().length());
+    }
+
+    /**
+     * Отримує реальний IP клієнта (враховуючи proxy)
+     */
+    private static String getClientIp(HttpServletRequest request) {
+        String xff = request.getHeader("X-Forwarded-For");
+        if (xff != null && !xff.isEmpty()) {
+            return xff.split(",")[0].trim();
+        }
+        String realIp = request.getHeader("X-Real-IP");
+        if (realIp != null && !realIp.isEmpty()) {
+            return realIp;
+        }
+        return request.getRemoteAddr();
+    }
+
+    /**
+     * Рахує байти відповіді під час запису (без буферизації).
+     * Для вибірки з логуванням тіла зберігає перші captureLimit байт.
+     */
+    private static final class CountingResponseWrapper extends HttpServletResponseWrapper {
+
+        private final int captureLimit;
+        private ByteArrayOutputStream captured;
+        private long bytesWritten;
+        private ServletOutputStream outputStream;
+        private PrintWriter writer;
+
+        CountingResponseWrapper(HttpServletResponse response, int captureLimit) {
+            super(response);
+            this.captureLimit = captureLimit;
+        }
+
+        @Override
+        public ServletOutputStream getOutputStream() throws IOException {
+            if (outputStream == null) {
+                outputStream = new CountingOutputStream(super.getOutputStream());
+            }
+            return outputStream;
+        }
+
+        @Override
+        public PrintWriter getWriter() throws IOException {
+            if (writer == null) {
+                writer = new PrintWriter(new CountingWriter(super.getWriter()));
+            }
+            return writer;
+        }
+
+        @Override
+        public void flushBuffer() throws IOException {
+            flushWriter();
+            super.flushBuffer();
+        }
+
+        void flushWriter() {
+            if (writer != null) {
+                writer.flush();
+            }
+        }
+
+        long getBytesWritten() {
+            return bytesWritten;
+        }
+
+        String getCapturedBody() {
+            return captured != null ? captured.toString(StandardCharsets.UTF_8) : "";
+        }
+
+        private void capture(byte[] bytes, int offset, int length) {
+            if (captureLimit == 0) {
+                return;
+            }
+            if (captured == null) {
+                captured = new ByteArrayOutputStream(Math.min(captureLimit, 512));
+            }
+            int remaining = captureLimit - captured.size();
+            if (remaining > 0) {
+                captured.write(bytes, offset, Math.min(remaining, length));
+            }
+        }
+
+        private final class CountingOutputStream extends ServletOutputStream {
+
+            private final ServletOutputStream delegate;
+
+            CountingOutputStream(ServletOutputStream delegate) {
+                this.delegate = delegate;
+            }
+
+            @Override
+            public void write(int b) throws IOException {
+                delegate.write(b);
+                bytesWritten++;
+                if (captureLimit > 0) {
+                    capture(new byte[] {(byte) b}, 0, 1);
+                }
+            }
+
+            @Override
+            public void write(byte[] bytes, int offset, int length) throws IOException {
+                delegate.write(bytes, offset, length);
+                bytesWritten += length;
+                capture(bytes, offset, length);
+            }
+
+            @Override
+            public void flush() throws IOException {
+                delegate.flush();
+            }
+
+            @Override
+            public void close() throws IOException {
+                delegate.close();
+            }
+
+            @Override
+            public boolean isReady() {
+                return delegate.isReady();
+            }
+
+            @Override
+            public void setWriteListener(WriteListener writeListener) {
+                delegate.setWriteListener(writeListener);
+            }
+        }
+
+        /**
+         * Рахує байти тексту в UTF-8 без кодування (сторінки Thymeleaf пишуться через Writer)
+         */
+        private final class CountingWriter extends Writer {
+
+            private final Writer delegate;
+
+            CountingWriter(Writer delegate) {
+                this.delegate = delegate;
+            }
+
+            @Override
+            public void write(char[] chars, int offset, int length) throws IOException {
+                delegate.write(chars, offset, length);
+                for (int i = offset; i < offset + length; i++) {
+                    char c = chars[i];
+                    bytesWritten += c < 0x80 ? 1 : c < 0x800 || Character.isSurrogate(c) ? 2 : 3;
+                }
+            }
+
+            @Override
+            public void write(String text, int offset, int length) throws IOException {
+                delegate.write(text, offset, length);
+                for (int i = offset; i < offset + length; i++) {
+                    char c = text.charAt(i);
+                    bytesWritten += c < 0x80 ? 1 : c < 0x800 || Character.isSurrogate(c) ? 2 : 3;
+                }
+            }
+
+            @Override
+            public void flush() throws IOException {
+                delegate.flush();
+            }
+
+            @Override
+            public void close() throws IOException {
+                delegate.close();
+            }
+        }
+    }
+}
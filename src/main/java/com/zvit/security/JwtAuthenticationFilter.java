@@ -1,6 +1,8 @@
 package com.zvit.security;
 
 import com.zvit.service.JwtService;
+import com.zvit.service.SessionKeyService;
+import com.zvit.service.TokenRevocationService;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -24,7 +26,12 @@ import java.util.Collections;
 @RequiredArgsConstructor
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
+    /** Атрибут запиту з ID аутентифікованого користувача (для access log) */
+    public static final String USER_ID_ATTRIBUTE = JwtAuthenticationFilter.class.getName() + ".userId";
+
     private final JwtService jwtService;
+    private final SessionKeyService sessionKeyService;
+    private final TokenRevocationService tokenRevocationService;
 
     @Override
     protected void doFilterInternal(
@@ -46,14 +53,27 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
             // 3. Витягти токен
             String token = authHeader.substring(7);
             
-            // 4. Витягти userId з токену
-            String userId = jwtService.extractUserId(token);
+            // 4. Перевірити токен (один розбір з перевіркою підпису та терміну дії, повторно - з кешу)
+            JwtService.VerifiedToken verified = jwtService.verify(token);
+            String userId = verified.userId();
             
             // 5. Якщо userId існує і користувач ще не аутентифікований
             if (userId != null && SecurityContextHolder.getContext().getAuthentication() == null) {
                 
-                // 6. Валідувати токен
-                if (jwtService.validateToken(token, userId)) {
+                // 6. Токен з сесійним ключем, якого вже немає (напр. після рестарту) - потрібен повторний логін
+                String tokenId = verified.tokenId();
+                boolean sessionKeyLost = verified.sessionKey()
+                        && sessionKeyService.findSessionKey(tokenId).isEmpty();
+
+                // Відкликаний токен (logout) - перевірка в пам'яті, без БД
+                boolean revoked = tokenRevocationService.isRevoked(tokenId);
+
+                if (!sessionKeyLost && !revoked) {
+
+                    // Сесійний ключ для шифрування цього запиту
+                    if (verified.sessionKey()) {
+                        request.setAttribute(SessionKeyService.TOKEN_ID_ATTRIBUTE, tokenId);
+                    }
                     
                     // 7. Створити Authentication об'єкт
                     UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
@@ -66,6 +86,7 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
                     
                     // 8. Встановити в SecurityContext
                     SecurityContextHolder.getContext().setAuthentication(authToken);
+                    request.setAttribute(USER_ID_ATTRIBUTE, userId);
                 }
             }
             
@@ -11,14 +11,18 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
 
 /**
- * Фільтр для rate limiting на auth endpoints.
- * Захищає від brute force атак на логін та реєстрацію.
+ * Фільтр для rate limiting всіх API маршрутів.
+ * Виконується після JwtAuthenticationFilter: для автентифікованих запитів
+ * ліміт рахується на користувача, для решти - на IP.
  */
 @Slf4j
 @Component
@@ -28,42 +32,41 @@ public class RateLimitFilter extends OncePerRequestFilter {
     private final RateLimitService rateLimitService;
     private final ObjectMapper objectMapper;
 
-    private static final String LOGIN_PATH = "/api/v1/auth/login";
-    private static final String REGISTER_PATH = "/api/v1/auth/register";
-
     @Override
     protected void doFilterInternal(HttpServletRequest request,
                                     HttpServletResponse response,
                                     FilterChain filterChain) throws ServletException, IOException {
 
-        String path = request.getRequestURI();
-        String method = request.getMethod();
-
-        // Перевіряємо тільки POST запити на login/register
-        if (!"POST".equalsIgnoreCase(method)) {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        String route = rateLimitService.matchRoute(request.getMethod(), path);
+        if (route == null) {
             filterChain.doFilter(request, response);
             return;
         }
 
-        String clientIp = getClientIp(request);
-
-        if (LOGIN_PATH.equals(path)) {
-            if (!rateLimitService.isLoginAllowed(clientIp)) {
-                sendRateLimitResponse(response, clientIp, true);
-                return;
-            }
-            rateLimitService.recordLoginAttempt(clientIp);
-        } else if (REGISTER_PATH.equals(path)) {
-            if (!rateLimitService.isRegisterAllowed(clientIp)) {
-                sendRateLimitResponse(response, clientIp, false);
-                return;
-            }
-            rateLimitService.recordRegisterAttempt(clientIp);
+        String clientKey = getClientKey(request, route);
+        long waitMs = rateLimitService.tryAcquire(route, clientKey);
+        if (waitMs > 0) {
+            sendRateLimitResponse(response, route, clientKey, waitMs);
+            return;
         }
 
         filterChain.doFilter(request, response);
     }
 
+    /**
+     * Ідентифікатор клієнта для маршруту: ID користувача або IP
+     */
+    private String getClientKey(HttpServletRequest request, String route) {
+        if (rateLimitService.isKeyedByPrincipal(route)) {
+            Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+            if (auth != null && auth.isAuthenticated() && !(auth instanceof AnonymousAuthenticationToken)) {
+                return "u:" + auth.getName();
+            }
+        }
+        return "ip:" + getClientIp(request);
+    }
+
     /**
      * Отримує реальний IP клієнта (враховуючи proxy)
      */
@@ -87,22 +90,22 @@ public class RateLimitFilter extends OncePerRequestFilter {
     /**
      * Відправляє відповідь про перевищення ліміту
      */
-    private void sendRateLimitResponse(HttpServletResponse response, String ip, boolean isLogin)
+    private void sendRateLimitResponse(HttpServletResponse response, String route, String clientKey, long waitMs)
             throws IOException {
 
-        long secondsUntilUnblock = rateLimitService.getSecondsUntilUnblock(ip, isLogin);
+        long retryAfterSeconds = Math.max(1, (waitMs + 999) / 1000);
         String message = String.format(
-            "Занадто багато спроб. Спробуйте через %d секунд.",
-            secondsUntilUnblock
+            "Занадто багато запитів. Спробуйте через %d секунд.",
+            retryAfterSeconds
         );
 
-        log.warn("Rate limit exceeded for IP: {} on {} endpoint. Blocked for {} seconds.",
-                ip, isLogin ? "login" : "register", secondsUntilUnblock);
+        log.warn("Rate limit exceeded for {} on {} route. Retry after {} seconds.",
+                clientKey, route, retryAfterSeconds);
 
         response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
         response.setContentType(MediaType.APPLICATION_JSON_VALUE);
         response.setCharacterEncoding("UTF-8");
-        response.setHeader("Retry-After", String.valueOf(secondsUntilUnblock));
+        response.setHeader("Retry-After", String.valueOf(retryAfterSeconds));
 
         ApiResponse<Void> apiResponse = ApiResponse.error(message);
         objectMapper.writeValue(response.getOutputStream(), apiResponse);
@@ -0,0 +1,74 @@
+package com.zvit.security;
+
+import com.zvit.config.SlowRequestConfig;
+import com.zvit.config.SqlStatementCollector;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+
+/**
+ * Профілювання повільних запитів: якщо запит триває довше за slow-request.latency-threshold-ms
+ * або виконує більше slow-request.statement-threshold SQL запитів - в лог пишеться
+ * кількість і сумарний час SQL та найдорожчі нормалізовані запити.
+ * Швидкі запити нічого не логують.
+ */
+@Slf4j
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 1)
+@RequiredArgsConstructor
+public class SlowRequestFilter extends OncePerRequestFilter {
+
+    private final SlowRequestConfig config;
+    private final SqlStatementCollector collector;
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !config.isEnabled();
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+                                    HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+
+        SqlStatementCollector.RequestStatements statements = collector.start();
+        long startNanos = System.nanoTime();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            collector.finish();
+            long durationMs = (System.nanoTime() - startNanos) / 1_000_000;
+            if (durationMs >= config.getLatencyThresholdMs()
+                    || statements.getCount() >= config.getStatementThreshold()) {
+                log.warn(report(request, response, durationMs, statements));
+            }
+        }
+    }
+
+    private String report(HttpServletRequest request, HttpServletResponse response,
+                          long durationMs, SqlStatementCollector.RequestStatements statements) {
+        Object route = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        StringBuilder report = new StringBuilder(512);
+        report.append("Slow request ").append(request.getMethod()).append(' ')
+                .append(route != null ? route : request.getRequestURI())
+                .append(" -> ").append(response.getStatus())
+                .append(": ").append(durationMs).append(" ms, SQL ")
+                .append(statements.getCount()).append(" statements / ")
+                .append(statements.getTotalNanos() / 1_000_000).append(" ms");
+        for (SqlStatementCollector.StatementStats stats : statements.top(config.getTopStatements())) {
+            report.append(String.format("%n    %5dx %9.1f ms  %s",
+                    stats.count(), stats.totalNanos() / 1_000_000.0, stats.sql()));
+        }
+        return report.toString();
+    }
+}
@@ -0,0 +1,56 @@
+package com.zvit.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Спільна частина реалізацій CacheInvalidationBus: підписники та відкладена до коміту публікація
+ */
+@Slf4j
+abstract class AbstractCacheInvalidationBus implements CacheInvalidationBus {
+
+    private final Map<String, List<Listener>> listeners = new ConcurrentHashMap<>();
+
+    @Override
+    public void publish(String cache, String key) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    send(cache, key);
+                }
+            });
+        } else {
+            send(cache, key);
+        }
+    }
+
+    @Override
+    public void subscribe(String cache, Listener listener) {
+        listeners.computeIfAbsent(cache, name -> new CopyOnWriteArrayList<>()).add(listener);
+    }
+
+    /**
+     * Відправляє подію після коміту (або одразу, якщо транзакції немає)
+     */
+    protected abstract void send(String cache, String key);
+
+    /**
+     * Передає подію локальним підписникам
+     */
+    protected void deliver(String cache, String key) {
+        for (Listener listener : listeners.getOrDefault(cache, List.of())) {
+            try {
+                listener.invalidate(key);
+            } catch (Exception e) {
+                log.error("Cache invalidation listener failed: cache={}, key={}", cache, key, e);
+            }
+        }
+    }
+}
@@ -17,11 +17,9 @@ import org.springframework.transaction.annotation.Transactional;
 
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
-import java.time.LocalDateTime;
-import java.util.List;
-import java.util.Map;
+import java.time.Duration;
+import java.util.Optional;
 import java.util.UUID;
-import java.util.concurrent.ConcurrentHashMap;
 
 @Service
 @RequiredArgsConstructor
@@ -30,11 +28,14 @@ public class AdminService {
     private final GroupMemberRepository groupMemberRepository;
     private final ReportService reportService;
     private final EncryptionService encryptionService;
+    private final SharedStateStore sharedStateStore;
     
     @Value("${app.base-url:http://localhost:8080}")
     private String baseUrl;
 
-    private final Map<String, DashboardToken> dashboardTokens = new ConcurrentHashMap<>();
+    // Токени дашборду в спільному сховищі: посилання з QR-коду працює на будь-якому інстансі
+    private static final String DASHBOARD_TOKEN_NAMESPACE = "dashboard-token";
+    private static final Duration DASHBOARD_TOKEN_TTL = Duration.ofHours(24);
 
     public byte[] generateQRCode(String groupId, String userId) {
         if (!groupMemberRepository.isUserAdminOfGroup(groupId, userId)) {
@@ -64,44 +65,30 @@ public class AdminService {
 
     public String generateDashboardToken(String groupId, String userId) {
         String token = UUID.randomUUID().toString();
-        
-        dashboardTokens.put(token, new DashboardToken(
-            groupId, 
-            userId, 
-            LocalDateTime.now().plusHours(24)
-        ));
-        
+
+        sharedStateStore.put(DASHBOARD_TOKEN_NAMESPACE, token,
+            new DashboardToken(groupId, userId).serialize(), DASHBOARD_TOKEN_TTL);
+
         return token;
     }
 
     public GroupStatusesResponse getDashboardByToken(String token) {
-        DashboardToken dashboardToken = dashboardTokens.get(token);
-
-        if (dashboardToken == null) {
-            throw new RuntimeException("Невалідний токен");
-        }
-
-        if (dashboardToken.expiresAt.isBefore(LocalDateTime.now())) {
-            dashboardTokens.remove(token);
-            throw new RuntimeException("Токен закінчився");
-        }
+        DashboardToken dashboardToken = findDashboardToken(token)
+            .orElseThrow(() -> new RuntimeException("Невалідний або закінчений токен"));
 
         return reportService.getGroupStatuses(
-            dashboardToken.groupId,
-            dashboardToken.userId
+            dashboardToken.groupId(),
+            dashboardToken.userId()
         );
     }
 
     @Transactional(readOnly = true)
     public GroupMemberResponse getMemberDetails(String userId, String token) {
-        DashboardToken dashboardToken = dashboardTokens.get(token);
-        
-        if (dashboardToken == null || dashboardToken.expiresAt.isBefore(LocalDateTime.now())) {
-            throw new RuntimeException("Невалідний або закінчений токен");
-        }
+        DashboardToken dashboardToken = findDashboardToken(token)
+            .orElseThrow(() -> new RuntimeException("Невалідний або закінчений токен"));
 
         GroupMember member = groupMemberRepository
-            .findByGroupIdAndUserId(dashboardToken.groupId, userId)
+            .findByGroupIdAndUserId(dashboardToken.groupId(), userId)
             .orElseThrow(() -> new RuntimeException("Користувач не знайдений в групі"));
 
         String decryptedPhone = encryptionService.decrypt(member.getUser().getPhoneEncrypted());
@@ -115,15 +102,22 @@ public class AdminService {
             .build();
     }
 
-    private static class DashboardToken {
-        String groupId;
-        String userId;
-        LocalDateTime expiresAt;
+    private Optional<DashboardToken> findDashboardToken(String token) {
+        if (token == null) {
+            return Optional.empty();
+        }
+        return sharedStateStore.get(DASHBOARD_TOKEN_NAMESPACE, token).map(DashboardToken::parse);
+    }
+
+    private record DashboardToken(String groupId, String userId) {
+
+        String serialize() {
+            return groupId + ":" + userId;
+        }
 
-        DashboardToken(String groupId, String userId, LocalDateTime expiresAt) {
-            this.groupId = groupId;
-            this.userId = userId;
-            this.expiresAt = expiresAt;
+        static DashboardToken parse(String value) {
+            int separator = value.indexOf(':');
+            return new DashboardToken(value.substring(0, separator), value.substring(separator + 1));
         }
     }
 }
\ No newline at end of file
@@ -10,9 +10,7 @@ import com.zvit.exception.BusinessException;
 import com.zvit.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 
 import java.nio.charset.StandardCharsets;
 import java.security.MessageDigest;
@@ -26,26 +24,30 @@ import java.util.UUID;
 public class AuthService {
 
     private final UserRepository userRepository;
-    private final PasswordEncoder passwordEncoder;
+    private final PasswordHashingService passwordHashingService;
     private final JwtService jwtService;
     private final EncryptionService encryptionService;
     private final RSAKeyService rsaKeyService;
     private final ResponseEncryptionService responseEncryptionService;
     private final FirebaseService firebaseService;
+    private final SessionKeyService sessionKeyService;
+    private final TokenRevocationService tokenRevocationService;
 
-    @Transactional
+    /**
+     * Без спільної транзакції: хешування паролю (BCrypt в окремому пулі) не тримає з'єднання з БД
+     */
     public RegisterResponse register(RegisterRequest request) {
         log.info("🔓 AuthService.register - Starting RSA decryption...");
         log.info("   Input phone length: {}, isEncrypted: {}",
             request.getPhone().length(), rsaKeyService.isEncrypted(request.getPhone()));
 
-        // Дешифруємо RSA-зашифровані дані (якщо вони зашифровані)
-        String phone = rsaKeyService.decryptIfEncrypted(request.getPhone());
-        String password = rsaKeyService.decryptIfEncrypted(request.getPassword());
-        String name = rsaKeyService.decryptIfEncrypted(request.getName());
-        String email = request.getEmail() != null
-                ? rsaKeyService.decryptIfEncrypted(request.getEmail())
-                : null;
+        // Дешифруємо RSA-зашифровані дані (якщо вони зашифровані) - паралельно
+        String[] decrypted = rsaKeyService.fieldDecryptor(request).decryptAll(
+                request.getPhone(), request.getPassword(), request.getName(), request.getEmail());
+        String phone = decrypted[0];
+        String password = decrypted[1];
+        String name = decrypted[2];
+        String email = decrypted[3];
 
         log.info("   ✅ Decrypted phone: {}", phone);
         log.info("   ✅ Decrypted password length: {}", password.length());
@@ -77,13 +79,15 @@ public class AuthService {
             throw new BusinessException("Користувач з таким email вже існує");
         }
 
+        String passwordHash = passwordHashingService.encode(password);
+
         User user = User.builder()
                 .id(UUID.randomUUID().toString())
                 .phoneHash(phoneHash)
                 .phoneEncrypted(phoneEncrypted)
                 .emailHash(emailHash)
                 .emailEncrypted(emailEncrypted)
-                .passwordHash(passwordEncoder.encode(password))
+                .passwordHash(passwordHash)
                 .name(name)
                 .phoneVerified(false)
                 .emailVerified(false)
@@ -101,7 +105,9 @@ public class AuthService {
                 .build();
     }
 
-    @Transactional
+    /**
+     * Без спільної транзакції: перевірка паролю (BCrypt в окремому пулі) не тримає з'єднання з БД
+     */
     public LoginResponse login(LoginRequest request) {
         log.info("🔓 AuthService.login - Starting RSA decryption...");
         log.info("   Input phone length: {}, isEncrypted: {}",
@@ -109,9 +115,17 @@ public class AuthService {
         log.info("   Input password length: {}, isEncrypted: {}",
             request.getPassword().length(), rsaKeyService.isEncrypted(request.getPassword()));
 
-        // Дешифруємо RSA-зашифровані дані (якщо вони зашифровані)
-        String phone = rsaKeyService.decryptIfEncrypted(request.getPhone());
-        String password = rsaKeyService.decryptIfEncrypted(request.getPassword());
+        // Сесійний ключ - якщо клієнт підтримує AES-GCM сесію.
+        // Ключ передається тільки зашифрованим публічним ключем клієнта, тому без нього сесію не відкриваємо
+        boolean sessionMode = SessionKeyService.CIPHER_AES_GCM.equals(request.getSessionCipher());
+        if (sessionMode && (request.getClientPublicKey() == null || request.getClientPublicKey().isEmpty())) {
+            throw new BusinessException("Для сесійного шифрування потрібен публічний ключ клієнта");
+        }
+
+        // Дешифруємо RSA-зашифровані дані (якщо вони зашифровані) - паралельно
+        String[] decrypted = rsaKeyService.fieldDecryptor(request).decryptAll(request.getPhone(), request.getPassword());
+        String phone = decrypted[0];
+        String password = decrypted[1];
 
         log.info("   ✅ Decrypted phone: {}", phone);
         log.info("   ✅ Decrypted password length: {}", password.length());
@@ -127,7 +141,7 @@ public class AuthService {
 
         log.info("   ✅ User found: {}, name: {}", user.getId(), user.getName());
 
-        if (!passwordEncoder.matches(password, user.getPasswordHash())) {
+        if (!passwordHashingService.matches(password, user.getPasswordHash())) {
             log.error("   ❌ Password mismatch!");
             throw new BusinessException("Невірний телефон або пароль");
         }
@@ -138,10 +152,20 @@ public class AuthService {
             throw new BusinessException("Обліковий запис деактивовано");
         }
 
-        user.setLastLoginAt(LocalDateTime.now());
-        userRepository.save(user);
+        userRepository.updateLastLoginAt(user.getId(), LocalDateTime.now());
 
-        String jwtToken = jwtService.generateToken(user.getId(), phone);
+        // Вартість BCrypt змінилась - перераховуємо хеш, поки відомий пароль
+        if (passwordHashingService.needsRehash(user.getPasswordHash())) {
+            userRepository.updatePasswordHash(user.getId(), passwordHashingService.encode(password), LocalDateTime.now());
+            log.info("   Password rehashed with current BCrypt strength");
+        }
+
+        String tokenId = UUID.randomUUID().toString();
+        if (sessionMode) {
+            sessionKeyService.createSessionKey(tokenId, jwtService.nextExpirationMillis());
+        }
+
+        String jwtToken = jwtService.generateToken(user.getId(), phone, tokenId, sessionMode);
 
         // Дешифрувати телефон для відповіді
         String decryptedPhone = encryptionService.decrypt(user.getPhoneEncrypted());
@@ -159,10 +183,25 @@ public class AuthService {
                 .email(decryptedEmail)
                 .serverTime(LocalDateTime.now())  // Серверний час для синхронізації
                 .timezone("Europe/Kiev")          // Часова зона сервера
-                .encryptionKey(responseEncryptionService.getEncryptionKeyBase64()) // AES ключ для дешифрування
+                // Статичний AES ключ - тільки для старих клієнтів (в сесійному режимі ключ передається окремо)
+                .encryptionKey(sessionMode ? null : responseEncryptionService.getEncryptionKeyBase64())
+                .sessionCipher(sessionMode ? SessionKeyService.CIPHER_AES_GCM : null)
                 .build();
     }
 
+    /**
+     * Вихід: токен відкликається до закінчення дії, сесійний ключ видаляється
+     */
+    public void logout(String token) {
+        JwtService.VerifiedToken verified = jwtService.verify(token);
+        if (verified.tokenId() == null) {
+            log.warn("Logout with a token without jti, userId={}", verified.userId());
+            return;
+        }
+        tokenRevocationService.revoke(verified.tokenId(), verified.userId(), verified.expiresAtMillis());
+        sessionKeyService.removeSessionKey(verified.tokenId());
+    }
+
     public String test() {
         return "Auth API працює! Версія: 1.3 (JWT)";
     }
@@ -170,13 +209,13 @@ public class AuthService {
     /**
      * Скидання паролю через верифікацію Firebase
      */
-    @Transactional
     public void resetPassword(ResetPasswordRequest request) {
         log.info("🔑 AuthService.resetPassword - Starting password reset...");
 
         // Дешифруємо RSA-зашифровані дані
-        String phone = rsaKeyService.decryptIfEncrypted(request.getPhone());
-        String newPassword = rsaKeyService.decryptIfEncrypted(request.getNewPassword());
+        String[] decrypted = rsaKeyService.fieldDecryptor(request).decryptAll(request.getPhone(), request.getNewPassword());
+        String phone = decrypted[0];
+        String newPassword = decrypted[1];
 
         log.info("   Phone: {}", phone);
         log.info("   New password length: {}", newPassword.length());
@@ -215,9 +254,7 @@ public class AuthService {
                 });
 
         // Оновлюємо пароль
-        user.setPasswordHash(passwordEncoder.encode(newPassword));
-        user.setUpdatedAt(LocalDateTime.now());
-        userRepository.save(user);
+        userRepository.updatePasswordHash(user.getId(), passwordHashingService.encode(newPassword), LocalDateTime.now());
 
         log.info("   ✅ Password reset successful for user: {}", user.getId());
     }
@@ -0,0 +1,61 @@
+package com.zvit.service;
+
+import com.zvit.config.BulkDeleteConfig;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.function.IntUnaryOperator;
+import java.util.function.Supplier;
+
+/**
+ * Виконує set-based видалення частинами (DELETE ... LIMIT n) в окремих коротких транзакціях.
+ * Рядки не завантажуються в пам'ять, а кожна транзакція тримає блокування лише на один пакет.
+ */
+@Slf4j
+@Service
+public class BulkDeleteService {
+
+    private final BulkDeleteConfig config;
+    private final TransactionTemplate transactionTemplate;
+
+    public BulkDeleteService(BulkDeleteConfig config, PlatformTransactionManager transactionManager) {
+        this.config = config;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        // Кожен пакет - власна транзакція, навіть якщо виклик відбувається всередині іншої
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    /**
+     * Повторює видалення пакетами, доки пакет не виявиться неповним
+     * @param chunkDelete видалення одного пакета: приймає ліміт, повертає кількість видалених рядків
+     * @return загальна кількість видалених рядків
+     */
+    public int deleteInChunks(IntUnaryOperator chunkDelete) {
+        int batchSize = config.getBatchSize();
+        int total = 0;
+        int deleted;
+        do {
+            Integer result = transactionTemplate.execute(status -> chunkDelete.applyAsInt(batchSize));
+            deleted = result != null ? result : 0;
+            total += deleted;
+        } while (deleted >= batchSize);
+        return total;
+    }
+
+    /**
+     * Розмір одного пакета видалення
+     */
+    public int batchSize() {
+        return config.getBatchSize();
+    }
+
+    /**
+     * Виконує дію в окремій короткій транзакції
+     */
+    public <T> T inNewTransaction(Supplier<T> action) {
+        return transactionTemplate.execute(status -> action.get());
+    }
+}
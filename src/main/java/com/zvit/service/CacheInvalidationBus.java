@@ -0,0 +1,35 @@
+package com.zvit.service;
+
+/**
+ * Канал інвалідації локальних кешів між інстансами бекенду.
+ * Сервіс, що змінив сутність, публікує подію (кеш + ключ), і кожен інстанс
+ * прибирає свої локальні записи за цим ключем.
+ * Реалізація обирається cache-invalidation.type: local - тільки поточний інстанс,
+ * jdbc - таблиця cache_events з опитуванням. Брокер повідомлень можна підключити
+ * ще однією реалізацією цього інтерфейсу.
+ */
+public interface CacheInvalidationBus {
+
+    /** Сесійні ключі шифрування (ключ - ID токена) */
+    String SESSION_KEYS = "session-keys";
+
+    /**
+     * Публікує подію. Всередині транзакції подія відправляється тільки після коміту,
+     * щоб інші інстанси не перечитали ще старі дані.
+     * @param key ключ запису або null, якщо застарів весь кеш
+     */
+    void publish(String cache, String key);
+
+    /**
+     * Підписує локальний кеш на події (в тому числі опубліковані цим інстансом)
+     */
+    void subscribe(String cache, Listener listener);
+
+    @FunctionalInterface
+    interface Listener {
+        /**
+         * @param key ключ запису або null - очистити весь кеш
+         */
+        void invalidate(String key);
+    }
+}
@@ -0,0 +1,134 @@
+package com.zvit.service;
+
+import com.zvit.config.CryptoConfig;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import javax.crypto.KeyAgreement;
+import javax.crypto.Mac;
+import javax.crypto.SecretKey;
+import javax.crypto.spec.SecretKeySpec;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.KeyFactory;
+import java.security.PublicKey;
+import java.security.interfaces.XECPublicKey;
+import java.security.spec.NamedParameterSpec;
+import java.security.spec.X509EncodedKeySpec;
+import java.security.spec.XECPublicKeySpec;
+import java.util.Base64;
+
+/**
+ * ECIES на X25519 - альтернатива RSA-2048 для конверта запиту.
+ * Клієнт генерує ефемерну пару X25519, обчислює спільний секрет з публічним ключем сервера
+ * і виводить з нього AES-256 ключ через HKDF-SHA256:
+ * <pre>
+ *   secret = X25519(ephemeralPrivate, serverPublic)
+ *   key    = HKDF-SHA256(ikm = secret, salt = 32 нульових байти,
+ *                        info = "zvit-ecies-v1" || ephemeralPublic(32 байти) || serverPublic(32 байти), 32 байти)
+ * </pre>
+ * Ключ конверта передається як "x25519:" + [kid:] + Base64(ефемерний публічний ключ, 32 байти або X.509),
+ * де kid - id серверного ключа з кільця (KeyRingService); без kid використовується поточний ключ.
+ * поля шифруються AES-GCM цим ключем (див. EnvelopeEncryptedRequest).
+ * Операція узгодження ключа на порядок дешевша за дешифрування приватним ключем RSA-2048.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class EcKeyService {
+
+    /** Ідентифікатор алгоритму в ключі конверта та в /auth/public-key */
+    public static final String ALGORITHM_ID = "x25519";
+
+    private static final String ALGORITHM = "X25519";
+    private static final int KEY_LENGTH = 32;
+    private static final byte[] HKDF_INFO_PREFIX = "zvit-ecies-v1".getBytes(StandardCharsets.US_ASCII);
+
+    private final CryptoConfig cryptoConfig;
+    private final KeyRingService keyRingService;
+
+    public boolean isEnabled() {
+        return cryptoConfig.getEc().isEnabled();
+    }
+
+    /**
+     * Поточний публічний ключ сервера (X.509, Base64), null якщо EC вимкнено
+     */
+    public String getPublicKeyBase64() {
+        return isEnabled() ? keyRingService.current().x25519PublicBase64() : null;
+    }
+
+    /**
+     * Виводить AES ключ конверта з ефемерного публічного ключа клієнта
+     * @param ephemeralPublicKey [kid:] + 32 байти (raw) або X.509 у Base64
+     */
+    public SecretKey deriveKey(String ephemeralPublicKey) {
+        if (!isEnabled()) {
+            throw new RuntimeException("EC шифрування вимкнено");
+        }
+        KeyRingService.TaggedValue tagged = KeyRingService.parseTagged(ephemeralPublicKey);
+        KeyRingService.ServerKey serverKey = tagged.kid() != null
+                ? keyRingService.find(tagged.kid())
+                        .orElseThrow(() -> new RuntimeException("Невідомий ключ шифрування: " + tagged.kid()))
+                : keyRingService.current();
+        try {
+            byte[] encoded = Base64.getDecoder().decode(tagged.value());
+            PublicKey ephemeralKey = parsePublicKey(encoded);
+
+            KeyAgreement agreement = KeyAgreement.getInstance(ALGORITHM);
+            agreement.init(serverKey.x25519().getPrivate());
+            agreement.doPhase(ephemeralKey, true);
+            byte[] sharedSecret = agreement.generateSecret();
+
+            byte[] ephemeralRaw = toRaw((XECPublicKey) ephemeralKey);
+            byte[] info = new byte[HKDF_INFO_PREFIX.length + 2 * KEY_LENGTH];
+            System.arraycopy(HKDF_INFO_PREFIX, 0, info, 0, HKDF_INFO_PREFIX.length);
+            System.arraycopy(ephemeralRaw, 0, info, HKDF_INFO_PREFIX.length, KEY_LENGTH);
+            System.arraycopy(serverKey.x25519PublicRaw(), 0, info, HKDF_INFO_PREFIX.length + KEY_LENGTH, KEY_LENGTH);
+
+            return new SecretKeySpec(hkdfSha256(sharedSecret, info), "AES");
+        } catch (GeneralSecurityException | IllegalArgumentException e) {
+            log.warn("EC key agreement failed: {}", e.getMessage());
+            throw new RuntimeException("Помилка дешифрування даних", e);
+        }
+    }
+
+    private PublicKey parsePublicKey(byte[] encoded) throws GeneralSecurityException {
+        KeyFactory keyFactory = KeyFactory.getInstance(ALGORITHM);
+        if (encoded.length == KEY_LENGTH) {
+            // Raw u-координата (little-endian, RFC 7748)
+            byte[] bigEndian = new byte[KEY_LENGTH];
+            for (int i = 0; i < KEY_LENGTH; i++) {
+                bigEndian[i] = encoded[KEY_LENGTH - 1 - i];
+            }
+            return keyFactory.generatePublic(new XECPublicKeySpec(NamedParameterSpec.X25519, new BigInteger(1, bigEndian)));
+        }
+        return keyFactory.generatePublic(new X509EncodedKeySpec(encoded));
+    }
+
+    static byte[] toRaw(XECPublicKey key) {
+        byte[] bigEndian = key.getU().toByteArray();
+        byte[] raw = new byte[KEY_LENGTH];
+        // little-endian, без знакового байта BigInteger
+        for (int i = 0; i < KEY_LENGTH && i < bigEndian.length; i++) {
+            raw[i] = bigEndian[bigEndian.length - 1 - i];
+        }
+        return raw;
+    }
+
+    /**
+     * HKDF-SHA256 (RFC 5869) з нульовою сіллю, 32 байти результату
+     */
+    private static byte[] hkdfSha256(byte[] ikm, byte[] info) throws GeneralSecurityException {
+        Mac mac = Mac.getInstance("HmacSHA256");
+        mac.init(new SecretKeySpec(new byte[KEY_LENGTH], "HmacSHA256"));
+        byte[] prk = mac.doFinal(ikm);
+
+        mac.init(new SecretKeySpec(prk, "HmacSHA256"));
+        mac.update(info);
+        mac.update((byte) 1);
+        return mac.doFinal();
+    }
+}
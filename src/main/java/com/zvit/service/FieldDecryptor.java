@@ -0,0 +1,26 @@
+package com.zvit.service;
+
+/**
+ * Дешифрування полів одного запиту.
+ * Реалізація залежить від режиму, в якому клієнт зашифрував поля
+ * (окреме RSA на поле або AES-GCM конверт), див. RSAKeyService.fieldDecryptor.
+ */
+public interface FieldDecryptor {
+
+    /**
+     * Дешифрує значення (null та порожній рядок повертаються як є).
+     * Режим RSA повертає незашифроване значення як є, режим конверта кидає BusinessException
+     */
+    String decrypt(String value);
+
+    /**
+     * Дешифрує кілька значень, порядок зберігається
+     */
+    default String[] decryptAll(String... values) {
+        String[] result = new String[values.length];
+        for (int i = 0; i < values.length; i++) {
+            result[i] = decrypt(values[i]);
+        }
+        return result;
+    }
+}
@@ -5,17 +5,61 @@ import com.google.firebase.auth.FirebaseAuth;
 import com.google.firebase.auth.FirebaseAuthException;
 import com.google.firebase.auth.FirebaseToken;
 import com.google.firebase.messaging.*;
+import com.zvit.config.PushStubConfig;
+import com.zvit.jfr.PushFanoutEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
 
 @Service
 @Slf4j
 public class FirebaseService {
 
+    private final MeterRegistry meterRegistry;
+    private final PushStubConfig pushStubConfig;
+
+    /** Кількість отримувачів одного пакетного розсилання */
+    private final DistributionSummary fanoutSize;
+
+    private final Timer singleSendTimer;
+    private final Timer batchSendTimer;
+
+    public FirebaseService(MeterRegistry meterRegistry, PushStubConfig pushStubConfig) {
+        this.meterRegistry = meterRegistry;
+        this.pushStubConfig = pushStubConfig;
+        this.fanoutSize = DistributionSummary.builder("zvit.push.fanout")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.singleSendTimer = Timer.builder("zvit.push.send").tag("mode", "single")
+                .publishPercentileHistogram().register(meterRegistry);
+        this.batchSendTimer = Timer.builder("zvit.push.send").tag("mode", "batch")
+                .publishPercentileHistogram().register(meterRegistry);
+    }
+
+    /**
+     * Лічильник невдалих відправок за кодом помилки FCM
+     */
+    private void countFailures(FirebaseMessagingException e, int count) {
+        MessagingErrorCode code = e != null ? e.getMessagingErrorCode() : null;
+        countFailures(code != null ? code.name() : "UNKNOWN", count);
+    }
+
+    private void countFailures(String reason, int count) {
+        Counter.builder("zvit.push.failures")
+                .tag("reason", reason)
+                .register(meterRegistry)
+                .increment(count);
+    }
+
     /**
      * Перевіряє чи Firebase ініціалізовано
      */
@@ -23,6 +67,38 @@ public class FirebaseService {
         return !FirebaseApp.getApps().isEmpty();
     }
 
+    /**
+     * Чи можна відправляти сповіщення (FCM ініціалізовано або увімкнено заглушку шлюзу)
+     */
+    private boolean isPushAvailable() {
+        return pushStubConfig.isEnabled() || isFirebaseInitialized();
+    }
+
+    /**
+     * Заглушка шлюзу: затримка як у FCM, частина доставок невдала згідно firebase.stub.failure-rate
+     * @return кількість доставлених повідомлень
+     */
+    private int stubSend(int messages) {
+        long delayMicros = pushStubConfig.getLatencyMs() * 1000 + pushStubConfig.getPerMessageMicros() * messages;
+        try {
+            TimeUnit.MICROSECONDS.sleep(delayMicros);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        int failed = 0;
+        if (pushStubConfig.getFailureRate() > 0) {
+            for (int i = 0; i < messages; i++) {
+                if (ThreadLocalRandom.current().nextDouble() < pushStubConfig.getFailureRate()) {
+                    failed++;
+                }
+            }
+        }
+        if (failed > 0) {
+            countFailures(MessagingErrorCode.UNREGISTERED.name(), failed);
+        }
+        return messages - failed;
+    }
+
     /**
      * Відправляє Push-сповіщення на один пристрій
      */
@@ -34,7 +110,7 @@ public class FirebaseService {
      * Відправляє Push-сповіщення на один пристрій з додатковими даними
      */
     public boolean sendPushNotification(String fcmToken, String title, String body, Map<String, String> data) {
-        if (!isFirebaseInitialized()) {
+        if (!isPushAvailable()) {
             log.warn("Firebase not initialized - push notification skipped");
             return false;
         }
@@ -65,12 +141,22 @@ public class FirebaseService {
                 messageBuilder.putAllData(data);
             }
 
-            String response = FirebaseMessaging.getInstance().send(messageBuilder.build());
+            long startedAt = System.nanoTime();
+            String response;
+            try {
+                if (pushStubConfig.isEnabled()) {
+                    return stubSend(1) == 1;
+                }
+                response = FirebaseMessaging.getInstance().send(messageBuilder.build());
+            } finally {
+                singleSendTimer.record(System.nanoTime() - startedAt, TimeUnit.NANOSECONDS);
+            }
             log.debug("Push notification sent successfully: {}", response);
             return true;
 
         } catch (FirebaseMessagingException e) {
             log.error("Failed to send push notification: {}", e.getMessage());
+            countFailures(e, 1);
             // Якщо токен невалідний, потрібно видалити його з бази
             if (e.getMessagingErrorCode() == MessagingErrorCode.UNREGISTERED ||
                 e.getMessagingErrorCode() == MessagingErrorCode.INVALID_ARGUMENT) {
@@ -84,7 +170,7 @@ public class FirebaseService {
      * Відправляє Push-сповіщення на декілька пристроїв
      */
     public int sendPushNotificationToMultiple(List<String> fcmTokens, String title, String body, Map<String, String> data) {
-        if (!isFirebaseInitialized()) {
+        if (!isPushAvailable()) {
             log.warn("Firebase not initialized - push notifications skipped");
             return 0;
         }
@@ -125,20 +211,42 @@ public class FirebaseService {
             }
 
             // Відправляємо пакетом (до 500 за раз)
-            BatchResponse response = FirebaseMessaging.getInstance().sendEach(messages);
+            fanoutSize.record(messages.size());
+            PushFanoutEvent event = new PushFanoutEvent();
+            event.begin();
+            long startedAt = System.nanoTime();
+            BatchResponse response = null;
+            int successCount;
+            try {
+                if (pushStubConfig.isEnabled()) {
+                    successCount = stubSend(messages.size());
+                } else {
+                    response = FirebaseMessaging.getInstance().sendEach(messages);
+                    successCount = response.getSuccessCount();
+                }
+            } finally {
+                batchSendTimer.record(System.nanoTime() - startedAt, TimeUnit.NANOSECONDS);
+            }
+            int failureCount = messages.size() - successCount;
 
-            int successCount = response.getSuccessCount();
-            int failureCount = response.getFailureCount();
+            event.end();
+            if (event.shouldCommit()) {
+                event.recipients = messages.size();
+                event.succeeded = successCount;
+                event.failed = failureCount;
+                event.commit();
+            }
 
             log.info("Push notifications sent: {} success, {} failed", successCount, failureCount);
 
-            // Логуємо помилки
-            if (failureCount > 0) {
+            // Логуємо помилки (заглушка вже порахувала свої в stubSend)
+            if (response != null && failureCount > 0) {
                 List<SendResponse> responses = response.getResponses();
                 for (int i = 0; i < responses.size(); i++) {
                     SendResponse sendResponse = responses.get(i);
                     if (!sendResponse.isSuccessful()) {
                         FirebaseMessagingException exception = sendResponse.getException();
+                        countFailures(exception, 1);
                         if (exception != null) {
                             log.debug("Failed to send to token {}: {}", i, exception.getMessage());
                         }
@@ -150,6 +258,7 @@ public class FirebaseService {
 
         } catch (FirebaseMessagingException e) {
             log.error("Failed to send batch push notifications: {}", e.getMessage());
+            countFailures(e, validTokens.size());
             return 0;
         }
     }
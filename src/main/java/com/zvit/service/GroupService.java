@@ -1,5 +1,6 @@
 package com.zvit.service;
 
+import com.zvit.config.GroupConfig;
 import com.zvit.dto.request.AddMemberRequest;
 import com.zvit.dto.request.CreateGroupRequest;
 import com.zvit.dto.request.JoinGroupRequest;
@@ -7,34 +8,44 @@ import com.zvit.dto.response.GroupMemberResponse;
 import com.zvit.dto.response.GroupResponse;
 import com.zvit.entity.Group;
 import com.zvit.entity.GroupMember;
-import com.zvit.entity.Report;
 import com.zvit.entity.User;
+import com.zvit.repository.ArchivedReportRepository;
 import com.zvit.repository.GroupMemberRepository;
 import com.zvit.repository.GroupRepository;
 import com.zvit.repository.ReportRepository;
+import com.zvit.repository.UrgentResponseRepository;
 import com.zvit.repository.UserRepository;
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Clock;
 import java.time.LocalDateTime;
 import java.util.List;
-import java.util.Optional;
 import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 @Slf4j
+@Timed(value = "zvit.service.group", histogram = true)
 public class GroupService {
 
     private final GroupRepository groupRepository;
     private final GroupMemberRepository groupMemberRepository;
     private final UserRepository userRepository;
     private final ReportRepository reportRepository;
+    private final ArchivedReportRepository archivedReportRepository;
+    private final UrgentResponseRepository urgentResponseRepository;
     private final EncryptionService encryptionService;
     private final FirebaseService firebaseService;
+    private final BulkDeleteService bulkDeleteService;
+    private final GroupConfig groupConfig;
+    private final Clock clock;
 
     @Transactional
     public GroupResponse createGroup(CreateGroupRequest request, String userId) {
@@ -46,6 +57,7 @@ public class GroupService {
                 .maxMembers(request.getMaxMembers())
                 .reportType(request.getReportType())
                 .createdBy(userId)
+                .acceptedCount(1) // Адміністратор-створювач
                 .build();
 
         groupRepository.save(group);
@@ -64,15 +76,13 @@ public class GroupService {
 
     @Transactional(readOnly = true)
     public List<GroupResponse> getUserGroups(String userId) {
-        userRepository.findById(userId)
-                .orElseThrow(() -> new RuntimeException("Користувача не знайдено"));
-
-        List<GroupMember> memberships = groupMemberRepository.findByUserId(userId);
+        if (!userRepository.existsById(userId)) {
+            throw new RuntimeException("Користувача не знайдено");
+        }
 
-        // Фільтруємо тільки групи зі статусом ACCEPTED
-        return memberships.stream()
-                .filter(member -> member.getStatus() == GroupMember.MemberStatus.ACCEPTED)
-                .map(member -> mapToGroupResponse(member.getGroup(), member))
+        // Тільки групи зі статусом ACCEPTED - разом з часом останнього звіту, одним запитом
+        return groupMemberRepository.findAcceptedWithLastReport(userId).stream()
+                .map(row -> mapToGroupResponse(row.getMembership().getGroup(), row.getMembership(), row.getLastReportAt()))
                 .collect(Collectors.toList());
     }
 
@@ -90,6 +100,7 @@ public class GroupService {
     @Transactional
     public void addMemberToGroup(String groupId, AddMemberRequest request, String adminUserId) {
         Group group = groupRepository.findById(groupId)
+                .filter(found -> !found.isDeleting())
                 .orElseThrow(() -> new RuntimeException("Групу не знайдено"));
 
         GroupMember adminMember = groupMemberRepository.findByGroupIdAndUserId(groupId, adminUserId)
@@ -99,8 +110,8 @@ public class GroupService {
             throw new RuntimeException("Тільки адміністратор може додавати учасників");
         }
 
-        long currentMembers = groupMemberRepository.countByGroupId(groupId);
-        if (currentMembers >= group.getMaxMembers()) {
+        // Атомарна перевірка ліміту і резервування місця (відкочується разом з транзакцією)
+        if (groupRepository.reserveAcceptedSlot(groupId) == 0) {
             throw new RuntimeException("Досягнуто максимальну кількість учасників");
         }
 
@@ -124,6 +135,7 @@ public class GroupService {
     @Transactional
     public GroupResponse joinGroupByAccessCode(JoinGroupRequest request, String userId) {
         Group group = groupRepository.findByAccessCode(request.getAccessCode())
+                .filter(found -> !found.isDeleting())
                 .orElseThrow(() -> new RuntimeException("Групу з таким кодом не знайдено"));
 
         User user = userRepository.findById(userId)
@@ -133,8 +145,8 @@ public class GroupService {
             throw new RuntimeException("Ви вже є учасником цієї групи");
         }
 
-        long currentMembers = groupMemberRepository.countByGroupId(group.getId());
-        if (currentMembers >= group.getMaxMembers()) {
+        // Атомарна перевірка ліміту і резервування місця (відкочується разом з транзакцією)
+        if (groupRepository.reservePendingSlot(group.getId()) == 0) {
             throw new RuntimeException("Досягнуто максимальну кількість учасників");
         }
 
@@ -147,7 +159,10 @@ public class GroupService {
 
         groupMemberRepository.save(newMember);
 
-        return mapToGroupResponse(group, newMember);
+        GroupResponse response = mapToGroupResponse(group, newMember);
+        // Лічильники в завантаженій сутності застаріли після атомарного UPDATE - перечитуємо з БД
+        response.setCurrentMembers(groupRepository.findMemberCount(group.getId()));
+        return response;
     }
 
     @Transactional(readOnly = true)
@@ -185,6 +200,7 @@ public class GroupService {
                 .orElseThrow(() -> new RuntimeException("Учасника не знайдено в групі"));
 
         groupMemberRepository.delete(memberToRemove);
+        releaseSlot(groupId, memberToRemove);
     }
 
     @Transactional
@@ -195,7 +211,7 @@ public class GroupService {
         GroupMember member = groupMemberRepository.findByGroupIdAndUserId(groupId, userId)
                 .orElseThrow(() -> new RuntimeException("Ви не є учасником цієї групи"));
 
-        long currentMembers = groupMemberRepository.countByGroupId(groupId);
+        int currentMembers = group.getMemberCount();
         
         if (member.getRole() == GroupMember.Role.ADMIN && currentMembers > 1) {
             throw new RuntimeException("Адміністратор не може вийти доки в групі є інші учасники");
@@ -205,10 +221,28 @@ public class GroupService {
 
         if (currentMembers == 1) {
             groupRepository.delete(group);
+        } else {
+            releaseSlot(groupId, member);
         }
     }
 
-    @Transactional
+    /**
+     * Звільняє місце учасника в лічильниках групи
+     */
+    private void releaseSlot(String groupId, GroupMember member) {
+        if (member.getStatus() == GroupMember.MemberStatus.PENDING) {
+            groupRepository.releasePendingSlot(groupId);
+        } else {
+            groupRepository.releaseAcceptedSlot(groupId);
+        }
+    }
+
+    /**
+     * Видаляє групу разом з усіма даними.
+     * Група спочатку позначається як та, що видаляється (нові учасники, звіти та архівація не приймаються),
+     * потім дані видаляються пакетами в коротких транзакціях (без завантаження рядків у пам'ять),
+     * тому видалення великої групи не тримає довгих блокувань.
+     */
     public void deleteGroup(String groupId, String userId) {
         Group group = groupRepository.findById(groupId)
                 .orElseThrow(() -> new RuntimeException("Групу не знайдено"));
@@ -220,16 +254,34 @@ public class GroupService {
             throw new RuntimeException("Тільки адміністратор може видалити групу");
         }
 
-        // Delete all reports in the group first (to avoid foreign key constraint)
-        List<Report> reports = reportRepository.findByGroup_IdOrderBySubmittedAtDesc(groupId);
-        reportRepository.deleteAll(reports);
-
-        // Delete all group members
-        List<GroupMember> members = groupMemberRepository.findByGroupId(groupId);
-        groupMemberRepository.deleteAll(members);
-
-        // Finally, delete the group
-        groupRepository.delete(group);
+        // Після позначки нові учасники і звіти не приймаються, а архіватор пропускає групу.
+        // Якщо видалення перерветься, позначка лишається і видалення можна повторити
+        bulkDeleteService.inNewTransaction(() -> groupRepository.markDeleting(group.getId()));
+
+        int reports = bulkDeleteService.deleteInChunks(
+                limit -> reportRepository.deleteChunkByGroupId(groupId, limit));
+        int archived = bulkDeleteService.deleteInChunks(
+                limit -> archivedReportRepository.deleteChunkByGroupId(groupId, limit));
+        bulkDeleteService.deleteInChunks(
+                limit -> urgentResponseRepository.deleteChunkByGroupId(groupId, limit));
+        int members = bulkDeleteService.deleteInChunks(
+                limit -> groupMemberRepository.deleteChunkByGroupId(groupId, limit));
+
+        // Залишки, що встигли з'явитися до позначки (звіт, що вже пройшов перевірку членства,
+        // батч архіватора), і сама група - однією транзакцією. Таких рядків одиниці, тому вистачає
+        // одного пакета; якщо їх більше, транзакція відкотиться на зовнішньому ключі і видалення можна повторити
+        bulkDeleteService.inNewTransaction(() -> {
+            int limit = bulkDeleteService.batchSize();
+            reportRepository.deleteChunkByGroupId(groupId, limit);
+            archivedReportRepository.deleteChunkByGroupId(groupId, limit);
+            urgentResponseRepository.deleteChunkByGroupId(groupId, limit);
+            groupMemberRepository.deleteChunkByGroupId(groupId, limit);
+            groupRepository.deleteById(group.getId());
+            return null;
+        });
+
+        log.info("Group {} deleted: {} members, {} reports, {} archived reports",
+                groupId, members, reports, archived);
     }
 
     @Transactional
@@ -443,6 +495,7 @@ public class GroupService {
         // Затверджуємо учасника
         pendingMember.setStatus(GroupMember.MemberStatus.ACCEPTED);
         groupMemberRepository.save(pendingMember);
+        groupRepository.promotePendingSlot(groupId);
     }
 
     @Transactional
@@ -465,6 +518,7 @@ public class GroupService {
 
         // Відхиляємо і видаляємо учасника
         groupMemberRepository.delete(pendingMember);
+        groupRepository.releasePendingSlot(groupId);
     }
 
     @Transactional
@@ -486,9 +540,19 @@ public class GroupService {
     }
 
     private GroupResponse mapToGroupResponse(Group group, GroupMember member) {
+        // Час останнього звіту користувача (гаряча таблиця, потім архів)
+        String userId = member.getUser().getId();
+        LocalDateTime lastReportAt = reportRepository.findLastSubmittedAt(group.getId(), userId)
+                .or(() -> archivedReportRepository.findLastSubmittedAt(group.getId(), userId))
+                .orElse(null);
+        return mapToGroupResponse(group, member, lastReportAt);
+    }
+
+    private GroupResponse mapToGroupResponse(Group group, GroupMember member, LocalDateTime lastReportAt) {
         boolean isAdmin = member.getRole() == GroupMember.Role.ADMIN;
         boolean isAccepted = member.getStatus() == GroupMember.MemberStatus.ACCEPTED;
-        long currentMembers = groupMemberRepository.countByGroupId(group.getId());
+        // Лічильник з самої групи - без COUNT по group_members
+        int currentMembers = group.getMemberCount();
 
         // Збираємо fixed times в список
         List<String> fixedTimes = new java.util.ArrayList<>();
@@ -498,16 +562,12 @@ public class GroupService {
         if (group.getFixedTime4() != null) fixedTimes.add(group.getFixedTime4());
         if (group.getFixedTime5() != null) fixedTimes.add(group.getFixedTime5());
 
-        // Отримуємо час останнього звіту користувача
-        Optional<Report> lastReport = reportRepository.findFirstByGroup_IdAndUser_IdOrderBySubmittedAtDesc(
-                group.getId(), member.getUser().getId());
-
         return GroupResponse.builder()
                 .groupId(group.getId())
                 .externalName(group.getExternalName())
                 .accessCode(isAdmin ? group.getAccessCode() : null)
                 .maxMembers(group.getMaxMembers())
-                .currentMembers((int) currentMembers)
+                .currentMembers(currentMembers)
                 .reportType(group.getReportType())
                 // userRole = null якщо статус PENDING (користувач ще не прийнятий)
                 .userRole(isAccepted ? member.getRole().name() : null)
@@ -518,8 +578,8 @@ public class GroupService {
                 .intervalStartTime(group.getIntervalStartTime())
                 .positiveWord(group.getPositiveWord())
                 .negativeWord(group.getNegativeWord())
-                .lastReportAt(lastReport.map(Report::getSubmittedAt).orElse(null))
-                .serverTime(java.time.LocalDateTime.now())  // Серверний час
+                .lastReportAt(lastReportAt)
+                .serverTime(LocalDateTime.now(clock))  // Серверний час
                 .timezone("Europe/Kiev")                    // Часова зона
                 .build();
     }
@@ -565,14 +625,28 @@ public class GroupService {
      * Scheduled task для видалення прострочених pending запитів (раз на годину)
      * Видаляє запити на приєднання до групи, які очікують більше 24 годин
      */
-    @Scheduled(fixedRate = 3600000) // 1 година в мілісекундах
-    @Transactional
+    @Scheduled(fixedRateString = "${group.cleanup-interval-ms:3600000}")
     public void cleanupExpiredPendingMembers() {
-        LocalDateTime cutoffTime = LocalDateTime.now().minusHours(24);
-        int deletedCount = groupMemberRepository.deleteExpiredPendingMembers(cutoffTime);
+        LocalDateTime cutoffTime = LocalDateTime.now(clock).minusHours(groupConfig.getPendingExpiryHours());
+        int deletedCount = bulkDeleteService.deleteInChunks(
+                limit -> groupMemberRepository.deleteExpiredPendingMembersChunk(cutoffTime, limit));
 
         if (deletedCount > 0) {
+            bulkDeleteService.inNewTransaction(groupRepository::recountPendingMembers);
             log.info("Видалено {} прострочених pending запитів на приєднання до груп", deletedCount);
         }
     }
+
+    /**
+     * Одноразове заповнення лічильників учасників при старті: торкається тільки груп,
+     * для яких лічильники ще не заповнені (нові колонки в існуючих групах)
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void backfillMemberCounters() {
+        int groups = groupRepository.backfillMemberCounters();
+        if (groups > 0) {
+            log.info("Лічильники учасників заповнено для {} груп", groups);
+        }
+    }
 }
\ No newline at end of file
@@ -0,0 +1,131 @@
+package com.zvit.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * SharedStateStore в пам'яті одного інстансу (shared-state.type=memory, за замовчуванням).
+ * Token bucket-и зберігаються в TokenBucketTable з колесом таймерів, решта записів -
+ * в мапах за простором імен з періодичним видаленням прострочених.
+ */
+@Slf4j
+@Service
+@ConditionalOnProperty(prefix = "shared-state", name = "type", havingValue = "memory", matchIfMissing = true)
+public class InMemorySharedStateStore implements SharedStateStore {
+
+    private static final long BUCKET_EXPIRE_INTERVAL_MS = 1000;
+
+    private final Map<String, Map<String, Entry>> namespaces = new ConcurrentHashMap<>();
+
+    private final TokenBucketTable buckets;
+    private final Map<String, Integer> bucketNamespaceIds = new ConcurrentHashMap<>();
+    private final AtomicInteger nextNamespaceId = new AtomicInteger();
+    private final long startNanos = System.nanoTime();
+
+    public InMemorySharedStateStore() {
+        this.buckets = new TokenBucketTable(monotonicMs());
+    }
+
+    @Override
+    public Optional<String> get(String namespace, String key) {
+        Map<String, Entry> entries = namespaces.get(namespace);
+        Entry entry = entries != null ? entries.get(key) : null;
+        if (entry == null || entry.isExpired(System.currentTimeMillis())) {
+            return Optional.empty();
+        }
+        return Optional.of(entry.value());
+    }
+
+    @Override
+    public Map<String, String> getAll(String namespace) {
+        Map<String, String> result = new HashMap<>();
+        long now = System.currentTimeMillis();
+        namespaces.getOrDefault(namespace, Map.of()).forEach((key, entry) -> {
+            if (!entry.isExpired(now)) {
+                result.put(key, entry.value());
+            }
+        });
+        return result;
+    }
+
+    @Override
+    public void put(String namespace, String key, String value, Duration ttl) {
+        entries(namespace).put(key, new Entry(value, System.currentTimeMillis() + ttl.toMillis()));
+    }
+
+    @Override
+    public boolean putIfAbsent(String namespace, String key, String value, Duration ttl) {
+        long now = System.currentTimeMillis();
+        Entry created = new Entry(value, now + ttl.toMillis());
+        Entry result = entries(namespace).merge(key, created,
+                (existing, candidate) -> existing.isExpired(now) ? candidate : existing);
+        return result == created;
+    }
+
+    @Override
+    public void remove(String namespace, String key) {
+        Map<String, Entry> entries = namespaces.get(namespace);
+        if (entries != null) {
+            entries.remove(key);
+        }
+    }
+
+    @Override
+    public long tryAcquire(String namespace, String key, RateLimit limit) {
+        Integer namespaceId = bucketNamespaceIds.get(namespace);
+        if (namespaceId == null) {
+            namespaceId = bucketNamespaceIds.computeIfAbsent(namespace, name -> nextNamespaceId.getAndIncrement());
+        }
+        long capacity = limit.capacity() * TokenBucketTable.TOKEN_SCALE;
+        // Округлення вгору: відро наповнюється не пізніше заявленого періоду
+        long refillPerMs = (limit.refillTokens() * TokenBucketTable.TOKEN_SCALE + limit.refillPeriodMs() - 1)
+                / limit.refillPeriodMs();
+        return buckets.tryAcquire(namespaceId, key, capacity, refillPerMs, monotonicMs());
+    }
+
+    /**
+     * Scheduled task для видалення відер, що знову наповнились
+     */
+    @Scheduled(fixedDelay = BUCKET_EXPIRE_INTERVAL_MS)
+    public void expireBuckets() {
+        int removed = buckets.expire(monotonicMs());
+        if (removed > 0) {
+            log.debug("Shared state: видалено {} відер, залишилось {}", removed, buckets.size());
+        }
+    }
+
+    /**
+     * Scheduled task для видалення прострочених записів
+     */
+    @Scheduled(fixedDelayString = "${shared-state.sweep-interval-ms:60000}")
+    public void sweepExpired() {
+        long now = System.currentTimeMillis();
+        namespaces.values().forEach(entries -> entries.values().removeIf(entry -> entry.isExpired(now)));
+    }
+
+    private Map<String, Entry> entries(String namespace) {
+        return namespaces.computeIfAbsent(namespace, name -> new ConcurrentHashMap<>());
+    }
+
+    /** Монотонний час для відер, щоб зміна системного годинника не обнуляла та не блокувала їх */
+    private long monotonicMs() {
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+    }
+
+    private record Entry(String value, long expiresAtMillis) {
+
+        boolean isExpired(long now) {
+            return expiresAtMillis <= now;
+        }
+    }
+}
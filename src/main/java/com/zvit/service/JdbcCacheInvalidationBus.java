@@ -0,0 +1,118 @@
+package com.zvit.service;
+
+import com.zvit.config.CacheInvalidationConfig;
+import com.zvit.entity.CacheEvent;
+import com.zvit.repository.CacheEventRepository;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * CacheInvalidationBus через таблицю cache_events (cache-invalidation.type=jdbc).
+ * Публікація - один INSERT; кожен інстанс опитує таблицю з позначкою останнього прочитаного id
+ * і передає чужі події локальним підписникам (свої доставляються одразу при публікації).
+ * Автоінкремент видається до коміту, тому транзакція з меншим id може закомітитись пізніше:
+ * пропущені id запам'ятовуються і перевіряються повторно протягом GAP_TIMEOUT_MS.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "cache-invalidation", name = "type", havingValue = "jdbc")
+public class JdbcCacheInvalidationBus extends AbstractCacheInvalidationBus {
+
+    private static final long GAP_TIMEOUT_MS = 30_000;
+    private static final int MAX_GAPS = 1000;
+
+    private final CacheEventRepository cacheEventRepository;
+    private final BulkDeleteService bulkDeleteService;
+    private final CacheInvalidationConfig config;
+
+    private final String nodeId = UUID.randomUUID().toString();
+
+    /** Останній прочитаний id */
+    private long highWaterMark;
+
+    /** Пропущені id -> час, коли пропуск помічено */
+    private final Map<Long, Long> gaps = new HashMap<>();
+
+    @PostConstruct
+    public void init() {
+        // Події до старту неактуальні: локальні кеші ще порожні
+        highWaterMark = cacheEventRepository.findMaxId().orElse(0L);
+        log.info("Cache invalidation bus (jdbc) ready: node={}, from id={}", nodeId, highWaterMark);
+    }
+
+    @Override
+    protected void send(String cache, String key) {
+        deliver(cache, key);
+        try {
+            bulkDeleteService.inNewTransaction(() -> cacheEventRepository.save(CacheEvent.builder()
+                    .cacheName(cache)
+                    .cacheKey(key)
+                    .origin(nodeId)
+                    .createdAt(LocalDateTime.now())
+                    .build()));
+        } catch (Exception e) {
+            // Зміна вже закомічена - інші інстанси побачать її після закінчення TTL своїх кешів
+            log.error("Failed to publish cache event: cache={}, key={}", cache, key, e);
+        }
+    }
+
+    /**
+     * Scheduled task: читає нові події та повторно перевіряє пропущені id
+     */
+    @Scheduled(fixedDelayString = "${cache-invalidation.poll-interval-ms:1000}")
+    public synchronized void poll() {
+        List<CacheEvent> events;
+        do {
+            events = cacheEventRepository.findByIdGreaterThanOrderByIdAsc(
+                    highWaterMark, PageRequest.of(0, config.getBatchSize()));
+            long now = System.currentTimeMillis();
+            for (CacheEvent event : events) {
+                for (long missing = highWaterMark + 1; missing < event.getId() && gaps.size() < MAX_GAPS; missing++) {
+                    gaps.put(missing, now);
+                }
+                highWaterMark = event.getId();
+                receive(event);
+            }
+        } while (events.size() >= config.getBatchSize());
+
+        if (!gaps.isEmpty()) {
+            for (CacheEvent event : cacheEventRepository.findByIdIn(gaps.keySet())) {
+                gaps.remove(event.getId());
+                receive(event);
+            }
+            long expired = System.currentTimeMillis() - GAP_TIMEOUT_MS;
+            gaps.values().removeIf(seenAt -> seenAt < expired);
+        }
+    }
+
+    /**
+     * Scheduled task для видалення старих подій
+     */
+    @Scheduled(fixedRateString = "${cache-invalidation.retention-ms:600000}")
+    public void cleanupOldEvents() {
+        LocalDateTime cutoff = LocalDateTime.now().minus(Duration.ofMillis(config.getRetentionMs()));
+        int deleted = bulkDeleteService.deleteInChunks(limit -> cacheEventRepository.deleteOlderThanChunk(cutoff, limit));
+        if (deleted > 0) {
+            log.debug("Removed {} old cache events", deleted);
+        }
+    }
+
+    private void receive(CacheEvent event) {
+        if (!nodeId.equals(event.getOrigin())) {
+            deliver(event.getCacheName(), event.getCacheKey());
+        }
+    }
+}
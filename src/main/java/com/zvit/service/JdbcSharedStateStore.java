@@ -0,0 +1,99 @@
+package com.zvit.service;
+
+import com.zvit.entity.SharedStateEntry;
+import com.zvit.repository.RateLimitBucketRepository;
+import com.zvit.repository.SharedStateRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * SharedStateStore в основній БД (shared-state.type=jdbc), спільний для всіх інстансів.
+ * Кожна операція - один короткий запит (upsert / INSERT IGNORE), без читання-зміни-запису в транзакції.
+ * Rate limiting реалізовано як GCRA: в рядку відра зберігається лише теоретичний час наступного
+ * запиту (tat), і дозвіл береться одним умовним UPDATE.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "shared-state", name = "type", havingValue = "jdbc")
+public class JdbcSharedStateStore implements SharedStateStore {
+
+    private final SharedStateRepository sharedStateRepository;
+    private final RateLimitBucketRepository rateLimitBucketRepository;
+    private final BulkDeleteService bulkDeleteService;
+
+    @Override
+    public Optional<String> get(String namespace, String key) {
+        return sharedStateRepository.findValue(namespace, key, System.currentTimeMillis());
+    }
+
+    @Override
+    public Map<String, String> getAll(String namespace) {
+        Map<String, String> result = new HashMap<>();
+        for (SharedStateEntry entry : sharedStateRepository.findActive(namespace, System.currentTimeMillis())) {
+            result.put(entry.getStateKey(), entry.getStateValue());
+        }
+        return result;
+    }
+
+    @Override
+    public void put(String namespace, String key, String value, Duration ttl) {
+        sharedStateRepository.upsert(namespace, key, value, System.currentTimeMillis() + ttl.toMillis());
+    }
+
+    @Override
+    public boolean putIfAbsent(String namespace, String key, String value, Duration ttl) {
+        long now = System.currentTimeMillis();
+        // Прострочений, але ще не видалений запис не повинен блокувати вставку
+        sharedStateRepository.deleteKeyIfExpired(namespace, key, now);
+        return sharedStateRepository.insertIfAbsent(namespace, key, value, now + ttl.toMillis()) > 0;
+    }
+
+    @Override
+    public void remove(String namespace, String key) {
+        sharedStateRepository.deleteKey(namespace, key);
+    }
+
+    @Override
+    public long tryAcquire(String namespace, String key, RateLimit limit) {
+        long now = System.currentTimeMillis();
+        long interval = Math.max(1, (limit.refillPeriodMs() + limit.refillTokens() - 1) / limit.refillTokens());
+        long window = interval * limit.capacity();
+
+        if (rateLimitBucketRepository.acquire(namespace, key, now, interval, window) > 0) {
+            return 0;
+        }
+        // Відра ще немає (повне) - створюємо з першим дозволом
+        if (rateLimitBucketRepository.insertIfAbsent(namespace, key, now + interval) > 0) {
+            return 0;
+        }
+        // Відро створив паралельний запит між UPDATE та INSERT
+        if (rateLimitBucketRepository.acquire(namespace, key, now, interval, window) > 0) {
+            return 0;
+        }
+        return rateLimitBucketRepository.findTat(namespace, key)
+                .map(tat -> Math.max(1, Math.max(tat, now) + interval - now - window))
+                .orElse(0L);
+    }
+
+    /**
+     * Scheduled task для видалення прострочених записів та повних відер
+     */
+    @Scheduled(fixedDelayString = "${shared-state.sweep-interval-ms:60000}")
+    public void sweepExpired() {
+        long now = System.currentTimeMillis();
+        int entries = bulkDeleteService.deleteInChunks(limit -> sharedStateRepository.deleteExpiredChunk(now, limit));
+        int buckets = bulkDeleteService.deleteInChunks(limit -> rateLimitBucketRepository.deleteExpiredChunk(now, limit));
+        if (entries > 0 || buckets > 0) {
+            log.debug("Shared state: видалено {} записів та {} відер", entries, buckets);
+        }
+    }
+}
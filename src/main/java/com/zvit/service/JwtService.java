@@ -1,16 +1,25 @@
 package com.zvit.service;
 
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.io.Decoders;
 import io.jsonwebtoken.security.Keys;
+import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import javax.crypto.SecretKey;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.Map;
+import java.util.UUID;
 import java.util.function.Function;
 
 @Service
@@ -22,30 +31,155 @@ public class JwtService {
     @Value("${jwt.expiration}")
     private Long expiration;
 
+    /** Максимум перевірених токенів у кеші (0 = кеш вимкнено) */
+    @Value("${jwt.verified-cache-size:10000}")
+    private int verifiedCacheSize;
+
+    private static final String SESSION_KEY_CLAIM = "sk";
+
+    /** Ключ та парсер створюються один раз (JwtParser потокобезпечний) */
+    private SecretKey signingKey;
+    private JwtParser parser;
+
+    /**
+     * Кеш перевірених токенів: SHA-256 токена -> claims.
+     * Повторні запити з тим самим токеном не перевіряють підпис заново; сам токен у пам'яті не зберігається.
+     * LRU (access-order LinkedHashMap): при переповненні витісняється найдавніше використаний токен за O(1).
+     * Доступ тільки під монітором самої мапи (get змінює порядок).
+     */
+    private Map<String, VerifiedToken> verifiedTokens;
+
+    private final ThreadLocal<MessageDigest> sha256 = ThreadLocal.withInitial(() -> {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    });
+
+    @PostConstruct
+    public void init() {
+        this.signingKey = Keys.hmacShaKeyFor(Decoders.BASE64.decode(secret));
+        this.parser = Jwts.parser().verifyWith(signingKey).build();
+        int capacity = Math.max(verifiedCacheSize, 0);
+        this.verifiedTokens = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, VerifiedToken> eldest) {
+                return size() > capacity;
+            }
+        };
+    }
+
+    /**
+     * Перевірені дані токена
+     */
+    public record VerifiedToken(String userId, String phone, String tokenId, boolean sessionKey, long expiresAtMillis) {
+
+        public boolean isExpired() {
+            return expiresAtMillis <= System.currentTimeMillis();
+        }
+    }
+
     public String generateToken(String userId, String phone) {
+        return generateToken(userId, phone, UUID.randomUUID().toString(), false);
+    }
+
+    /**
+     * Генерує токен з вказаним ID (jti)
+     * @param sessionKey чи прив'язаний до токена сесійний ключ шифрування
+     */
+    public String generateToken(String userId, String phone, String tokenId, boolean sessionKey) {
         Map<String, Object> claims = new HashMap<>();
         claims.put("userId", userId);
         claims.put("phone", phone);
-        
+        if (sessionKey) {
+            claims.put(SESSION_KEY_CLAIM, true);
+        }
+
         return Jwts.builder()
                 .claims(claims)
+                .id(tokenId)
                 .subject(userId)
                 .issuedAt(new Date())
                 .expiration(new Date(System.currentTimeMillis() + expiration))
-                .signWith(getSigningKey())
+                .signWith(signingKey)
                 .compact();
     }
 
+    /**
+     * Час закінчення дії токена, що буде виданий зараз (мс)
+     */
+    public long nextExpirationMillis() {
+        return System.currentTimeMillis() + expiration;
+    }
+
+    /**
+     * Перевіряє підпис та термін дії токена (один розбір токена, далі - з кешу)
+     * @throws io.jsonwebtoken.JwtException якщо токен невалідний або прострочений
+     */
+    public VerifiedToken verify(String token) {
+        String digest = digest(token);
+        VerifiedToken cached;
+        synchronized (verifiedTokens) {
+            cached = verifiedTokens.get(digest);
+            if (cached != null && cached.isExpired()) {
+                verifiedTokens.remove(digest);
+            }
+        }
+        if (cached != null) {
+            if (!cached.isExpired()) {
+                return cached;
+            }
+            throw new ExpiredJwtException(null, null, "JWT expired");
+        }
+
+        Claims claims = extractAllClaims(token);
+        Date expiresAt = claims.getExpiration();
+        VerifiedToken verified = new VerifiedToken(
+                claims.get("userId", String.class),
+                claims.get("phone", String.class),
+                claims.getId(),
+                Boolean.TRUE.equals(claims.get(SESSION_KEY_CLAIM, Boolean.class)),
+                expiresAt != null ? expiresAt.getTime() : Long.MAX_VALUE);
+        cache(digest, verified);
+        return verified;
+    }
+
+    private void cache(String digest, VerifiedToken verified) {
+        if (verifiedCacheSize <= 0) {
+            return;
+        }
+        synchronized (verifiedTokens) {
+            verifiedTokens.put(digest, verified);
+        }
+    }
+
+    private String digest(String token) {
+        byte[] hash = sha256.get().digest(token.getBytes(StandardCharsets.US_ASCII));
+        return Base64.getEncoder().encodeToString(hash);
+    }
+
     public String extractUserId(String token) {
-        return extractClaim(token, claims -> claims.get("userId", String.class));
+        return verify(token).userId();
     }
 
     public String extractPhone(String token) {
-        return extractClaim(token, claims -> claims.get("phone", String.class));
+        return verify(token).phone();
+    }
+
+    public String extractTokenId(String token) {
+        return verify(token).tokenId();
+    }
+
+    /**
+     * Чи прив'язаний до токена сесійний ключ шифрування
+     */
+    public boolean hasSessionKey(String token) {
+        return verify(token).sessionKey();
     }
 
     public Date extractExpiration(String token) {
-        return extractClaim(token, Claims::getExpiration);
+        return new Date(verify(token).expiresAtMillis());
     }
 
     public <T> T extractClaim(String token, Function<Claims, T> claimsResolver) {
@@ -54,24 +188,11 @@ public class JwtService {
     }
 
     private Claims extractAllClaims(String token) {
-        return Jwts.parser()
-                .verifyWith(getSigningKey())
-                .build()
-                .parseSignedClaims(token)
-                .getPayload();
-    }
-
-    private Boolean isTokenExpired(String token) {
-        return extractExpiration(token).before(new Date());
+        return parser.parseSignedClaims(token).getPayload();
     }
 
     public Boolean validateToken(String token, String userId) {
-        final String tokenUserId = extractUserId(token);
-        return (tokenUserId.equals(userId) && !isTokenExpired(token));
-    }
-
-    private SecretKey getSigningKey() {
-        byte[] keyBytes = Decoders.BASE64.decode(secret);
-        return Keys.hmacShaKeyFor(keyBytes);
+        VerifiedToken verified = verify(token);
+        return verified.userId() != null && verified.userId().equals(userId) && !verified.isExpired();
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,435 @@
+package com.zvit.service;
+
+import com.zvit.config.CryptoConfig;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import javax.crypto.Cipher;
+import javax.crypto.SecretKey;
+import javax.crypto.spec.GCMParameterSpec;
+import javax.crypto.spec.SecretKeySpec;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.security.GeneralSecurityException;
+import java.security.KeyFactory;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.MessageDigest;
+import java.security.PrivateKey;
+import java.security.SecureRandom;
+import java.security.interfaces.XECPublicKey;
+import java.security.spec.PKCS8EncodedKeySpec;
+import java.security.spec.X509EncodedKeySpec;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Properties;
+import java.util.regex.Pattern;
+
+/**
+ * Кільце серверних ключів (RSA + X25519) з ідентифікаторами (kid).
+ * Ключі зберігаються в каталозі crypto.key-ring.directory (по файлу на kid), тому переживають рестарт
+ * і спільні для всіх інстансів, що монтують той самий каталог.
+ * Новий ключ створюється раз на crypto.key-ring.rotation-days; kid визначається періодом ротації,
+ * тому кілька інстансів, що ротують одночасно, отримують один і той самий ключ (переможе перший записаний файл).
+ * Попередні ключі зберігаються ще retain-previous періодів, щоб клієнти з кешованим ключем продовжували працювати.
+ * Якщо каталог не задано - ключі зберігаються в SharedStateStore: з jdbc сховищем вони спільні
+ * для інстансів без спільного тому, з memory живуть тільки в пам'яті (новий ключ на кожен старт).
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class KeyRingService {
+
+    /** Формат kid: використовується як префікс шифротексту "kid:..." */
+    public static final Pattern KEY_ID_PATTERN = Pattern.compile("k\\d{1,10}");
+
+    private static final String FILE_SUFFIX = ".key";
+    private static final String ENCRYPTED_PREFIX = "enc:";
+    private static final String NAMESPACE = "key-ring";
+    private static final int GCM_IV_LENGTH = 12;
+
+    private final CryptoConfig cryptoConfig;
+    private final SharedStateStore sharedStateStore;
+    private final SecureRandom secureRandom = new SecureRandom();
+
+    /** kid -> ключ, від новішого до старішого */
+    private volatile Map<String, ServerKey> keys = Collections.emptyMap();
+    private volatile ServerKey current;
+
+    @PostConstruct
+    public void init() {
+        refresh();
+        log.info("Key ring ready: current={}, keys={}, storage={}",
+                current.kid(), keys.keySet(), storageDirectory().map(Path::toString).orElse("shared-state"));
+    }
+
+    /**
+     * Перечитує сховище ключів, створює ключ поточного періоду якщо його ще немає
+     * і відкидає ключі старші за період зберігання
+     */
+    @Scheduled(fixedDelayString = "${crypto.key-ring.check-interval-ms:3600000}",
+               initialDelayString = "${crypto.key-ring.check-interval-ms:3600000}")
+    public synchronized void refresh() {
+        long currentPeriod = currentPeriod();
+        long oldestPeriod = currentPeriod - cryptoConfig.getKeyRing().getRetainPrevious();
+        String currentKid = kidFor(currentPeriod);
+
+        Map<String, ServerKey> loaded = new LinkedHashMap<>(keys);
+        loaded.putAll(loadAll());
+
+        if (!loaded.containsKey(currentKid)) {
+            ServerKey stored = publish(generate(currentKid));
+            loaded.put(currentKid, stored);
+            log.info("Key ring rotated: new kid={}", stored.kid());
+        }
+
+        List<ServerKey> retained = new ArrayList<>();
+        for (ServerKey key : loaded.values()) {
+            if (periodOf(key.kid()) >= oldestPeriod && periodOf(key.kid()) <= currentPeriod) {
+                retained.add(key);
+            } else if (periodOf(key.kid()) < oldestPeriod) {
+                delete(key.kid());
+            }
+        }
+        retained.sort(Comparator.comparingLong((ServerKey key) -> periodOf(key.kid())).reversed());
+
+        Map<String, ServerKey> result = new LinkedHashMap<>();
+        retained.forEach(key -> result.put(key.kid(), key));
+        this.keys = Collections.unmodifiableMap(result);
+        this.current = result.get(currentKid);
+    }
+
+    /**
+     * Поточний ключ (ним клієнти шифрують нові дані)
+     */
+    public ServerKey current() {
+        return current;
+    }
+
+    public Optional<ServerKey> find(String kid) {
+        return Optional.ofNullable(keys.get(kid));
+    }
+
+    /**
+     * Всі активні ключі, від новішого до старішого
+     */
+    public List<ServerKey> all() {
+        return new ArrayList<>(keys.values());
+    }
+
+    /**
+     * Розбирає значення з необов'язковим префіксом "kid:"
+     * @return kid (або null якщо префікса немає) та значення без префікса
+     */
+    public static TaggedValue parseTagged(String value) {
+        int separator = value.indexOf(':');
+        if (separator > 0 && separator <= 11 && KEY_ID_PATTERN.matcher(value.substring(0, separator)).matches()) {
+            return new TaggedValue(value.substring(0, separator), value.substring(separator + 1));
+        }
+        return new TaggedValue(null, value);
+    }
+
+    private long currentPeriod() {
+        int rotationDays = Math.max(1, cryptoConfig.getKeyRing().getRotationDays());
+        return LocalDate.now(ZoneOffset.UTC).toEpochDay() / rotationDays;
+    }
+
+    private static String kidFor(long period) {
+        return "k" + period;
+    }
+
+    private static long periodOf(String kid) {
+        return Long.parseLong(kid.substring(1));
+    }
+
+    private Optional<Path> storageDirectory() {
+        String directory = cryptoConfig.getKeyRing().getDirectory();
+        return directory == null || directory.isBlank() ? Optional.empty() : Optional.of(Paths.get(directory));
+    }
+
+    private ServerKey generate(String kid) {
+        try {
+            KeyPairGenerator rsaGenerator = KeyPairGenerator.getInstance(cryptoConfig.getRsa().getAlgorithm());
+            rsaGenerator.initialize(cryptoConfig.getRsa().getKeySize(), secureRandom);
+            KeyPair rsa = rsaGenerator.generateKeyPair();
+            KeyPair x25519 = KeyPairGenerator.getInstance("X25519").generateKeyPair();
+            return ServerKey.of(kid, Instant.now(), rsa, x25519);
+        } catch (GeneralSecurityException e) {
+            throw new RuntimeException("Помилка генерації серверних ключів", e);
+        }
+    }
+
+    private Map<String, ServerKey> loadAll() {
+        Optional<Path> directory = storageDirectory();
+        if (directory.isPresent()) {
+            return loadAll(directory.get());
+        }
+        Map<String, ServerKey> result = new LinkedHashMap<>();
+        sharedStateStore.getAll(NAMESPACE).forEach((kid, text) -> {
+            if (!KEY_ID_PATTERN.matcher(kid).matches() || keys.containsKey(kid)) {
+                return;
+            }
+            try {
+                result.put(kid, read(parse(text), kid));
+            } catch (Exception e) {
+                log.warn("Failed to load key {} from shared state: {}", kid, e.getMessage());
+            }
+        });
+        return result;
+    }
+
+    /**
+     * Зберігає новий ключ. Якщо інший інстанс вже зберіг ключ з цим kid - повертає його ключ.
+     */
+    private ServerKey publish(ServerKey key) {
+        Optional<Path> directory = storageDirectory();
+        if (directory.isPresent()) {
+            return store(directory.get(), key);
+        }
+        try {
+            if (sharedStateStore.putIfAbsent(NAMESPACE, key.kid(), format(toProperties(key), key.kid()), retention())) {
+                return key;
+            }
+            log.info("Key {} already created by another instance, using it", key.kid());
+            Optional<String> existing = sharedStateStore.get(NAMESPACE, key.kid());
+            return existing.isPresent() ? read(parse(existing.get()), key.kid()) : key;
+        } catch (IOException | GeneralSecurityException e) {
+            throw new RuntimeException("Помилка збереження серверного ключа " + key.kid(), e);
+        }
+    }
+
+    private void delete(String kid) {
+        Optional<Path> directory = storageDirectory();
+        if (directory.isPresent()) {
+            deleteQuietly(directory.get().resolve(kid + FILE_SUFFIX));
+        } else {
+            sharedStateStore.remove(NAMESPACE, kid);
+        }
+    }
+
+    /**
+     * Скільки ключ потрібен у сховищі: поточний період, retain-previous попередніх і запас на один період
+     */
+    private Duration retention() {
+        CryptoConfig.KeyRing config = cryptoConfig.getKeyRing();
+        return Duration.ofDays((long) Math.max(1, config.getRotationDays()) * (config.getRetainPrevious() + 2));
+    }
+
+    private Map<String, ServerKey> loadAll(Path directory) {
+        Map<String, ServerKey> result = new LinkedHashMap<>();
+        if (!Files.isDirectory(directory)) {
+            return result;
+        }
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, "k*" + FILE_SUFFIX)) {
+            for (Path file : files) {
+                String kid = file.getFileName().toString().replace(FILE_SUFFIX, "");
+                if (!KEY_ID_PATTERN.matcher(kid).matches() || keys.containsKey(kid)) {
+                    continue;
+                }
+                try {
+                    result.put(kid, read(load(file), kid));
+                } catch (Exception e) {
+                    // Файл може ще записуватись іншим інстансом - спробуємо при наступному оновленні
+                    log.warn("Failed to load key {}: {}", file, e.getMessage());
+                }
+            }
+        } catch (IOException e) {
+            log.error("Failed to read key ring directory {}", directory, e);
+        }
+        return result;
+    }
+
+    private static Properties load(Path file) throws IOException {
+        Properties properties = new Properties();
+        try (Reader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            properties.load(reader);
+        }
+        return properties;
+    }
+
+    private static Properties parse(String text) throws IOException {
+        Properties properties = new Properties();
+        properties.load(new StringReader(text));
+        return properties;
+    }
+
+    private static String format(Properties properties, String kid) throws IOException {
+        StringWriter writer = new StringWriter();
+        properties.store(writer, "Zvit server key " + kid);
+        return writer.toString();
+    }
+
+    private ServerKey read(Properties properties, String kid) throws GeneralSecurityException {
+        KeyPair rsa = new KeyPair(
+                KeyFactory.getInstance("RSA").generatePublic(new X509EncodedKeySpec(decode(properties, "rsa.public"))),
+                KeyFactory.getInstance("RSA").generatePrivate(new PKCS8EncodedKeySpec(decodePrivate(properties, "rsa.private"))));
+        KeyPair x25519 = new KeyPair(
+                KeyFactory.getInstance("X25519").generatePublic(new X509EncodedKeySpec(decode(properties, "x25519.public"))),
+                KeyFactory.getInstance("X25519").generatePrivate(new PKCS8EncodedKeySpec(decodePrivate(properties, "x25519.private"))));
+        return ServerKey.of(kid, Instant.parse(properties.getProperty("created")), rsa, x25519);
+    }
+
+    /**
+     * Записує ключ у каталог. Якщо інший інстанс вже записав ключ з цим kid - повертає його ключ.
+     */
+    private ServerKey store(Path directory, ServerKey key) {
+        Path target = directory.resolve(key.kid() + FILE_SUFFIX);
+        Path temp = null;
+        try {
+            Files.createDirectories(directory);
+            temp = Files.createTempFile(directory, key.kid(), ".tmp");
+            restrictPermissions(temp);
+
+            Properties properties = toProperties(key);
+            try (Writer writer = Files.newBufferedWriter(temp, StandardCharsets.UTF_8)) {
+                properties.store(writer, "Zvit server key " + key.kid());
+            }
+
+            // Атомарне створення: файл з'являється тільки повністю записаним і тільки якщо його ще немає
+            try {
+                Files.createLink(target, temp);
+            } catch (UnsupportedOperationException e) {
+                Files.move(temp, target);
+            }
+            return key;
+        } catch (FileAlreadyExistsException e) {
+            log.info("Key {} already created by another instance, using it", key.kid());
+            try {
+                return read(load(target), key.kid());
+            } catch (IOException | GeneralSecurityException readError) {
+                throw new RuntimeException("Помилка читання серверного ключа " + key.kid(), readError);
+            }
+        } catch (IOException | GeneralSecurityException e) {
+            throw new RuntimeException("Помилка збереження серверного ключа " + key.kid(), e);
+        } finally {
+            if (temp != null) {
+                deleteQuietly(temp);
+            }
+        }
+    }
+
+    private Properties toProperties(ServerKey key) throws GeneralSecurityException {
+        Properties properties = new Properties();
+        properties.setProperty("created", key.createdAt().toString());
+        properties.setProperty("rsa.public", encode(key.rsa().getPublic().getEncoded()));
+        properties.setProperty("rsa.private", encodePrivate(key.rsa().getPrivate()));
+        properties.setProperty("x25519.public", encode(key.x25519().getPublic().getEncoded()));
+        properties.setProperty("x25519.private", encodePrivate(key.x25519().getPrivate()));
+        return properties;
+    }
+
+    private static void restrictPermissions(Path file) {
+        try {
+            Files.setPosixFilePermissions(file, PosixFilePermissions.fromString("rw-------"));
+        } catch (UnsupportedOperationException | IOException e) {
+            // Файлова система без POSIX прав (Windows) - покладаємось на права каталогу
+        }
+    }
+
+    private static void deleteQuietly(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            log.warn("Failed to delete {}: {}", file, e.getMessage());
+        }
+    }
+
+    private static String encode(byte[] bytes) {
+        return Base64.getEncoder().encodeToString(bytes);
+    }
+
+    private static byte[] decode(Properties properties, String name) {
+        String value = properties.getProperty(name);
+        if (value == null) {
+            throw new IllegalArgumentException("Missing " + name);
+        }
+        return Base64.getDecoder().decode(value);
+    }
+
+    /**
+     * Приватні ключі шифруються майстер-ключем (crypto.key-ring.master-key), якщо він заданий
+     */
+    private String encodePrivate(PrivateKey key) throws GeneralSecurityException {
+        Optional<SecretKey> masterKey = masterKey();
+        if (masterKey.isEmpty()) {
+            return encode(key.getEncoded());
+        }
+        byte[] iv = new byte[GCM_IV_LENGTH];
+        secureRandom.nextBytes(iv);
+        Cipher cipher = Cipher.getInstance("AES/GCM/NoPadding");
+        cipher.init(Cipher.ENCRYPT_MODE, masterKey.get(), new GCMParameterSpec(128, iv));
+        byte[] encrypted = cipher.doFinal(key.getEncoded());
+        byte[] result = new byte[GCM_IV_LENGTH + encrypted.length];
+        System.arraycopy(iv, 0, result, 0, GCM_IV_LENGTH);
+        System.arraycopy(encrypted, 0, result, GCM_IV_LENGTH, encrypted.length);
+        return ENCRYPTED_PREFIX + encode(result);
+    }
+
+    private byte[] decodePrivate(Properties properties, String name) throws GeneralSecurityException {
+        String value = properties.getProperty(name);
+        if (value == null) {
+            throw new IllegalArgumentException("Missing " + name);
+        }
+        if (!value.startsWith(ENCRYPTED_PREFIX)) {
+            return Base64.getDecoder().decode(value);
+        }
+        SecretKey masterKey = masterKey()
+                .orElseThrow(() -> new IllegalStateException("Ключ зашифровано, але crypto.key-ring.master-key не задано"));
+        byte[] data = Base64.getDecoder().decode(value.substring(ENCRYPTED_PREFIX.length()));
+        Cipher cipher = Cipher.getInstance("AES/GCM/NoPadding");
+        cipher.init(Cipher.DECRYPT_MODE, masterKey, new GCMParameterSpec(128, data, 0, GCM_IV_LENGTH));
+        return cipher.doFinal(data, GCM_IV_LENGTH, data.length - GCM_IV_LENGTH);
+    }
+
+    private Optional<SecretKey> masterKey() throws GeneralSecurityException {
+        String masterKey = cryptoConfig.getKeyRing().getMasterKey();
+        if (masterKey == null || masterKey.isBlank()) {
+            return Optional.empty();
+        }
+        byte[] keyBytes = MessageDigest.getInstance("SHA-256").digest(masterKey.getBytes(StandardCharsets.UTF_8));
+        return Optional.of(new SecretKeySpec(keyBytes, "AES"));
+    }
+
+    /**
+     * Серверний ключ: RSA пара та X25519 пара з одним kid
+     */
+    public record ServerKey(String kid, Instant createdAt, KeyPair rsa, KeyPair x25519,
+                            String rsaPublicBase64, String x25519PublicBase64, byte[] x25519PublicRaw) {
+
+        static ServerKey of(String kid, Instant createdAt, KeyPair rsa, KeyPair x25519) {
+            return new ServerKey(kid, createdAt, rsa, x25519,
+                    encode(rsa.getPublic().getEncoded()),
+                    encode(x25519.getPublic().getEncoded()),
+                    EcKeyService.toRaw((XECPublicKey) x25519.getPublic()));
+        }
+    }
+
+    /**
+     * Значення з необов'язковим kid
+     */
+    public record TaggedValue(String kid, String value) {
+    }
+}
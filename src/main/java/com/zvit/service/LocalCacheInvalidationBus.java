@@ -0,0 +1,18 @@
+package com.zvit.service;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+/**
+ * CacheInvalidationBus для одного інстансу (cache-invalidation.type=local, за замовчуванням):
+ * події одразу передаються локальним підписникам
+ */
+@Service
+@ConditionalOnProperty(prefix = "cache-invalidation", name = "type", havingValue = "local", matchIfMissing = true)
+public class LocalCacheInvalidationBus extends AbstractCacheInvalidationBus {
+
+    @Override
+    protected void send(String cache, String key) {
+        deliver(cache, key);
+    }
+}
@@ -0,0 +1,137 @@
+package com.zvit.service;
+
+import com.zvit.config.MetricsConfig;
+import com.zvit.config.PasswordHashingConfig;
+import com.zvit.exception.ServiceOverloadedException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Хешування та перевірка паролів в окремому пулі розміром з кількість ядер.
+ * BCrypt навмисно повільний (десятки мс CPU), тому при хвилі логінів потоки запитів
+ * лише чекають результату, а CPU не перевантажується понад кількість ядер.
+ * Якщо черга пулу заповнена - запит одразу відхиляється з 503 і Retry-After (admission control),
+ * замість того щоб накопичувати очікуючі потоки Tomcat.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class PasswordHashingService {
+
+    private static final String OVERLOADED_MESSAGE = "Сервер перевантажений, спробуйте через кілька секунд";
+
+    private final PasswordEncoder passwordEncoder;
+    private final PasswordHashingConfig config;
+    private final MeterRegistry meterRegistry;
+
+    private ThreadPoolExecutor executor;
+
+    private Timer hashTimer;
+    private Timer waitTimer;
+    private Counter rejectedCounter;
+
+    @PostConstruct
+    public void init() {
+        int threads = config.getThreads() > 0 ? config.getThreads() : Runtime.getRuntime().availableProcessors();
+        AtomicInteger threadNumber = new AtomicInteger();
+        executor = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(Math.max(1, config.getQueueCapacity())),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "password-hash-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+        executor.allowCoreThreadTimeOut(true);
+
+        hashTimer = Timer.builder(MetricsConfig.CRYPTO_TIMER).tag("op", "bcrypt")
+                .publishPercentileHistogram().register(meterRegistry);
+        waitTimer = Timer.builder("zvit.password.hashing.wait")
+                .description("Очікування в черзі пулу хешування")
+                .publishPercentileHistogram().register(meterRegistry);
+        rejectedCounter = Counter.builder("zvit.password.hashing.rejected").register(meterRegistry);
+        Gauge.builder("zvit.password.hashing.queue", executor, pool -> pool.getQueue().size())
+                .register(meterRegistry);
+        log.info("Password hashing pool: threads={}, queueCapacity={}, bcryptStrength={}",
+                threads, config.getQueueCapacity(), config.getStrength());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    /**
+     * Хешує пароль
+     * @throws ServiceOverloadedException якщо пул перевантажений
+     */
+    public String encode(String rawPassword) {
+        return submit(() -> passwordEncoder.encode(rawPassword));
+    }
+
+    /**
+     * Перевіряє пароль
+     * @throws ServiceOverloadedException якщо пул перевантажений
+     */
+    public boolean matches(String rawPassword, String passwordHash) {
+        return submit(() -> passwordEncoder.matches(rawPassword, passwordHash));
+    }
+
+    /**
+     * Чи потрібно перерахувати хеш (вартість BCrypt в хеші менша за налаштовану)
+     */
+    public boolean needsRehash(String passwordHash) {
+        return passwordEncoder.upgradeEncoding(passwordHash);
+    }
+
+    private <T> T submit(Callable<T> task) {
+        long submittedAt = System.nanoTime();
+        Future<T> future;
+        try {
+            future = executor.submit(() -> {
+                long startedAt = System.nanoTime();
+                waitTimer.record(startedAt - submittedAt, TimeUnit.NANOSECONDS);
+                try {
+                    return task.call();
+                } finally {
+                    hashTimer.record(System.nanoTime() - startedAt, TimeUnit.NANOSECONDS);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            rejectedCounter.increment();
+            throw new ServiceOverloadedException(OVERLOADED_MESSAGE, config.getRetryAfterSeconds());
+        }
+
+        try {
+            return future.get(config.getMaxWaitMs(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            rejectedCounter.increment();
+            throw new ServiceOverloadedException(OVERLOADED_MESSAGE, config.getRetryAfterSeconds());
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Перевірку паролю перервано", e);
+        } catch (ExecutionException e) {
+            throw new RuntimeException("Помилка хешування паролю", e.getCause());
+        }
+    }
+}
@@ -32,6 +32,7 @@ public class QrSessionService {
     private final UserRepository userRepository;
     private final GroupRepository groupRepository;
     private final GroupMemberRepository groupMemberRepository;
+    private final BulkDeleteService bulkDeleteService;
     private final SecureRandom secureRandom = new SecureRandom();
 
     @Value("${app.base-url:http://localhost:8080}")
@@ -45,8 +46,8 @@ public class QrSessionService {
      */
     @Transactional
     public QrSessionResponse createSession() {
-        // Видалити прострочені сесії перед створенням нової
-        qrSessionRepository.deleteExpiredSessions(LocalDateTime.now());
+        // Прострочені сесії видаляє cleanupExpiredSessions за розкладом;
+        // читання сесій і так відхиляє прострочені, тому тут нічого не чистимо
 
         // Згенерувати унікальний токен
         String sessionToken = generateSecureToken();
@@ -183,12 +184,13 @@ public class QrSessionService {
 
     /**
      * Scheduled task для очищення прострочених сесій (раз на годину)
+     * Видаляє пакетами в коротких транзакціях
      */
-    @Scheduled(fixedRate = 3600000) // 1 година
-    @Transactional
+    @Scheduled(fixedRateString = "${qr-session.cleanup-interval-ms:3600000}")
     public void cleanupExpiredSessions() {
         LocalDateTime now = LocalDateTime.now();
-        qrSessionRepository.deleteExpiredSessions(now);
-        log.info("Cleaned up expired QR sessions");
+        int deleted = bulkDeleteService.deleteInChunks(
+                limit -> qrSessionRepository.deleteExpiredSessionsChunk(now, limit));
+        log.info("Cleaned up {} expired QR sessions", deleted);
     }
 }
@@ -1,20 +1,39 @@
 package com.zvit.service;
 
 import com.zvit.config.CryptoConfig;
+import com.zvit.config.MetricsConfig;
+import com.zvit.dto.request.EnvelopeEncryptedRequest;
+import com.zvit.exception.BusinessException;
+import com.zvit.jfr.CryptoEvent;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 
 import javax.crypto.Cipher;
+import javax.crypto.SecretKey;
+import javax.crypto.spec.GCMParameterSpec;
+import javax.crypto.spec.SecretKeySpec;
 import java.nio.charset.StandardCharsets;
 import java.security.*;
 import java.util.Base64;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * Сервіс для RSA шифрування.
- * Генерує пару ключів при старті сервера.
+ * Ключі беруться з кільця серверних ключів (KeyRingService).
  * Клієнт шифрує дані публічним ключем, сервер дешифрує приватним.
+ * Шифротекст може мати префікс "kid:" - тоді одразу використовується ключ з цим id,
+ * без префікса (старі клієнти) - спочатку поточний ключ, потім попередні.
  * Налаштування зчитуються з application.yml (crypto.rsa.*)
  */
 @Slf4j
@@ -22,42 +41,109 @@ import java.util.Base64;
 @RequiredArgsConstructor
 public class RSAKeyService {
 
+    /** Таблиця символів Base64 алфавіту (RFC 4648, без padding) */
+    private static final boolean[] BASE64_ALPHABET = new boolean[128];
+
+    static {
+        for (char c : "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789+/".toCharArray()) {
+            BASE64_ALPHABET[c] = true;
+        }
+    }
+
     private final CryptoConfig cryptoConfig;
+    private final SessionKeyService sessionKeyService;
+    private final EcKeyService ecKeyService;
+    private final KeyRingService keyRingService;
+    private final MeterRegistry meterRegistry;
+
+    private Timer rsaDecryptTimer;
+    private Timer aesDecryptTimer;
+
+    /** Довжина Base64-рядка зашифрованого значення (з padding та без нього) */
+    private int encodedLengthPadded;
+    private int encodedLengthUnpadded;
+
+    /**
+     * Cipher-и, ініціалізовані приватними ключами (kid -> Cipher), окремі для кожного потоку.
+     * Cipher не потокобезпечний, а Cipher.getInstance + init на кожне значення коштує дорожче за саме дешифрування
+     * коротких даних. Після doFinal Cipher повертається в стан після init, тому його можна використовувати повторно.
+     */
+    private final ThreadLocal<Map<String, Cipher>> decryptCiphers = ThreadLocal.withInitial(HashMap::new);
 
-    private KeyPair keyPair;
-    private String publicKeyBase64;
+    /** Обмежений пул для паралельного дешифрування полів одного запиту */
+    private ThreadPoolExecutor decryptExecutor;
 
     @PostConstruct
     public void init() {
-        generateKeyPair();
-        log.info("RSA key pair generated: algorithm={}, keySize={}",
+        int dataSize = cryptoConfig.getRsa().getEncryptedDataSize();
+        encodedLengthPadded = (dataSize + 2) / 3 * 4;
+        encodedLengthUnpadded = (dataSize * 4 + 2) / 3;
+
+        rsaDecryptTimer = Timer.builder(MetricsConfig.CRYPTO_TIMER).tag("op", "rsa.decrypt")
+                .publishPercentileHistogram().register(meterRegistry);
+        aesDecryptTimer = Timer.builder(MetricsConfig.CRYPTO_TIMER).tag("op", "aes.decrypt")
+                .publishPercentileHistogram().register(meterRegistry);
+
+        int parallelism = cryptoConfig.getRsa().getDecryptParallelism() > 0
+                ? cryptoConfig.getRsa().getDecryptParallelism()
+                : Runtime.getRuntime().availableProcessors();
+        if (parallelism > 1) {
+            AtomicInteger threadNumber = new AtomicInteger();
+            decryptExecutor = new ThreadPoolExecutor(parallelism, parallelism, 60, TimeUnit.SECONDS,
+                    new ArrayBlockingQueue<>(parallelism * 16),
+                    runnable -> {
+                        Thread thread = new Thread(runnable, "rsa-decrypt-" + threadNumber.incrementAndGet());
+                        thread.setDaemon(true);
+                        return thread;
+                    },
+                    // Якщо пул перевантажений - дешифруємо в потоці запиту
+                    new ThreadPoolExecutor.CallerRunsPolicy());
+            decryptExecutor.allowCoreThreadTimeOut(true);
+        }
+
+        log.info("RSA ready: kid={}, algorithm={}, keySize={}, decryptParallelism={}",
+                keyRingService.current().kid(),
                 cryptoConfig.getRsa().getAlgorithm(),
-                cryptoConfig.getRsa().getKeySize());
+                cryptoConfig.getRsa().getKeySize(),
+                parallelism);
     }
 
-    /**
-     * Генерує нову пару ключів
-     */
-    private void generateKeyPair() {
-        try {
-            KeyPairGenerator keyGen = KeyPairGenerator.getInstance(cryptoConfig.getRsa().getAlgorithm());
-            keyGen.initialize(cryptoConfig.getRsa().getKeySize(), new SecureRandom());
-            this.keyPair = keyGen.generateKeyPair();
+    @PreDestroy
+    public void shutdown() {
+        if (decryptExecutor != null) {
+            decryptExecutor.shutdown();
+        }
+    }
 
-            // Зберігаємо публічний ключ у Base64 форматі
-            this.publicKeyBase64 = Base64.getEncoder().encodeToString(
-                keyPair.getPublic().getEncoded()
-            );
-        } catch (NoSuchAlgorithmException e) {
-            throw new RuntimeException("Помилка генерації RSA ключів", e);
+    private Cipher createDecryptCipher(KeyRingService.ServerKey key) {
+        try {
+            Cipher cipher = Cipher.getInstance(cryptoConfig.getRsa().getTransformation());
+            cipher.init(Cipher.DECRYPT_MODE, key.rsa().getPrivate());
+            return cipher;
+        } catch (GeneralSecurityException e) {
+            throw new RuntimeException("Помилка ініціалізації RSA Cipher", e);
         }
     }
 
     /**
-     * Повертає публічний ключ у Base64 форматі
+     * Повертає поточний публічний ключ у Base64 форматі
      */
     public String getPublicKeyBase64() {
-        return publicKeyBase64;
+        return keyRingService.current().rsaPublicBase64();
+    }
+
+    /**
+     * Повертає id поточного ключа (префікс "kid:" для шифротекстів)
+     */
+    public String getKeyId() {
+        return keyRingService.current().kid();
+    }
+
+    /**
+     * Повертає алгоритм ключа
+     */
+    public String getAlgorithm() {
+        return cryptoConfig.getRsa().getAlgorithm();
     }
 
     /**
@@ -71,34 +157,102 @@ public class RSAKeyService {
      * Дешифрує дані, зашифровані публічним ключем
      */
     public String decrypt(String encryptedBase64) {
+        return new String(decryptBytes(encryptedBase64), StandardCharsets.UTF_8);
+    }
+
+    private byte[] decryptBytes(String encryptedBase64) {
+        KeyRingService.TaggedValue tagged = KeyRingService.parseTagged(encryptedBase64);
+        byte[] encryptedBytes;
         try {
-            Cipher cipher = Cipher.getInstance(cryptoConfig.getRsa().getTransformation());
-            cipher.init(Cipher.DECRYPT_MODE, keyPair.getPrivate());
+            encryptedBytes = Base64.getDecoder().decode(tagged.value());
+        } catch (IllegalArgumentException e) {
+            throw new RuntimeException("Помилка дешифрування даних", e);
+        }
+
+        if (tagged.kid() != null) {
+            KeyRingService.ServerKey key = keyRingService.find(tagged.kid())
+                    .orElseThrow(() -> new RuntimeException("Невідомий ключ шифрування: " + tagged.kid()));
+            return decryptWith(key, encryptedBytes);
+        }
 
-            byte[] encryptedBytes = Base64.getDecoder().decode(encryptedBase64);
-            byte[] decryptedBytes = cipher.doFinal(encryptedBytes);
+        // Без kid: поточний ключ, потім попередні (клієнт з кешованим ключем після ротації)
+        RuntimeException lastError = null;
+        for (KeyRingService.ServerKey key : keyRingService.all()) {
+            try {
+                return decryptWith(key, encryptedBytes);
+            } catch (RuntimeException e) {
+                lastError = e;
+            }
+        }
+        throw lastError != null ? lastError : new RuntimeException("Помилка дешифрування даних");
+    }
 
-            return new String(decryptedBytes, StandardCharsets.UTF_8);
+    private byte[] decryptWith(KeyRingService.ServerKey key, byte[] encryptedBytes) {
+        Map<String, Cipher> ciphers = decryptCiphers.get();
+        CryptoEvent event = new CryptoEvent();
+        event.begin();
+        long startedAt = System.nanoTime();
+        try {
+            byte[] plain = ciphers.computeIfAbsent(key.kid(), kid -> createDecryptCipher(key)).doFinal(encryptedBytes);
+            rsaDecryptTimer.record(System.nanoTime() - startedAt, TimeUnit.NANOSECONDS);
+            event.complete("rsa.decrypt", encryptedBytes.length);
+            return plain;
         } catch (Exception e) {
-            log.error("RSA decryption failed", e);
+            // Стан Cipher після помилки не гарантований - наступний виклик створить новий
+            ciphers.remove(key.kid());
+            log.debug("RSA decryption with key {} failed: {}", key.kid(), e.getMessage());
             throw new RuntimeException("Помилка дешифрування даних", e);
         }
     }
 
     /**
-     * Перевіряє чи рядок є зашифрованим RSA
-     * (перевірка Base64 формату та довжини)
+     * Перевіряє чи рядок є зашифрованим RSA (з необов'язковим префіксом "kid:")
+     * (перевірка довжини та Base64 алфавіту без декодування і без алокацій)
      */
     public boolean isEncrypted(String value) {
-        if (value == null || value.isEmpty()) {
+        if (value == null) {
             return false;
         }
-        try {
-            byte[] decoded = Base64.getDecoder().decode(value);
-            return decoded.length == cryptoConfig.getRsa().getEncryptedDataSize();
-        } catch (IllegalArgumentException e) {
+        int start = keyIdPrefixLength(value);
+        int length = value.length() - start;
+        if (length != encodedLengthPadded && length != encodedLengthUnpadded) {
             return false;
         }
+
+        // Padding '=' допустимий тільки в кінці рядка
+        int dataLength = length;
+        while (dataLength > 0 && value.charAt(start + dataLength - 1) == '=') {
+            dataLength--;
+        }
+        if (dataLength != encodedLengthUnpadded) {
+            return false;
+        }
+
+        for (int i = start; i < start + dataLength; i++) {
+            if (!isBase64Char(value.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Довжина префікса "kid:" (k + цифри + ':'), 0 якщо префікса немає.
+     * ':' не входить в Base64 алфавіт, тому префікс не плутається з шифротекстом.
+     */
+    private static int keyIdPrefixLength(String value) {
+        if (value.isEmpty() || value.charAt(0) != 'k') {
+            return 0;
+        }
+        int i = 1;
+        while (i < value.length() && i <= 10 && Character.isDigit(value.charAt(i))) {
+            i++;
+        }
+        return i > 1 && i < value.length() && value.charAt(i) == ':' ? i + 1 : 0;
+    }
+
+    private static boolean isBase64Char(char c) {
+        return c < BASE64_ALPHABET.length && BASE64_ALPHABET[c];
     }
 
     /**
@@ -118,4 +272,150 @@ public class RSAKeyService {
         }
         return value;
     }
+
+    /**
+     * Повертає дешифратор полів для запиту.
+     * Якщо клієнт передав ключ конверта - він дешифрується один раз (одна операція приватним ключем),
+     * а поля дешифруються AES-GCM. Ключ конверта може бути узгоджений і через X25519 (EcKeyService).
+     * Якщо токен запиту має сесійний ключ - поля дешифруються ним.
+     * В обох режимах конверта поле, що не пройшло перевірку AES-GCM, відхиляється (BusinessException).
+     * Інакше - кожне поле окремо через RSA; відкритий текст приймається лише тут (старі клієнти).
+     */
+    public FieldDecryptor fieldDecryptor(EnvelopeEncryptedRequest request) {
+        String encryptedKey = request.getEncryptedKey();
+        if (encryptedKey == null || encryptedKey.isEmpty()) {
+            // Сесійний ключ токена - поля зашифровані AES-GCM без жодної RSA операції
+            return sessionKeyService.currentSessionKey()
+                    .<FieldDecryptor>map(EnvelopeFieldDecryptor::new)
+                    .orElseGet(RsaFieldDecryptor::new);
+        }
+
+        // X25519 (ECIES): "x25519:" + [kid:] + ефемерний публічний ключ клієнта
+        String ecPrefix = EcKeyService.ALGORITHM_ID + ":";
+        if (encryptedKey.startsWith(ecPrefix)) {
+            return new EnvelopeFieldDecryptor(ecKeyService.deriveKey(encryptedKey.substring(ecPrefix.length())));
+        }
+
+        byte[] keyBytes = decryptBytes(encryptedKey);
+        if (keyBytes.length != 16 && keyBytes.length != 24 && keyBytes.length != 32) {
+            throw new RuntimeException("Невірний розмір ключа конверта");
+        }
+        return new EnvelopeFieldDecryptor(new SecretKeySpec(keyBytes, "AES"));
+    }
+
+    /**
+     * Режим без конверта: кожне зашифроване поле - окрема RSA операція
+     */
+    private class RsaFieldDecryptor implements FieldDecryptor {
+
+        @Override
+        public String decrypt(String value) {
+            return decryptIfEncrypted(value);
+        }
+
+        @Override
+        public String[] decryptAll(String... values) {
+            return RSAKeyService.this.decryptAll(values);
+        }
+    }
+
+    /**
+     * Режим конверта: поля зашифровані AES-GCM ключем запиту, незашифровані значення відхиляються.
+     * Використовується в межах одного запиту (одного потоку), тому Cipher не ділиться між потоками.
+     */
+    private class EnvelopeFieldDecryptor implements FieldDecryptor {
+
+        private static final int GCM_IV_LENGTH = 12;
+        private static final int GCM_TAG_BITS = 128;
+
+        private final SecretKey key;
+        private Cipher cipher;
+
+        EnvelopeFieldDecryptor(SecretKey key) {
+            this.key = key;
+        }
+
+        @Override
+        public String decrypt(String value) {
+            if (value == null || value.isEmpty()) {
+                return value;
+            }
+
+            byte[] data;
+            try {
+                data = Base64.getDecoder().decode(value);
+            } catch (IllegalArgumentException e) {
+                throw unauthenticatedField();
+            }
+            if (data.length < GCM_IV_LENGTH + GCM_TAG_BITS / 8) {
+                throw unauthenticatedField();
+            }
+
+            long startedAt = System.nanoTime();
+            try {
+                if (cipher == null) {
+                    cipher = Cipher.getInstance("AES/GCM/NoPadding");
+                }
+                cipher.init(Cipher.DECRYPT_MODE, key, new GCMParameterSpec(GCM_TAG_BITS, data, 0, GCM_IV_LENGTH));
+                byte[] plain = cipher.doFinal(data, GCM_IV_LENGTH, data.length - GCM_IV_LENGTH);
+                aesDecryptTimer.record(System.nanoTime() - startedAt, TimeUnit.NANOSECONDS);
+                return new String(plain, StandardCharsets.UTF_8);
+            } catch (GeneralSecurityException e) {
+                throw unauthenticatedField();
+            }
+        }
+
+        /**
+         * Тег не збігся або значення не є AES-GCM шифротекстом цього ключа.
+         * Відкритий текст чи окреме RSA поле в режимі конверта не приймаються -
+         * інакше підмінене поле пройшло б повз перевірку цілісності.
+         */
+        private BusinessException unauthenticatedField() {
+            return new BusinessException("Не вдалося розшифрувати поле запиту");
+        }
+    }
+
+    /**
+     * Дешифрує всі зашифровані значення запиту паралельно на обмеженому пулі
+     * (кожне значення - окрема операція приватним ключем).
+     * Незашифровані значення та null повертаються як є, порядок зберігається.
+     */
+    public String[] decryptAll(String... values) {
+        String[] result = values.clone();
+
+        int encryptedCount = 0;
+        for (String value : values) {
+            if (isEncrypted(value)) {
+                encryptedCount++;
+            }
+        }
+
+        if (decryptExecutor == null || encryptedCount < 2) {
+            for (int i = 0; i < values.length; i++) {
+                result[i] = decryptIfEncrypted(values[i]);
+            }
+            return result;
+        }
+
+        // Одне значення дешифруємо в потоці запиту, решту - в пулі
+        CompletableFuture<?>[] futures = new CompletableFuture<?>[encryptedCount - 1];
+        int submitted = 0;
+        int callerIndex = -1;
+        for (int i = 0; i < values.length; i++) {
+            if (!isEncrypted(values[i])) {
+                continue;
+            }
+            if (callerIndex < 0) {
+                callerIndex = i;
+                continue;
+            }
+            int index = i;
+            futures[submitted++] = CompletableFuture.runAsync(
+                    () -> result[index] = decryptIfEncrypted(values[index]), decryptExecutor);
+        }
+
+        result[callerIndex] = decryptIfEncrypted(values[callerIndex]);
+        CompletableFuture.allOf(futures).join();
+        return result;
+    }
 }
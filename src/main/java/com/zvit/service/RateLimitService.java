@@ -3,172 +3,116 @@ package com.zvit.service;
 import com.zvit.config.RateLimitConfig;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
+import org.springframework.util.AntPathMatcher;
 
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
 import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.Executors;
-import java.util.concurrent.ScheduledExecutorService;
-import java.util.concurrent.TimeUnit;
 
 /**
- * Rate limiting сервіс для захисту від brute force атак.
- * Обмежує кількість запитів з одного IP за певний період часу.
- * Налаштування зчитуються з application.yml (rate-limit.*)
+ * Rate limiting сервіс (token bucket на пару маршрут + клієнт).
+ * Маршрути та їх ліміти зчитуються з application.yml (rate-limit.routes.*).
+ * Стан відер зберігається в SharedStateStore, тому з jdbc сховищем ліміти спільні для всіх інстансів.
  */
 @Slf4j
 @Service
 public class RateLimitService {
 
+    private static final String NAMESPACE_PREFIX = "rate-limit:";
+
     private final RateLimitConfig config;
+    private final SharedStateStore sharedStateStore;
+    private final AntPathMatcher pathMatcher = new AntPathMatcher();
 
-    // Зберігаємо спроби по IP
-    private final Map<String, RateLimitInfo> loginAttempts = new ConcurrentHashMap<>();
-    private final Map<String, RateLimitInfo> registerAttempts = new ConcurrentHashMap<>();
+    private final List<CompiledRoute> routes = new ArrayList<>();
+    private final Map<String, CompiledRoute> routesByName = new HashMap<>();
 
-    public RateLimitService(RateLimitConfig config) {
+    public RateLimitService(RateLimitConfig config, SharedStateStore sharedStateStore) {
         this.config = config;
+        this.sharedStateStore = sharedStateStore;
 
-        // Очищення застарілих записів
-        ScheduledExecutorService cleaner = Executors.newSingleThreadScheduledExecutor(r -> {
-            Thread t = new Thread(r, "rate-limit-cleaner");
-            t.setDaemon(true);
-            return t;
+        config.getRoutes().forEach((name, route) -> {
+            if (route.getCapacity() <= 0 || route.getRefillTokens() <= 0 || route.getRefillPeriodMs() <= 0) {
+                throw new IllegalStateException("Некоректний ліміт rate-limit.routes." + name);
+            }
+            CompiledRoute compiled = new CompiledRoute(name, route);
+            routes.add(compiled);
+            routesByName.put(name, compiled);
         });
-        cleaner.scheduleAtFixedRate(this::cleanup,
-                config.getCleanupIntervalMinutes(),
-                config.getCleanupIntervalMinutes(),
-                TimeUnit.MINUTES);
-
-        log.info("RateLimitService initialized: maxLogin={}, maxRegister={}, windowMs={}, blockMs={}",
-                config.getMaxAttemptsLogin(),
-                config.getMaxAttemptsRegister(),
-                config.getWindowSizeMs(),
-                config.getBlockDurationMs());
-    }
-
-    /**
-     * Перевіряє чи дозволено логін з даного IP
-     * @return true якщо запит дозволено
-     */
-    public boolean isLoginAllowed(String ip) {
-        return isAllowed(ip, loginAttempts, config.getMaxAttemptsLogin());
-    }
-
-    /**
-     * Перевіряє чи дозволено реєстрацію з даного IP
-     * @return true якщо запит дозволено
-     */
-    public boolean isRegisterAllowed(String ip) {
-        return isAllowed(ip, registerAttempts, config.getMaxAttemptsRegister());
-    }
 
-    /**
-     * Фіксує спробу логіну
-     */
-    public void recordLoginAttempt(String ip) {
-        recordAttempt(ip, loginAttempts, config.getMaxAttemptsLogin());
+        log.info("RateLimitService initialized: enabled={}, routes={}", config.isEnabled(), routesByName.keySet());
     }
 
     /**
-     * Фіксує спробу реєстрації
+     * Знаходить маршрут для запиту (перший за порядком оголошення)
+     * @return ім'я маршруту або null якщо запит не обмежується
      */
-    public void recordRegisterAttempt(String ip) {
-        recordAttempt(ip, registerAttempts, config.getMaxAttemptsRegister());
+    public String matchRoute(String method, String path) {
+        for (CompiledRoute route : routes) {
+            if (route.matches(method, path, pathMatcher)) {
+                return route.name;
+            }
+        }
+        return null;
     }
 
     /**
-     * Скидає лічильник при успішному логіні
+     * Чи ідентифікується клієнт маршруту користувачем (інакше - тільки IP)
      */
-    public void resetLoginAttempts(String ip) {
-        loginAttempts.remove(ip);
+    public boolean isKeyedByPrincipal(String routeName) {
+        return route(routeName).keyType == RateLimitConfig.KeyType.PRINCIPAL_OR_IP;
     }
 
     /**
-     * Повертає час до розблокування в секундах (для відповіді клієнту)
+     * Бере токен з відра клієнта на маршруті
+     * @return 0 якщо запит дозволено, інакше скільки мілісекунд чекати
      */
-    public long getSecondsUntilUnblock(String ip, boolean isLogin) {
-        Map<String, RateLimitInfo> attempts = isLogin ? loginAttempts : registerAttempts;
-        RateLimitInfo info = attempts.get(ip);
-
-        if (info == null) return 0;
-
-        long now = System.currentTimeMillis();
-        if (info.blockedUntil > now) {
-            return (info.blockedUntil - now) / 1000;
+    public long tryAcquire(String routeName, String clientKey) {
+        if (!config.isEnabled()) {
+            return 0;
         }
-        return 0;
+        CompiledRoute route = route(routeName);
+        return sharedStateStore.tryAcquire(route.namespace, clientKey, route.limit);
     }
 
-    private boolean isAllowed(String ip, Map<String, RateLimitInfo> attempts, int maxAttempts) {
-        RateLimitInfo info = attempts.get(ip);
-        long now = System.currentTimeMillis();
-
-        if (info == null) {
-            return true;
-        }
-
-        // Перевіряємо чи IP заблоковано
-        if (info.blockedUntil > now) {
-            return false;
-        }
-
-        // Якщо пройшло вікно часу - скидаємо лічильник
-        if (now - info.windowStart > config.getWindowSizeMs()) {
-            attempts.remove(ip);
-            return true;
+    private CompiledRoute route(String routeName) {
+        CompiledRoute route = routesByName.get(routeName);
+        if (route == null) {
+            throw new IllegalArgumentException("Невідомий маршрут rate-limit: " + routeName);
         }
-
-        return info.attempts < maxAttempts;
+        return route;
     }
 
-    private void recordAttempt(String ip, Map<String, RateLimitInfo> attempts, int maxAttempts) {
-        long now = System.currentTimeMillis();
-
-        attempts.compute(ip, (key, info) -> {
-            if (info == null) {
-                return new RateLimitInfo(now, 1, 0);
-            }
+    private static final class CompiledRoute {
+        final String name;
+        final String namespace;
+        final SharedStateStore.RateLimit limit;
+        final List<String> paths;
+        final List<String> methods;
+        final RateLimitConfig.KeyType keyType;
+
+        CompiledRoute(String name, RateLimitConfig.Route route) {
+            this.name = name;
+            this.namespace = NAMESPACE_PREFIX + name;
+            this.limit = new SharedStateStore.RateLimit(
+                    route.getCapacity(), route.getRefillTokens(), route.getRefillPeriodMs());
+            this.paths = List.copyOf(route.getPaths());
+            this.methods = route.getMethods().stream().map(m -> m.toUpperCase(Locale.ROOT)).toList();
+            this.keyType = route.getKey();
+        }
 
-            // Якщо пройшло вікно часу - починаємо заново
-            if (now - info.windowStart > config.getWindowSizeMs()) {
-                return new RateLimitInfo(now, 1, 0);
+        boolean matches(String method, String path, AntPathMatcher matcher) {
+            if (!methods.isEmpty() && !methods.contains(method)) {
+                return false;
             }
-
-            int newAttempts = info.attempts + 1;
-            long blockedUntil = info.blockedUntil;
-
-            // Якщо перевищено ліміт - блокуємо
-            if (newAttempts >= maxAttempts) {
-                blockedUntil = now + config.getBlockDurationMs();
+            for (String pattern : paths) {
+                if (matcher.match(pattern, path)) {
+                    return true;
+                }
             }
-
-            return new RateLimitInfo(info.windowStart, newAttempts, blockedUntil);
-        });
-    }
-
-    private void cleanup() {
-        long now = System.currentTimeMillis();
-        long cutoff = now - config.getWindowSizeMs() - config.getBlockDurationMs();
-
-        loginAttempts.entrySet().removeIf(entry ->
-            entry.getValue().windowStart < cutoff && entry.getValue().blockedUntil < now);
-
-        registerAttempts.entrySet().removeIf(entry ->
-            entry.getValue().windowStart < cutoff && entry.getValue().blockedUntil < now);
-    }
-
-    /**
-     * Інформація про спроби з одного IP
-     */
-    private static class RateLimitInfo {
-        final long windowStart;     // Початок вікна часу
-        final int attempts;         // Кількість спроб
-        final long blockedUntil;    // До якого часу заблоковано (0 якщо не заблоковано)
-
-        RateLimitInfo(long windowStart, int attempts, long blockedUntil) {
-            this.windowStart = windowStart;
-            this.attempts = attempts;
-            this.blockedUntil = blockedUntil;
+            return false;
         }
     }
 }
@@ -0,0 +1,263 @@
+package com.zvit.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.zvit.config.ReportConfig;
+import com.zvit.dto.response.ReportResponse;
+import com.zvit.entity.ArchivedReport;
+import com.zvit.entity.Group;
+import com.zvit.entity.UrgentResponse;
+import com.zvit.entity.User;
+import com.zvit.repository.ArchivedReportRepository;
+import com.zvit.repository.GroupRepository;
+import com.zvit.repository.ReportRepository;
+import com.zvit.repository.UrgentResponseRepository;
+import com.zvit.repository.UserRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.Clock;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * Архівація старих звітів (гаряча таблиця reports -> холодна reports_archive).
+ * Гаряча таблиця містить тільки звіти за останні report.archive.after-days днів,
+ * тому запити статусів та розкладу працюють з невеликим робочим набором.
+ * Історичні запити прозоро доповнюються даними з архіву.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ReportArchiveService {
+
+    private final ReportRepository reportRepository;
+    private final ArchivedReportRepository archivedReportRepository;
+    private final UrgentResponseRepository urgentResponseRepository;
+    private final UserRepository userRepository;
+    private final GroupRepository groupRepository;
+    private final ReportConfig reportConfig;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final Clock clock;
+
+    /**
+     * Scheduled task для перенесення старих звітів в архів.
+     * Кожен пакет переноситься в окремій короткій транзакції.
+     */
+    @Scheduled(fixedDelayString = "${report.archive.interval-ms:3600000}",
+               initialDelayString = "${report.archive.interval-ms:3600000}")
+    public void archiveOldReports() {
+        ReportConfig.Archive config = reportConfig.getArchive();
+        if (!config.isEnabled()) {
+            return;
+        }
+
+        LocalDateTime cutoff = LocalDateTime.now(clock).minusDays(config.getAfterDays());
+        int total = 0;
+
+        for (int batch = 0; batch < config.getMaxBatchesPerRun(); batch++) {
+            Integer moved = transactionTemplate.execute(status -> archiveBatch(cutoff, config.getBatchSize()));
+            total += moved != null ? moved : 0;
+            if (moved == null || moved < config.getBatchSize()) {
+                break;
+            }
+        }
+
+        if (total > 0) {
+            log.info("Архівовано {} звітів старших за {}", total, cutoff);
+        }
+    }
+
+    /**
+     * Переносить один пакет найстаріших звітів в архів
+     * @return кількість перенесених звітів
+     */
+    private int archiveBatch(LocalDateTime cutoff, int batchSize) {
+        List<ReportRepository.ArchiveCandidate> candidates =
+                reportRepository.findArchiveCandidates(cutoff, PageRequest.of(0, batchSize));
+        if (candidates.isEmpty()) {
+            return 0;
+        }
+
+        List<String> reportIds = candidates.stream()
+                .map(ReportRepository.ArchiveCandidate::getId)
+                .collect(Collectors.toList());
+
+        // Відповіді на термінові запити зберігаємо разом зі звітом (для історії)
+        Map<String, UrgentResponse> urgentByReport = urgentResponseRepository.findByReportIdIn(reportIds).stream()
+                .collect(Collectors.toMap(UrgentResponse::getReportId, Function.identity(), (a, b) -> a));
+
+        LocalDateTime now = LocalDateTime.now(clock);
+        List<ArchivedReport> archived = new ArrayList<>(candidates.size());
+        for (ReportRepository.ArchiveCandidate candidate : candidates) {
+            UrgentResponse urgent = urgentByReport.get(candidate.getId());
+            ArchivedReportContent content = new ArchivedReportContent(
+                    candidate.getSimpleResponse(),
+                    candidate.getComment(),
+                    candidate.getField1Value(),
+                    candidate.getField2Value(),
+                    candidate.getField3Value(),
+                    candidate.getField4Value(),
+                    candidate.getField5Value(),
+                    candidate.getIsUrgent(),
+                    candidate.getDeadlineAt(),
+                    urgent != null ? urgent.getUrgentSessionId() : null,
+                    urgent != null ? urgent.getRespondedAt() : null
+            );
+
+            archived.add(ArchivedReport.builder()
+                    .id(candidate.getId())
+                    .userId(candidate.getUserId())
+                    .groupId(candidate.getGroupId())
+                    .reportType(candidate.getReportType())
+                    .submittedAt(candidate.getSubmittedAt())
+                    .archivedAt(now)
+                    .payload(compress(content))
+                    .build());
+        }
+
+        archivedReportRepository.saveAll(archived);
+        if (!urgentByReport.isEmpty()) {
+            urgentResponseRepository.deleteByReportIdIn(urgentByReport.keySet());
+        }
+        reportRepository.deleteByIdIn(reportIds);
+
+        return candidates.size();
+    }
+
+    /**
+     * Архівні звіти користувача в усіх групах (від новіших до старіших) після курсора (submittedAt, id)
+     * @param cursorAt null - з найновішого
+     * @param pageable Pageable.unpaged() - вся історія
+     */
+    public List<ReportResponse> findUserHistory(String userId, LocalDateTime cursorAt, String cursorId,
+                                                Pageable pageable) {
+        return mapPage(archivedReportRepository.findUserPage(userId, cursorAt, cursorId, pageable));
+    }
+
+    /**
+     * Архівні звіти користувача в групі (від новіших до старіших) після курсора (submittedAt, id)
+     */
+    public List<ReportResponse> findUserHistoryInGroup(String groupId, String userId, LocalDateTime cursorAt,
+                                                       String cursorId, Pageable pageable) {
+        return mapPage(archivedReportRepository.findUserPageInGroup(groupId, userId, cursorAt, cursorId, pageable));
+    }
+
+    /**
+     * Архівні звіти всієї групи (від новіших до старіших) після курсора (submittedAt, id)
+     */
+    public List<ReportResponse> findGroupHistory(String groupId, LocalDateTime cursorAt, String cursorId,
+                                                 Pageable pageable) {
+        return mapPage(archivedReportRepository.findGroupPage(groupId, cursorAt, cursorId, pageable));
+    }
+
+    private List<ReportResponse> mapPage(List<ArchivedReport> archived) {
+        if (archived.isEmpty()) {
+            return new ArrayList<>();
+        }
+        return mapAll(archived);
+    }
+
+    /**
+     * Останній архівний звіт користувача в групі
+     */
+    public Optional<ReportResponse> findLastInGroup(String groupId, String userId) {
+        return archivedReportRepository.findFirstByGroupIdAndUserIdOrderBySubmittedAtDesc(groupId, userId)
+                .map(report -> mapAll(List.of(report)).get(0));
+    }
+
+    /**
+     * Мапить архівні звіти, підтягуючи імена користувачів та назви груп пакетними запитами
+     */
+    private List<ReportResponse> mapAll(List<ArchivedReport> archived) {
+        Map<String, String> userNames = userRepository.findAllById(distinct(archived, ArchivedReport::getUserId))
+                .stream()
+                .collect(Collectors.toMap(User::getId, User::getName));
+        Map<String, String> groupNames = groupRepository.findAllById(distinct(archived, ArchivedReport::getGroupId))
+                .stream()
+                .collect(Collectors.toMap(Group::getId, Group::getExternalName));
+
+        List<ReportResponse> result = new ArrayList<>(archived.size());
+        for (ArchivedReport report : archived) {
+            ArchivedReportContent content = decompress(report.getPayload());
+            result.add(ReportResponse.builder()
+                    .reportId(report.getId())
+                    .userId(report.getUserId())
+                    .userName(userNames.get(report.getUserId()))
+                    .groupId(report.getGroupId())
+                    .groupName(groupNames.get(report.getGroupId()))
+                    .reportType(com.zvit.entity.enums.ReportType.valueOf(report.getReportType().name()))
+                    .simpleResponse(content.simpleResponse())
+                    .comment(content.comment())
+                    .submittedAt(report.getSubmittedAt())
+                    .field1Value(content.field1Value())
+                    .field2Value(content.field2Value())
+                    .field3Value(content.field3Value())
+                    .field4Value(content.field4Value())
+                    .field5Value(content.field5Value())
+                    .build());
+        }
+        return result;
+    }
+
+    private Collection<String> distinct(List<ArchivedReport> archived, Function<ArchivedReport, String> getter) {
+        return archived.stream().map(getter).collect(Collectors.toSet());
+    }
+
+    private byte[] compress(ArchivedReportContent content) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(256);
+        Deflater deflater = new Deflater(Deflater.BEST_COMPRESSION);
+        try (DeflaterOutputStream deflaterOut = new DeflaterOutputStream(out, deflater)) {
+            objectMapper.writeValue(deflaterOut, content);
+        } catch (IOException e) {
+            throw new RuntimeException("Помилка стиснення архівного звіту", e);
+        } finally {
+            deflater.end();
+        }
+        return out.toByteArray();
+    }
+
+    private ArchivedReportContent decompress(byte[] payload) {
+        try (InputStream in = new InflaterInputStream(new ByteArrayInputStream(payload))) {
+            return objectMapper.readValue(in, ArchivedReportContent.class);
+        } catch (IOException e) {
+            throw new RuntimeException("Помилка читання архівного звіту", e);
+        }
+    }
+
+    /**
+     * Текстові поля звіту, що зберігаються стиснутими в reports_archive.payload
+     */
+    record ArchivedReportContent(
+            String simpleResponse,
+            String comment,
+            String field1Value,
+            String field2Value,
+            String field3Value,
+            String field4Value,
+            String field5Value,
+            Boolean isUrgent,
+            LocalDateTime deadlineAt,
+            String urgentSessionId,
+            LocalDateTime urgentRespondedAt
+    ) {
+    }
+}
@@ -1,9 +1,12 @@
 package com.zvit.service;
 
+import com.zvit.config.ReportConfig;
+import com.zvit.config.SqlStatementCollector;
 import com.zvit.dto.request.ExtendedReportRequest;
 import com.zvit.dto.request.SimpleReportRequest;
 import com.zvit.dto.request.UrgentReportRequest;
 import com.zvit.dto.response.GroupStatusesResponse;
+import com.zvit.dto.response.ReportHistoryPage;
 import com.zvit.dto.response.ReportResponse;
 import com.zvit.dto.response.UrgentSessionInfo;
 import com.zvit.dto.response.UserStatusResponse;
@@ -13,27 +16,38 @@ import com.zvit.entity.Report;
 import com.zvit.entity.UrgentResponse;
 import com.zvit.entity.User;
 import com.zvit.entity.enums.Role;
+import com.zvit.exception.BusinessException;
+import com.zvit.jfr.GroupStatusesEvent;
+import com.zvit.jfr.ReportIngestEvent;
 import com.zvit.repository.GroupMemberRepository;
 import com.zvit.repository.GroupRepository;
 import com.zvit.repository.ReportRepository;
 import com.zvit.repository.UrgentResponseRepository;
 import com.zvit.repository.UserRepository;
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Clock;
 import java.time.Duration;
 import java.time.LocalDateTime;
 import java.time.ZoneId;
 import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Slf4j
 @Service
 @RequiredArgsConstructor
+@Timed(value = "zvit.service.report", histogram = true)
 public class ReportService {
 
     private final ReportRepository reportRepository;
@@ -44,109 +58,254 @@ public class ReportService {
     private final EncryptionService encryptionService;
     private final FirebaseService firebaseService;
     private final RSAKeyService rsaKeyService;
+    private final ReportArchiveService reportArchiveService;
+    private final ReportConfig reportConfig;
+    private final Clock clock;
 
     private static final int REPORT_WINDOW_HOURS = 24;
+    /** Роздільник submittedAt та ID звіту в курсорі сторінки історії */
+    private static final char CURSOR_SEPARATOR = '_';
 
     @Transactional
     public ReportResponse createSimpleReport(SimpleReportRequest request, String userId) {
-        Group group = groupRepository.findById(request.getGroupId())
-                .orElseThrow(() -> new RuntimeException("Групу не знайдено"));
-
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new RuntimeException("Користувача не знайдено"));
+        ReportIngestEvent event = new ReportIngestEvent();
+        long statementsBefore = SqlStatementCollector.currentCount();
+        event.begin();
 
-        groupMemberRepository.findByGroupIdAndUserId(request.getGroupId(), userId)
-                .orElseThrow(() -> new RuntimeException("Ви не є учасником цієї групи"));
+        GroupMemberRepository.ReportContext context = loadReportContext(request.getGroupId(), userId);
 
         // Дешифруємо коментар
-        String comment = rsaKeyService.decryptIfEncrypted(request.getComment());
+        String comment = rsaKeyService.fieldDecryptor(request).decrypt(request.getComment());
 
-        Report report = Report.builder()
-                .group(group)
-                .user(user)
-                .reportType(Report.ReportType.SIMPLE)
+        ReportResponse response = ReportResponse.builder()
+                .reportId(UUID.randomUUID().toString())
+                .userId(userId)
+                .userName(context.getUserName())
+                .groupId(request.getGroupId())
+                .groupName(context.getGroupName())
+                .reportType(com.zvit.entity.enums.ReportType.SIMPLE)
                 .simpleResponse(request.getSimpleResponse())
                 .comment(comment)
+                .submittedAt(LocalDateTime.now(clock).truncatedTo(ChronoUnit.MICROS))
                 .build();
 
-        reportRepository.save(report);
-
-        // Якщо є активна термінова сесія - записуємо відповідь
-        recordUrgentResponseIfActive(group, userId, report.getId());
-
-        return mapToReportResponse(report);
+        insertReport(response, context);
+        commitIngestEvent(event, response, statementsBefore, comment);
+        return response;
     }
 
     @Transactional
     public ReportResponse createExtendedReport(ExtendedReportRequest request, String userId) {
-        Group group = groupRepository.findById(request.getGroupId())
-                .orElseThrow(() -> new RuntimeException("Групу не знайдено"));
-
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new RuntimeException("Користувача не знайдено"));
-
-        groupMemberRepository.findByGroupIdAndUserId(request.getGroupId(), userId)
-                .orElseThrow(() -> new RuntimeException("Ви не є учасником цієї групи"));
-
-        // Дешифруємо всі текстові поля
-        String field1 = rsaKeyService.decryptIfEncrypted(request.getField1());
-        String field2 = rsaKeyService.decryptIfEncrypted(request.getField2());
-        String field3 = rsaKeyService.decryptIfEncrypted(request.getField3());
-        String field4 = rsaKeyService.decryptIfEncrypted(request.getField4());
-        String field5 = rsaKeyService.decryptIfEncrypted(request.getField5());
-        String comment = rsaKeyService.decryptIfEncrypted(request.getComment());
-
-        Report report = Report.builder()
-                .group(group)
-                .user(user)
-                .reportType(Report.ReportType.EXTENDED)
+        ReportIngestEvent event = new ReportIngestEvent();
+        long statementsBefore = SqlStatementCollector.currentCount();
+        event.begin();
+
+        GroupMemberRepository.ReportContext context = loadReportContext(request.getGroupId(), userId);
+
+        // Дешифруємо всі текстові поля (паралельно - до 6 операцій приватним ключем)
+        String[] decrypted = rsaKeyService.fieldDecryptor(request).decryptAll(
+                request.getField1(), request.getField2(), request.getField3(),
+                request.getField4(), request.getField5(), request.getComment());
+        String field1 = decrypted[0];
+        String field2 = decrypted[1];
+        String field3 = decrypted[2];
+        String field4 = decrypted[3];
+        String field5 = decrypted[4];
+        String comment = decrypted[5];
+
+        ReportResponse response = ReportResponse.builder()
+                .reportId(UUID.randomUUID().toString())
+                .userId(userId)
+                .userName(context.getUserName())
+                .groupId(request.getGroupId())
+                .groupName(context.getGroupName())
+                .reportType(com.zvit.entity.enums.ReportType.EXTENDED)
                 .field1Value(field1)
                 .field2Value(field2)
                 .field3Value(field3)
                 .field4Value(field4)
                 .field5Value(field5)
                 .comment(comment)
+                .submittedAt(LocalDateTime.now(clock).truncatedTo(ChronoUnit.MICROS))
                 .build();
 
-        reportRepository.save(report);
+        insertReport(response, context);
+        commitIngestEvent(event, response, statementsBefore, decrypted);
+        return response;
+    }
 
-        // Якщо є активна термінова сесія - записуємо відповідь
-        recordUrgentResponseIfActive(group, userId, report.getId());
+    /**
+     * JFR подія прийому звіту (заповнюється тільки якщо подія потрапляє в запис)
+     */
+    private void commitIngestEvent(ReportIngestEvent event, ReportResponse report,
+                                   long statementsBefore, String... fields) {
+        event.end();
+        if (!event.shouldCommit()) {
+            return;
+        }
+        int fieldCount = 0;
+        for (String field : fields) {
+            if (field != null && !field.isEmpty()) {
+                fieldCount++;
+            }
+        }
+        event.groupId = report.getGroupId();
+        event.reportType = report.getReportType().name();
+        event.fieldCount = fieldCount;
+        event.statements = SqlStatementCollector.currentCount() - statementsBefore;
+        event.commit();
+    }
 
-        return mapToReportResponse(report);
+    /**
+     * Завантажує контекст учасника одним запитом (членство, імена, термінова сесія)
+     */
+    private GroupMemberRepository.ReportContext loadReportContext(String groupId, String userId) {
+        return groupMemberRepository.findReportContext(groupId, userId)
+                .orElseThrow(() -> groupRepository.existsById(groupId)
+                        ? new RuntimeException("Ви не є учасником цієї групи")
+                        : new RuntimeException("Групу не знайдено"));
     }
 
-    public List<ReportResponse> getAllMyReports(String userId) {
-        List<Report> reports = reportRepository.findByUser_IdOrderBySubmittedAtDesc(userId);
+    /**
+     * Записує звіт одним INSERT ... SELECT з перевіркою членства,
+     * а за активної термінової сесії - відповідь на неї
+     */
+    private void insertReport(ReportResponse report, GroupMemberRepository.ReportContext context) {
+        int inserted = reportRepository.insertIfMember(
+                report.getReportId(),
+                report.getGroupId(),
+                report.getUserId(),
+                report.getReportType().name(),
+                report.getSimpleResponse(),
+                report.getComment(),
+                report.getField1Value(),
+                report.getField2Value(),
+                report.getField3Value(),
+                report.getField4Value(),
+                report.getField5Value(),
+                report.getSubmittedAt());
+
+        // Учасника могли видалити між читанням контексту та вставкою
+        if (inserted == 0) {
+            throw new RuntimeException("Ви не є учасником цієї групи");
+        }
 
-        return reports.stream()
-                .map(this::mapToReportResponse)
-                .collect(Collectors.toList());
+        // Якщо є активна термінова сесія - записуємо відповідь (адміни не відповідають)
+        if (context.getUrgentSessionId() == null || context.getUrgentExpiresAt() == null
+                || !LocalDateTime.now(clock).isBefore(context.getUrgentExpiresAt())
+                || context.getRole() == GroupMember.Role.ADMIN) {
+            return;
+        }
+
+        int recorded = urgentResponseRepository.insertIfNotResponded(
+                UUID.randomUUID().toString(),
+                context.getUrgentSessionId(),
+                report.getGroupId(),
+                report.getUserId(),
+                report.getReportId(),
+                report.getSubmittedAt());
+        if (recorded > 0) {
+            log.info("Urgent response recorded: user {} for session {}", report.getUserId(), context.getUrgentSessionId());
+        }
+    }
+
+    /**
+     * Історія звітів користувача (від новіших до старіших)
+     * @param cursor курсор попередньої сторінки (X-Next-Cursor) або null
+     * @param limit розмір сторінки; без limit і cursor - вся історія
+     */
+    public ReportHistoryPage getAllMyReports(String userId, String cursor, Integer limit) {
+        HistoryPageRequest page = historyPageRequest(cursor, limit);
+        return historyPage(page,
+                pageable -> reportRepository.findUserPage(userId, page.cursorAt(), page.cursorId(), pageable),
+                pageable -> reportArchiveService.findUserHistory(userId, page.cursorAt(), page.cursorId(), pageable));
     }
 
-    public List<ReportResponse> getMyReports(String groupId, String userId) {
+    public ReportHistoryPage getMyReports(String groupId, String userId, String cursor, Integer limit) {
         groupMemberRepository.findByGroupIdAndUserId(groupId, userId)
                 .orElseThrow(() -> new RuntimeException("Ви не є учасником цієї групи"));
 
-        List<Report> reports = reportRepository.findByGroup_IdAndUser_IdOrderBySubmittedAtDesc(groupId, userId);
+        HistoryPageRequest page = historyPageRequest(cursor, limit);
+        return historyPage(page,
+                pageable -> reportRepository.findUserPageInGroup(
+                        groupId, userId, page.cursorAt(), page.cursorId(), pageable),
+                pageable -> reportArchiveService.findUserHistoryInGroup(
+                        groupId, userId, page.cursorAt(), page.cursorId(), pageable));
+    }
+
+    /**
+     * Параметри сторінки історії: курсор (submittedAt, id) останнього звіту попередньої сторінки та розмір.
+     * unpaged - клієнт не передав ні limit, ні cursor (вся історія, як раніше)
+     */
+    private record HistoryPageRequest(LocalDateTime cursorAt, String cursorId, int limit, boolean unpaged) {
+    }
 
-        return reports.stream()
+    private HistoryPageRequest historyPageRequest(String cursor, Integer limit) {
+        if (cursor == null && limit == null) {
+            return new HistoryPageRequest(null, null, 0, true);
+        }
+        int maxPageSize = reportConfig.getHistory().getMaxPageSize();
+        int size = limit == null ? maxPageSize : Math.min(Math.max(limit, 1), maxPageSize);
+        if (cursor == null) {
+            return new HistoryPageRequest(null, null, size, false);
+        }
+        int separator = cursor.indexOf(CURSOR_SEPARATOR);
+        try {
+            return new HistoryPageRequest(LocalDateTime.parse(cursor.substring(0, separator)),
+                    cursor.substring(separator + 1), size, false);
+        } catch (RuntimeException e) {
+            throw new BusinessException("Невірний курсор сторінки");
+        }
+    }
+
+    /**
+     * Гарячі звіти, доповнені архівними, якщо гарячих не вистачило на всю сторінку
+     * (архівні завжди старіші за гарячі, тож порядок від новіших до старіших зберігається).
+     * Читається на один звіт більше за limit - так відомо, чи є наступна сторінка
+     */
+    private ReportHistoryPage historyPage(HistoryPageRequest page,
+                                          Function<Pageable, List<Report>> hot,
+                                          Function<Pageable, List<ReportResponse>> archive) {
+        if (page.unpaged()) {
+            List<ReportResponse> result = hot.apply(Pageable.unpaged()).stream()
+                    .map(this::mapToReportResponse)
+                    .collect(Collectors.toList());
+            result.addAll(archive.apply(Pageable.unpaged()));
+            return new ReportHistoryPage(result, null);
+        }
+
+        int fetch = page.limit() + 1;
+        List<ReportResponse> result = hot.apply(PageRequest.of(0, fetch)).stream()
                 .map(this::mapToReportResponse)
                 .collect(Collectors.toList());
+        if (result.size() < fetch) {
+            result.addAll(archive.apply(PageRequest.of(0, fetch - result.size())));
+        }
+        if (result.size() <= page.limit()) {
+            return new ReportHistoryPage(result, null);
+        }
+        List<ReportResponse> reports = result.subList(0, page.limit());
+        ReportResponse last = reports.get(reports.size() - 1);
+        return new ReportHistoryPage(new ArrayList<>(reports),
+                last.getSubmittedAt().toString() + CURSOR_SEPARATOR + last.getReportId());
     }
 
     public ReportResponse getMyLastReport(String groupId, String userId) {
         groupMemberRepository.findByGroupIdAndUserId(groupId, userId)
                 .orElseThrow(() -> new RuntimeException("Ви не є учасником цієї групи"));
 
-        Report lastReport = reportRepository.findFirstByGroup_IdAndUser_IdOrderBySubmittedAtDesc(groupId, userId)
+        return reportRepository.findFirstByGroup_IdAndUser_IdOrderBySubmittedAtDesc(groupId, userId)
+                .map(this::mapToReportResponse)
+                .or(() -> reportArchiveService.findLastInGroup(groupId, userId))
                 .orElseThrow(() -> new RuntimeException("Звітів не знайдено"));
-
-        return mapToReportResponse(lastReport);
     }
 
     @Transactional(readOnly = true)
     public GroupStatusesResponse getGroupStatuses(String groupId, String userId) {
+        GroupStatusesEvent event = new GroupStatusesEvent();
+        long statementsBefore = SqlStatementCollector.currentCount();
+        event.begin();
+
         GroupMember requesterMember = groupMemberRepository.findByGroupIdAndUserId(groupId, userId)
                 .orElseThrow(() -> new RuntimeException("Ви не є учасником цієї групи"));
 
@@ -166,29 +325,28 @@ public class ReportService {
 
         List<GroupMember> members = groupMemberRepository.findByGroupId(groupId);
 
-        LocalDateTime serverTime = LocalDateTime.now();
+        LocalDateTime serverTime = LocalDateTime.now(clock);
         String timezone = "Europe/Kiev";
 
+        // Останні звіти та відповіді на терміновий збір - одним запитом на групу, а не на кожного учасника
+        Map<String, Report> lastReports = reportRepository.findLatestPerUserInGroup(groupId).stream()
+                .collect(Collectors.toMap(report -> report.getUser().getId(), Function.identity(), (a, b) -> a));
+        Map<String, LocalDateTime> urgentResponses = activeUrgentSessionId == null ? Map.of()
+                : urgentResponseRepository.findByUrgentSessionId(activeUrgentSessionId).stream()
+                        .collect(Collectors.toMap(UrgentResponse::getUserId, UrgentResponse::getRespondedAt, (a, b) -> a));
+
         // Отримуємо статуси користувачів
         List<UserStatusResponse> userStatuses = members.stream()
                 // Фільтруємо тільки ACCEPTED користувачів (ігноруємо PENDING)
                 .filter(member -> member.getStatus() == GroupMember.MemberStatus.ACCEPTED)
                 .map(member -> {
-                    Report lastReport = reportRepository
-                            .findFirstByGroup_IdAndUser_IdOrderBySubmittedAtDesc(groupId, member.getUser().getId())
-                            .orElse(null);
+                    Report lastReport = lastReports.get(member.getUser().getId());
 
                     // MVZ - час останнього звіту (завжди відправляємо якщо є)
                     LocalDateTime lastReportTime = (lastReport != null) ? lastReport.getSubmittedAt() : null;
 
                     // Перевіряємо чи відповів користувач на терміновий запит
-                    LocalDateTime urgentRespondedAt = null;
-                    if (activeUrgentSessionId != null) {
-                        urgentRespondedAt = urgentResponseRepository
-                                .findByUrgentSessionIdAndUserId(activeUrgentSessionId, member.getUser().getId())
-                                .map(UrgentResponse::getRespondedAt)
-                                .orElse(null);
-                    }
+                    LocalDateTime urgentRespondedAt = urgentResponses.get(member.getUser().getId());
 
                     return createStatusResponse(member, lastReport, lastReportTime, prevScheduled, nextScheduled,
                             serverTime, timezone, isAdmin, urgentRespondedAt);
@@ -198,6 +356,14 @@ public class ReportService {
         // Формуємо інформацію про терміновий збір
         UrgentSessionInfo urgentSession = buildUrgentSessionInfo(group, members, serverTime);
 
+        event.end();
+        if (event.shouldCommit()) {
+            event.groupId = groupId;
+            event.members = userStatuses.size();
+            event.statements = SqlStatementCollector.currentCount() - statementsBefore;
+            event.commit();
+        }
+
         return GroupStatusesResponse.builder()
                 .users(userStatuses)
                 .urgentSession(urgentSession)
@@ -223,7 +389,7 @@ public class ReportService {
 
         // Дешифруємо повідомлення
         String originalMessage = request.getMessage();
-        String message = rsaKeyService.decryptIfEncrypted(originalMessage);
+        String message = rsaKeyService.fieldDecryptor(request).decrypt(originalMessage);
 
         // Валідуємо довжину тільки якщо повідомлення було дешифровано
         // (якщо дешифрування не вдалось, message == originalMessage, і це зашифрований текст)
@@ -233,7 +399,7 @@ public class ReportService {
         }
 
         // Створюємо нову термінову сесію
-        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime now = LocalDateTime.now(clock);
         String sessionId = UUID.randomUUID().toString();
         int deadlineMinutes = request.getDeadlineMinutes() > 0 ? request.getDeadlineMinutes() : 30;
 
@@ -311,7 +477,7 @@ public class ReportService {
         groupRepository.save(group);
     }
 
-    public List<ReportResponse> getAllGroupReports(String groupId, String userId) {
+    public ReportHistoryPage getAllGroupReports(String groupId, String userId, String cursor, Integer limit) {
         GroupMember adminMember = groupMemberRepository.findByGroupIdAndUserId(groupId, userId)
                 .orElseThrow(() -> new RuntimeException("Ви не є учасником цієї групи"));
 
@@ -319,14 +485,14 @@ public class ReportService {
             throw new RuntimeException("Тільки адміністратор може переглядати всі звіти");
         }
 
-        List<Report> reports = reportRepository.findByGroup_IdOrderBySubmittedAtDesc(groupId);
-
-        return reports.stream()
-                .map(this::mapToReportResponse)
-                .collect(Collectors.toList());
+        HistoryPageRequest page = historyPageRequest(cursor, limit);
+        return historyPage(page,
+                pageable -> reportRepository.findGroupPage(groupId, page.cursorAt(), page.cursorId(), pageable),
+                pageable -> reportArchiveService.findGroupHistory(groupId, page.cursorAt(), page.cursorId(), pageable));
     }
 
-    public List<ReportResponse> getUserReportsInGroup(String groupId, String targetUserId, String requesterId) {
+    public ReportHistoryPage getUserReportsInGroup(String groupId, String targetUserId, String requesterId,
+                                                   String cursor, Integer limit) {
         GroupMember requesterMember = groupMemberRepository.findByGroupIdAndUserId(groupId, requesterId)
                 .orElseThrow(() -> new RuntimeException("Ви не є учасником цієї групи"));
 
@@ -337,14 +503,15 @@ public class ReportService {
         groupMemberRepository.findByGroupIdAndUserId(groupId, targetUserId)
                 .orElseThrow(() -> new RuntimeException("Користувач не є учасником цієї групи"));
 
-        List<Report> reports = reportRepository.findByGroup_IdAndUser_IdOrderBySubmittedAtDesc(groupId, targetUserId);
-
-        return reports.stream()
-                .map(this::mapToReportResponse)
-                .collect(Collectors.toList());
+        HistoryPageRequest page = historyPageRequest(cursor, limit);
+        return historyPage(page,
+                pageable -> reportRepository.findUserPageInGroup(
+                        groupId, targetUserId, page.cursorAt(), page.cursorId(), pageable),
+                pageable -> reportArchiveService.findUserHistoryInGroup(
+                        groupId, targetUserId, page.cursorAt(), page.cursorId(), pageable));
     }
 
-    private UserStatusResponse createStatusResponse(
+    UserStatusResponse createStatusResponse(
             GroupMember member,
             Report lastReport,
             LocalDateTime lastReportTime,
@@ -447,12 +614,12 @@ public class ReportService {
     /**
      * Обчислює наступний запланований час звіту для групи
      */
-    private LocalDateTime calculateNextScheduledTime(Group group) {
+    LocalDateTime calculateNextScheduledTime(Group group) {
         if (group.getScheduleType() == null) {
             return null;
         }
 
-        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime now = LocalDateTime.now(clock);
 
         if (group.getScheduleType() == Group.ScheduleType.FIXED_TIMES) {
             return getNextFixedTime(group, now);
@@ -466,12 +633,12 @@ public class ReportService {
     /**
      * Обчислює попередній запланований час звіту для групи
      */
-    private LocalDateTime calculatePreviousScheduledTime(Group group) {
+    LocalDateTime calculatePreviousScheduledTime(Group group) {
         if (group.getScheduleType() == null) {
             return null;
         }
 
-        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime now = LocalDateTime.now(clock);
 
         if (group.getScheduleType() == Group.ScheduleType.FIXED_TIMES) {
             return getPreviousFixedTime(group, now);
@@ -655,7 +822,7 @@ public class ReportService {
         if (group.getUrgentSessionId() == null || group.getUrgentExpiresAt() == null) {
             return false;
         }
-        return LocalDateTime.now().isBefore(group.getUrgentExpiresAt());
+        return LocalDateTime.now(clock).isBefore(group.getUrgentExpiresAt());
     }
 
     /**
@@ -702,35 +869,4 @@ public class ReportService {
                 .remainingSeconds(remainingSeconds)
                 .build();
     }
-
-    /**
-     * Записує відповідь на терміновий запит якщо є активна сесія
-     */
-    private void recordUrgentResponseIfActive(Group group, String userId, String reportId) {
-        if (!isUrgentSessionActive(group)) {
-            return;
-        }
-
-        // Перевіряємо чи користувач ще не відповідав
-        if (urgentResponseRepository.existsByUrgentSessionIdAndUserId(group.getUrgentSessionId(), userId)) {
-            return;
-        }
-
-        // Перевіряємо чи користувач не адміністратор (адміни не відповідають)
-        GroupMember member = groupMemberRepository.findByGroupIdAndUserId(group.getId(), userId).orElse(null);
-        if (member != null && member.getRole() == GroupMember.Role.ADMIN) {
-            return;
-        }
-
-        UrgentResponse response = UrgentResponse.builder()
-                .urgentSessionId(group.getUrgentSessionId())
-                .groupId(group.getId())
-                .userId(userId)
-                .reportId(reportId)
-                .respondedAt(LocalDateTime.now())
-                .build();
-
-        urgentResponseRepository.save(response);
-        log.info("Urgent response recorded: user {} for session {}", userId, group.getUrgentSessionId());
-    }
-}
\ No newline at end of file
+}
@@ -2,21 +2,43 @@ package com.zvit.service;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.zvit.config.CryptoConfig;
+import com.zvit.config.MetricsConfig;
+import com.zvit.dto.response.EncryptedPayload;
+import com.zvit.exception.BusinessException;
+import com.zvit.jfr.CryptoEvent;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
+import org.springframework.util.StreamUtils;
 
 import javax.crypto.Cipher;
+import javax.crypto.CipherOutputStream;
+import javax.crypto.SecretKey;
+import javax.crypto.spec.GCMParameterSpec;
 import javax.crypto.spec.SecretKeySpec;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
 import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
 import java.security.KeyFactory;
 import java.security.PublicKey;
+import java.security.SecureRandom;
 import java.security.spec.X509EncodedKeySpec;
 import java.util.Base64;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
 
 /**
  * Сервіс для шифрування відповідей API.
  * Використовує AES для шифрування чутливих даних перед відправкою клієнту.
+ * Якщо токен запиту має сесійний ключ (SessionKeyService) - відповідь шифрується AES-GCM цим ключем,
+ * інакше - статичним ключем з конфігурації (старі клієнти).
+ * Ключ з конфігурації обчислюється один раз, Cipher-и кешуються по потоках.
  */
 @Slf4j
 @Service
@@ -25,9 +47,147 @@ public class ResponseEncryptionService {
 
     private final CryptoConfig cryptoConfig;
     private final ObjectMapper objectMapper;
+    private final SessionKeyService sessionKeyService;
+    private final MeterRegistry meterRegistry;
 
     private static final String ALGORITHM = "AES";
     private static final String TRANSFORMATION = "AES/ECB/PKCS5Padding";
+    private static final String GCM_TRANSFORMATION = "AES/GCM/NoPadding";
+    private static final int GCM_IV_LENGTH = 12;
+    private static final int GCM_TAG_BITS = 128;
+    private static final int COMPRESS_BUFFER_SIZE = 8192;
+
+    private final SecureRandom secureRandom = new SecureRandom();
+
+    private SecretKeySpec staticKey;
+
+    private Timer aesEncryptTimer;
+    private Timer rsaWrapTimer;
+
+    /** Cipher не потокобезпечний - окремий екземпляр на потік, ініціалізується один раз (ECB) або на кожне IV (GCM) */
+    private final ThreadLocal<Cipher> staticEncryptCipher = ThreadLocal.withInitial(() -> createStaticCipher(Cipher.ENCRYPT_MODE));
+    private final ThreadLocal<Cipher> staticDecryptCipher = ThreadLocal.withInitial(() -> createStaticCipher(Cipher.DECRYPT_MODE));
+    private final ThreadLocal<Cipher> gcmCipher = ThreadLocal.withInitial(() -> createCipher(GCM_TRANSFORMATION));
+
+    @PostConstruct
+    public void init() {
+        this.staticKey = getSecretKey();
+        aesEncryptTimer = Timer.builder(MetricsConfig.CRYPTO_TIMER).tag("op", "aes.encrypt")
+                .publishPercentileHistogram().register(meterRegistry);
+        rsaWrapTimer = Timer.builder(MetricsConfig.CRYPTO_TIMER).tag("op", "rsa.wrap")
+                .publishPercentileHistogram().register(meterRegistry);
+    }
+
+    private Cipher createStaticCipher(int mode) {
+        Cipher cipher = createCipher(TRANSFORMATION);
+        try {
+            cipher.init(mode, staticKey);
+        } catch (GeneralSecurityException e) {
+            throw new RuntimeException("Помилка ініціалізації AES Cipher", e);
+        }
+        return cipher;
+    }
+
+    private static Cipher createCipher(String transformation) {
+        try {
+            return Cipher.getInstance(transformation);
+        } catch (GeneralSecurityException e) {
+            throw new RuntimeException("Помилка ініціалізації AES Cipher", e);
+        }
+    }
+
+    /**
+     * Потокове шифрування об'єкта: JSON пишеться Jackson-ом в шифруючий потік,
+     * а Base64 шифротексту - прямо у відповідь під час її запису (див. EncryptedPayload).
+     * Ключ (сесійний або статичний) визначається зараз, в контексті поточного запиту.
+     * Формат такий самий як у encryptObject.
+     */
+    public EncryptedPayload encryptObjectStreaming(Object data) {
+        SecretKey sessionKey = sessionKeyService.currentSessionKey().orElse(null);
+        return new EncryptedPayload(data, new PayloadEncryptor(sessionKey));
+    }
+
+    /**
+     * Шифрування payload сесійним ключем (AES-GCM, IV на початку) або статичним (AES-ECB)
+     */
+    private class PayloadEncryptor implements EncryptedPayload.Encryptor {
+
+        private final SecretKey sessionKey;
+
+        PayloadEncryptor(SecretKey sessionKey) {
+            this.sessionKey = sessionKey;
+        }
+
+        @Override
+        public String cipherName() {
+            return sessionKey != null ? SessionKeyService.CIPHER_AES_GCM : "AES-ECB";
+        }
+
+        @Override
+        public void writeBase64(Object value, OutputStream out) throws IOException {
+            // Base64 потік закривається разом з шифруючим (дописує padding), а вихідний потік - ні
+            write(value, Base64.getEncoder().wrap(StreamUtils.nonClosing(out)), false);
+        }
+
+        @Override
+        public void writeCompressed(Object value, OutputStream out) throws IOException {
+            // AES шифротекст не стискається, тому стискаємо JSON до шифрування
+            write(value, StreamUtils.nonClosing(out), true);
+        }
+
+        private void write(Object value, OutputStream out, boolean compress) throws IOException {
+            ThreadLocal<Cipher> cipherHolder = sessionKey != null ? gcmCipher : staticEncryptCipher;
+            Cipher cipher = cipherHolder.get();
+            CryptoEvent event = new CryptoEvent();
+            event.begin();
+            // Розмір шифротексту рахується тільки під час JFR запису
+            CountingOutputStream counted = event.isEnabled() ? new CountingOutputStream(out) : null;
+            OutputStream target = counted != null ? counted : out;
+            long startedAt = System.nanoTime();
+            try {
+                if (sessionKey != null) {
+                    byte[] iv = new byte[GCM_IV_LENGTH];
+                    secureRandom.nextBytes(iv);
+                    cipher.init(Cipher.ENCRYPT_MODE, sessionKey, new GCMParameterSpec(GCM_TAG_BITS, iv));
+                    target.write(iv);
+                }
+                OutputStream cipherOut = new CipherOutputStream(target, cipher);
+                // writeValue закриває потік: gzip дописує трейлер, CipherOutputStream робить doFinal (padding / GCM тег)
+                objectMapper.writeValue(compress ? new GZIPOutputStream(cipherOut, COMPRESS_BUFFER_SIZE) : cipherOut, value);
+                aesEncryptTimer.record(System.nanoTime() - startedAt, TimeUnit.NANOSECONDS);
+                event.complete("aes.encrypt.stream", counted != null ? counted.count : -1);
+            } catch (IOException | GeneralSecurityException | RuntimeException e) {
+                // Стан Cipher після помилки не гарантований
+                cipherHolder.remove();
+                log.error("Streaming encryption failed", e);
+                throw e instanceof IOException io ? io : new IOException("Помилка шифрування даних", e);
+            }
+        }
+    }
+
+    /**
+     * Рахує байти, записані в потік (для JFR події потокового шифрування)
+     */
+    private static final class CountingOutputStream extends FilterOutputStream {
+
+        private long count;
+
+        CountingOutputStream(OutputStream out) {
+            super(out);
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            out.write(b);
+            count++;
+        }
+
+        @Override
+        public void write(byte[] bytes, int offset, int length) throws IOException {
+            out.write(bytes, offset, length);
+            count += length;
+        }
+    }
 
     /**
      * Шифрує об'єкт у JSON та повертає зашифрований Base64 рядок
@@ -44,31 +204,77 @@ public class ResponseEncryptionService {
 
     /**
      * Шифрує рядок за допомогою AES
+     * (сесійним ключем поточного запиту, якщо він є)
      */
     public String encrypt(String data) {
+        Optional<SecretKey> sessionKey = sessionKeyService.currentSessionKey();
+        if (sessionKey.isPresent()) {
+            return encryptWithSessionKey(data, sessionKey.get());
+        }
+        CryptoEvent event = new CryptoEvent();
+        event.begin();
+        long startedAt = System.nanoTime();
         try {
-            SecretKeySpec secretKey = getSecretKey();
-            Cipher cipher = Cipher.getInstance(TRANSFORMATION);
-            cipher.init(Cipher.ENCRYPT_MODE, secretKey);
-            byte[] encryptedBytes = cipher.doFinal(data.getBytes(StandardCharsets.UTF_8));
+            byte[] encryptedBytes = staticEncryptCipher.get().doFinal(data.getBytes(StandardCharsets.UTF_8));
+            aesEncryptTimer.record(System.nanoTime() - startedAt, TimeUnit.NANOSECONDS);
+            event.complete("aes.encrypt", encryptedBytes.length);
             return Base64.getEncoder().encodeToString(encryptedBytes);
         } catch (Exception e) {
+            staticEncryptCipher.remove();
             log.error("AES encryption failed", e);
             throw new RuntimeException("Помилка шифрування", e);
         }
     }
 
+    /**
+     * Шифрує рядок AES-GCM вказаним ключем: Base64(IV 12 байт + шифротекст + тег)
+     */
+    public String encryptWithSessionKey(String data, SecretKey key) {
+        CryptoEvent event = new CryptoEvent();
+        event.begin();
+        long startedAt = System.nanoTime();
+        try {
+            byte[] iv = new byte[GCM_IV_LENGTH];
+            secureRandom.nextBytes(iv);
+
+            Cipher cipher = gcmCipher.get();
+            cipher.init(Cipher.ENCRYPT_MODE, key, new GCMParameterSpec(GCM_TAG_BITS, iv));
+
+            byte[] plain = data.getBytes(StandardCharsets.UTF_8);
+            byte[] result = new byte[GCM_IV_LENGTH + cipher.getOutputSize(plain.length)];
+            System.arraycopy(iv, 0, result, 0, GCM_IV_LENGTH);
+            cipher.doFinal(plain, 0, plain.length, result, GCM_IV_LENGTH);
+            aesEncryptTimer.record(System.nanoTime() - startedAt, TimeUnit.NANOSECONDS);
+            event.complete("aes.encrypt", result.length);
+            return Base64.getEncoder().encodeToString(result);
+        } catch (Exception e) {
+            gcmCipher.remove();
+            log.error("AES-GCM encryption failed", e);
+            throw new RuntimeException("Помилка шифрування", e);
+        }
+    }
+
+    /**
+     * Шифрує об'єкт у JSON сесійним ключем (AES-GCM)
+     */
+    public String encryptObjectWithSessionKey(Object data, SecretKey key) {
+        try {
+            return encryptWithSessionKey(objectMapper.writeValueAsString(data), key);
+        } catch (Exception e) {
+            log.error("Failed to encrypt object", e);
+            throw new RuntimeException("Помилка шифрування даних", e);
+        }
+    }
+
     /**
      * Дешифрує Base64 рядок
      */
     public String decrypt(String encryptedData) {
         try {
-            SecretKeySpec secretKey = getSecretKey();
-            Cipher cipher = Cipher.getInstance(TRANSFORMATION);
-            cipher.init(Cipher.DECRYPT_MODE, secretKey);
-            byte[] decryptedBytes = cipher.doFinal(Base64.getDecoder().decode(encryptedData));
+            byte[] decryptedBytes = staticDecryptCipher.get().doFinal(Base64.getDecoder().decode(encryptedData));
             return new String(decryptedBytes, StandardCharsets.UTF_8);
         } catch (Exception e) {
+            staticDecryptCipher.remove();
             log.error("AES decryption failed", e);
             throw new RuntimeException("Помилка розшифрування", e);
         }
@@ -118,7 +324,22 @@ public class ResponseEncryptionService {
             log.warn("Client public key not provided, returning plain AES key");
             return getEncryptionKeyBase64();
         }
+        return wrapKey(getEncryptionKeyBase64(), clientPublicKeyBase64);
+    }
+
+    /**
+     * Повертає сесійний ключ, зашифрований публічним ключем клієнта.
+     * Відкритим сесійний ключ не передається ніколи (AuthService.login перевіряє ключ клієнта заздалегідь)
+     */
+    public String getSessionKeyEncrypted(SecretKey sessionKey, String clientPublicKeyBase64) {
+        if (clientPublicKeyBase64 == null || clientPublicKeyBase64.isEmpty()) {
+            throw new BusinessException("Для сесійного шифрування потрібен публічний ключ клієнта");
+        }
+        return wrapKey(Base64.getEncoder().encodeToString(sessionKey.getEncoded()), clientPublicKeyBase64);
+    }
 
+    private String wrapKey(String aesKeyBase64, String clientPublicKeyBase64) {
+        long startedAt = System.nanoTime();
         try {
             // Декодуємо публічний ключ клієнта
             byte[] publicKeyBytes = Base64.getDecoder().decode(clientPublicKeyBase64);
@@ -132,9 +353,9 @@ public class ResponseEncryptionService {
 
             // Шифруємо Base64-encoded AES ключ (не сирі байти!)
             // Це дозволяє клієнту отримати валідний Base64 рядок після RSA дешифрування
-            String aesKeyBase64 = getEncryptionKeyBase64();
             byte[] encryptedKey = cipher.doFinal(aesKeyBase64.getBytes(StandardCharsets.UTF_8));
             String result = Base64.getEncoder().encodeToString(encryptedKey);
+            rsaWrapTimer.record(System.nanoTime() - startedAt, TimeUnit.NANOSECONDS);
 
             log.debug("AES key (Base64) encrypted with client RSA public key (E2E)");
             return result;
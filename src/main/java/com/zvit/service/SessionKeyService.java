@@ -0,0 +1,151 @@
+package com.zvit.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import javax.crypto.KeyGenerator;
+import javax.crypto.SecretKey;
+import javax.crypto.spec.SecretKeySpec;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Сесійні AES-GCM ключі.
+ * Ключ генерується при логіні (передається клієнту зашифрованим його RSA ключем)
+ * і зберігається за ID токена (jti) до закінчення терміну дії токена.
+ * Після логіну запити та відповіді шифруються тільки симетрично, без RSA на кожен запит.
+ * Ключі записуються в SharedStateStore (зашифрованими ключем app.encryption.key), тому токен
+ * працює на будь-якому інстансі; локальна мапа - кеш, щоб не звертатись до сховища на кожен запит.
+ * Видалення ключа (logout) публікується в CacheInvalidationBus, щоб кеші інших інстансів його забули.
+ */
+@Slf4j
+@Service
+public class SessionKeyService {
+
+    /** Атрибут запиту з ID токена, встановлюється в JwtAuthenticationFilter */
+    public static final String TOKEN_ID_ATTRIBUTE = SessionKeyService.class.getName() + ".tokenId";
+
+    /** Позначення шифру сесії (в запиті логіну та у відповіді) */
+    public static final String CIPHER_AES_GCM = "AES-GCM";
+
+    private static final String NAMESPACE = "session-key";
+
+    private final Map<String, SessionKey> keys = new ConcurrentHashMap<>();
+    private final KeyGenerator keyGenerator;
+    private final SharedStateStore sharedStateStore;
+    private final EncryptionService encryptionService;
+    private final CacheInvalidationBus cacheInvalidationBus;
+
+    public SessionKeyService(SharedStateStore sharedStateStore,
+                             EncryptionService encryptionService,
+                             CacheInvalidationBus cacheInvalidationBus) {
+        this.sharedStateStore = sharedStateStore;
+        this.encryptionService = encryptionService;
+        this.cacheInvalidationBus = cacheInvalidationBus;
+        cacheInvalidationBus.subscribe(CacheInvalidationBus.SESSION_KEYS, tokenId -> {
+            if (tokenId == null) {
+                keys.clear();
+            } else {
+                keys.remove(tokenId);
+            }
+        });
+        try {
+            this.keyGenerator = KeyGenerator.getInstance("AES");
+            this.keyGenerator.init(256);
+        } catch (NoSuchAlgorithmException e) {
+            throw new RuntimeException("Помилка ініціалізації генератора ключів", e);
+        }
+    }
+
+    /**
+     * Створює ключ сесії для токена
+     */
+    public SecretKey createSessionKey(String tokenId, long expiresAtMillis) {
+        SecretKey key;
+        synchronized (keyGenerator) {
+            key = keyGenerator.generateKey();
+        }
+        SessionKey sessionKey = new SessionKey(key, expiresAtMillis);
+        sharedStateStore.put(NAMESPACE, tokenId, serialize(sessionKey),
+                Duration.ofMillis(Math.max(1, expiresAtMillis - System.currentTimeMillis())));
+        keys.put(tokenId, sessionKey);
+        return key;
+    }
+
+    /**
+     * Ключ сесії за ID токена
+     */
+    public Optional<SecretKey> findSessionKey(String tokenId) {
+        if (tokenId == null) {
+            return Optional.empty();
+        }
+        SessionKey sessionKey = keys.get(tokenId);
+        if (sessionKey == null) {
+            // Токен могли видати на іншому інстансі
+            sessionKey = sharedStateStore.get(NAMESPACE, tokenId).map(this::deserialize).orElse(null);
+            if (sessionKey != null) {
+                keys.put(tokenId, sessionKey);
+            }
+        }
+        if (sessionKey == null || sessionKey.expiresAtMillis() < System.currentTimeMillis()) {
+            return Optional.empty();
+        }
+        return Optional.of(sessionKey.key());
+    }
+
+    /**
+     * Ключ сесії поточного HTTP запиту (якщо токен запиту має сесійний ключ)
+     */
+    public Optional<SecretKey> currentSessionKey() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes == null) {
+            return Optional.empty();
+        }
+        Object tokenId = attributes.getAttribute(TOKEN_ID_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+        return findSessionKey((String) tokenId);
+    }
+
+    /**
+     * Видаляє ключ сесії (при виході)
+     */
+    public void removeSessionKey(String tokenId) {
+        keys.remove(tokenId);
+        sharedStateStore.remove(NAMESPACE, tokenId);
+        cacheInvalidationBus.publish(CacheInvalidationBus.SESSION_KEYS, tokenId);
+    }
+
+    /**
+     * Видаляє з кешу ключі прострочених токенів (у сховищі їх прибирає TTL)
+     */
+    @Scheduled(fixedRate = 600000) // 10 хвилин
+    public void cleanupExpiredKeys() {
+        long now = System.currentTimeMillis();
+        int before = keys.size();
+        keys.values().removeIf(sessionKey -> sessionKey.expiresAtMillis() < now);
+        int removed = before - keys.size();
+        if (removed > 0) {
+            log.debug("Removed {} expired session keys", removed);
+        }
+    }
+
+    private String serialize(SessionKey sessionKey) {
+        String key = Base64.getEncoder().encodeToString(sessionKey.key().getEncoded());
+        return sessionKey.expiresAtMillis() + ":" + encryptionService.encrypt(key);
+    }
+
+    private SessionKey deserialize(String value) {
+        int separator = value.indexOf(':');
+        byte[] key = Base64.getDecoder().decode(encryptionService.decrypt(value.substring(separator + 1)));
+        return new SessionKey(new SecretKeySpec(key, "AES"), Long.parseLong(value.substring(0, separator)));
+    }
+
+    private record SessionKey(SecretKey key, long expiresAtMillis) {
+    }
+}
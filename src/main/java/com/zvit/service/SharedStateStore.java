@@ -0,0 +1,50 @@
+package com.zvit.service;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Сховище стану, спільного для всіх інстансів бекенду (ліміти запитів, сесійні ключі,
+ * токени дашборду, кільце серверних ключів).
+ * Реалізація обирається shared-state.type: memory - в пам'яті одного інстансу,
+ * jdbc - таблиці в основній БД, що дозволяє запускати кілька контейнерів без sticky sessions.
+ * Записи групуються за простором імен (namespace) і мають обов'язковий TTL.
+ */
+public interface SharedStateStore {
+
+    /**
+     * Значення за ключем (прострочені записи не повертаються)
+     */
+    Optional<String> get(String namespace, String key);
+
+    /**
+     * Всі непрострочені записи простору імен
+     */
+    Map<String, String> getAll(String namespace);
+
+    /**
+     * Записує або перезаписує значення
+     */
+    void put(String namespace, String key, String value, Duration ttl);
+
+    /**
+     * Записує значення тільки якщо ключа ще немає (або попередній запис прострочено)
+     * @return true якщо записано саме це значення
+     */
+    boolean putIfAbsent(String namespace, String key, String value, Duration ttl);
+
+    void remove(String namespace, String key);
+
+    /**
+     * Атомарно бере один дозвіл з token bucket ключа
+     * @return 0 якщо дозволено, інакше скільки мілісекунд чекати
+     */
+    long tryAcquire(String namespace, String key, RateLimit limit);
+
+    /**
+     * Параметри token bucket: capacity запитів підряд, далі refillTokens за refillPeriodMs
+     */
+    record RateLimit(long capacity, long refillTokens, long refillPeriodMs) {
+    }
+}
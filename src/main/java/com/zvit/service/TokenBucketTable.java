@@ -0,0 +1,280 @@
+package com.zvit.service;
+
+import java.util.Arrays;
+
+/**
+ * Таблиця token bucket-ів (простір імен, ключ) для InMemorySharedStateStore.
+ * Розбита на страйпи з окремими блокуваннями, кожен страйп - хеш-таблиця з відкритою адресацією
+ * на паралельних примітивних масивах (ключ, простір імен, ліміт, токени, час оновлення),
+ * тому запит не створює об'єктів.
+ * Відро, що знову наповнилось до ємності, нічим не відрізняється від відсутнього і видаляється
+ * колесом таймерів (timing wheel) страйпа: запис кладеться в слот часу, коли відро стане повним,
+ * і перевіряється лише коли колесо дійде до цього слота.
+ * Токени зберігаються з фіксованою точністю (1 токен = TOKEN_SCALE одиниць).
+ */
+final class TokenBucketTable {
+
+    static final long TOKEN_SCALE = 1_000_000_000L;
+
+    private static final int STRIPES = 64;
+    private static final int INITIAL_CAPACITY = 16;
+    private static final int WHEEL_SLOTS = 1024;
+    private static final long WHEEL_TICK_MS = 1000;
+
+    private final Stripe[] stripes = new Stripe[STRIPES];
+
+    TokenBucketTable(long nowMs) {
+        for (int i = 0; i < STRIPES; i++) {
+            stripes[i] = new Stripe(nowMs / WHEEL_TICK_MS);
+        }
+    }
+
+    /**
+     * Бере один токен
+     * @param capacity ємність відра (в одиницях TOKEN_SCALE)
+     * @param refillPerMs поповнення за мілісекунду (в одиницях TOKEN_SCALE)
+     * @return 0 якщо дозволено, інакше через скільки мс з'явиться токен
+     */
+    long tryAcquire(int namespace, String key, long capacity, long refillPerMs, long nowMs) {
+        int hash = hash(key, namespace);
+        Stripe stripe = stripes[hash & (STRIPES - 1)];
+        synchronized (stripe) {
+            return stripe.acquire(hash, namespace, key, capacity, refillPerMs, nowMs);
+        }
+    }
+
+    /**
+     * Просуває колеса таймерів до поточного часу, видаляючи відра, що вже наповнились
+     * @return кількість видалених записів
+     */
+    int expire(long nowMs) {
+        int removed = 0;
+        for (Stripe stripe : stripes) {
+            synchronized (stripe) {
+                removed += stripe.advance(nowMs);
+            }
+        }
+        return removed;
+    }
+
+    int size() {
+        int size = 0;
+        for (Stripe stripe : stripes) {
+            synchronized (stripe) {
+                size += stripe.size;
+            }
+        }
+        return size;
+    }
+
+    private static int hash(String key, int namespace) {
+        int h = key.hashCode() * 31 + namespace;
+        h ^= h >>> 16;
+        h *= 0x85ebca6b;
+        h ^= h >>> 13;
+        return h;
+    }
+
+    private static final class Stripe {
+
+        private String[] keys = new String[INITIAL_CAPACITY];
+        private int[] hashes = new int[INITIAL_CAPACITY];
+        private int[] namespaces = new int[INITIAL_CAPACITY];
+        private long[] capacities = new long[INITIAL_CAPACITY];
+        private long[] refills = new long[INITIAL_CAPACITY];
+        private long[] tokens = new long[INITIAL_CAPACITY];
+        private long[] updatedAt = new long[INITIAL_CAPACITY];
+        private int size;
+
+        /** Слоти колеса: ключі та простори імен записів, що можуть стати повними в цьому тіку */
+        private final String[][] wheelKeys = new String[WHEEL_SLOTS][];
+        private final int[][] wheelNamespaces = new int[WHEEL_SLOTS][];
+        private final int[] wheelSizes = new int[WHEEL_SLOTS];
+        private long currentTick;
+
+        Stripe(long tick) {
+            this.currentTick = tick;
+        }
+
+        long acquire(int hash, int namespace, String key, long capacity, long refillPerMs, long nowMs) {
+            int index = find(hash, namespace, key);
+            if (index < 0) {
+                index = insert(hash, namespace, key);
+                tokens[index] = capacity;
+                updatedAt[index] = nowMs;
+                schedule(key, namespace, nowMs);
+            }
+            // Ліміт міг змінитись (інший виклик з тим самим ключем) - діє останній
+            capacities[index] = capacity;
+            refills[index] = refillPerMs;
+
+            // Обмежуємо проміжок часом повного наповнення, щоб добуток не переповнився
+            long elapsed = Math.min(Math.max(0, nowMs - updatedAt[index]), capacity / refillPerMs + 1);
+            long available = Math.min(capacity, tokens[index] + elapsed * refillPerMs);
+            updatedAt[index] = nowMs;
+            if (available >= TOKEN_SCALE) {
+                tokens[index] = available - TOKEN_SCALE;
+                return 0;
+            }
+            tokens[index] = available;
+            long missing = TOKEN_SCALE - available;
+            return (missing + refillPerMs - 1) / refillPerMs;
+        }
+
+        private long fullAt(int index) {
+            return updatedAt[index] + (capacities[index] - tokens[index] + refills[index] - 1) / refills[index];
+        }
+
+        int advance(long nowMs) {
+            long nowTick = nowMs / WHEEL_TICK_MS;
+            int removed = 0;
+            // Якщо пропущено більше повного оберту - достатньо обійти кожен слот один раз
+            long fromTick = Math.max(currentTick + 1, nowTick - WHEEL_SLOTS + 1);
+            for (long tick = fromTick; tick <= nowTick; tick++) {
+                currentTick = tick;
+                int slot = (int) (tick & (WHEEL_SLOTS - 1));
+                int count = wheelSizes[slot];
+                if (count == 0) {
+                    continue;
+                }
+                String[] slotKeys = wheelKeys[slot];
+                int[] slotNamespaces = wheelNamespaces[slot];
+                // Слот звільняється до перепланування, перепланування йде вже в наступні тіки
+                wheelKeys[slot] = null;
+                wheelNamespaces[slot] = null;
+                wheelSizes[slot] = 0;
+                for (int i = 0; i < count; i++) {
+                    String key = slotKeys[i];
+                    int namespace = slotNamespaces[i];
+                    int index = find(hash(key, namespace), namespace, key);
+                    if (index < 0) {
+                        continue;
+                    }
+                    long fullAt = fullAt(index);
+                    if (fullAt <= nowMs) {
+                        removeAt(index);
+                        removed++;
+                    } else {
+                        schedule(key, namespace, fullAt);
+                    }
+                }
+            }
+            currentTick = Math.max(currentTick, nowTick);
+            return removed;
+        }
+
+        /**
+         * Кладе запис у слот колеса. Час далі за один оберт обрізається до останнього слота -
+         * тоді запис просто буде переплановано при його обробці.
+         */
+        private void schedule(String key, int namespace, long atMs) {
+            long tick = Math.max(atMs / WHEEL_TICK_MS, currentTick + 1);
+            tick = Math.min(tick, currentTick + WHEEL_SLOTS - 1);
+            int slot = (int) (tick & (WHEEL_SLOTS - 1));
+            int count = wheelSizes[slot];
+            if (wheelKeys[slot] == null) {
+                wheelKeys[slot] = new String[4];
+                wheelNamespaces[slot] = new int[4];
+            } else if (count == wheelKeys[slot].length) {
+                wheelKeys[slot] = Arrays.copyOf(wheelKeys[slot], count * 2);
+                wheelNamespaces[slot] = Arrays.copyOf(wheelNamespaces[slot], count * 2);
+            }
+            wheelKeys[slot][count] = key;
+            wheelNamespaces[slot][count] = namespace;
+            wheelSizes[slot] = count + 1;
+        }
+
+        private int find(int hash, int namespace, String key) {
+            int mask = keys.length - 1;
+            for (int i = hash & mask; keys[i] != null; i = (i + 1) & mask) {
+                if (hashes[i] == hash && namespaces[i] == namespace && keys[i].equals(key)) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+
+        private int insert(int hash, int namespace, String key) {
+            if ((size + 1) * 2 > keys.length) {
+                resize(keys.length * 2);
+            }
+            int mask = keys.length - 1;
+            int i = hash & mask;
+            while (keys[i] != null) {
+                i = (i + 1) & mask;
+            }
+            keys[i] = key;
+            hashes[i] = hash;
+            namespaces[i] = namespace;
+            size++;
+            return i;
+        }
+
+        /**
+         * Видалення з лінійним пробуванням: наступні записи ланцюжка зсуваються назад
+         */
+        private void removeAt(int index) {
+            int mask = keys.length - 1;
+            int hole = index;
+            for (int i = (index + 1) & mask; keys[i] != null; i = (i + 1) & mask) {
+                int home = hashes[i] & mask;
+                boolean movable = hole <= i ? (home <= hole || home > i) : (home <= hole && home > i);
+                if (movable) {
+                    move(i, hole);
+                    hole = i;
+                }
+            }
+            keys[hole] = null;
+            size--;
+            if (keys.length > INITIAL_CAPACITY && size * 8 < keys.length) {
+                resize(keys.length / 2);
+            }
+        }
+
+        private void move(int from, int to) {
+            keys[to] = keys[from];
+            hashes[to] = hashes[from];
+            namespaces[to] = namespaces[from];
+            capacities[to] = capacities[from];
+            refills[to] = refills[from];
+            tokens[to] = tokens[from];
+            updatedAt[to] = updatedAt[from];
+        }
+
+        private void resize(int capacity) {
+            String[] oldKeys = keys;
+            int[] oldHashes = hashes;
+            int[] oldNamespaces = namespaces;
+            long[] oldCapacities = capacities;
+            long[] oldRefills = refills;
+            long[] oldTokens = tokens;
+            long[] oldUpdatedAt = updatedAt;
+
+            keys = new String[capacity];
+            hashes = new int[capacity];
+            namespaces = new int[capacity];
+            capacities = new long[capacity];
+            refills = new long[capacity];
+            tokens = new long[capacity];
+            updatedAt = new long[capacity];
+
+            int mask = capacity - 1;
+            for (int j = 0; j < oldKeys.length; j++) {
+                if (oldKeys[j] == null) {
+                    continue;
+                }
+                int i = oldHashes[j] & mask;
+                while (keys[i] != null) {
+                    i = (i + 1) & mask;
+                }
+                keys[i] = oldKeys[j];
+                hashes[i] = oldHashes[j];
+                namespaces[i] = oldNamespaces[j];
+                capacities[i] = oldCapacities[j];
+                refills[i] = oldRefills[j];
+                tokens[i] = oldTokens[j];
+                updatedAt[i] = oldUpdatedAt[j];
+            }
+        }
+    }
+}
@@ -0,0 +1,176 @@
+package com.zvit.service;
+
+import com.zvit.entity.RevokedToken;
+import com.zvit.repository.RevokedTokenRepository;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Відкликання JWT токенів (logout).
+ * Відкликані jti записуються в таблицю revoked_tokens, а кожен інстанс тримає в пам'яті їх знімок:
+ * фільтр Блума + точна множина. Перевірка в JwtAuthenticationFilter не ходить в БД:
+ * для більшості (невідкликаних) токенів достатньо кількох перевірок бітів фільтра,
+ * точна множина перевіряється тільки коли фільтр відповів "можливо".
+ * Знімок перечитується з БД кожні jwt.revocation.refresh-interval-ms, тому відкликання на іншому
+ * інстансі діє з такою затримкою (на інстансі, що виконав logout - одразу).
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class TokenRevocationService {
+
+    private final RevokedTokenRepository revokedTokenRepository;
+    private final BulkDeleteService bulkDeleteService;
+
+    private volatile RevocationSnapshot snapshot = RevocationSnapshot.of(Set.of());
+
+    /** Відкликані на цьому інстансі (jti -> час), ще не гарантовано присутні в останньому знімку з БД */
+    private final Map<String, Long> localRevocations = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    public void init() {
+        refresh();
+    }
+
+    /**
+     * Відкликає токен до закінчення його дії
+     */
+    public void revoke(String tokenId, String userId, long expiresAtMillis) {
+        if (tokenId == null) {
+            return;
+        }
+        revokedTokenRepository.save(RevokedToken.builder()
+                .tokenId(tokenId)
+                .userId(userId)
+                .revokedAt(LocalDateTime.now())
+                .expiresAt(LocalDateTime.ofInstant(Instant.ofEpochMilli(expiresAtMillis), ZoneId.systemDefault()))
+                .build());
+
+        // Локально діє одразу, не чекаючи наступного оновлення
+        localRevocations.put(tokenId, System.currentTimeMillis());
+        synchronized (this) {
+            Set<String> tokenIds = new HashSet<>(snapshot.tokenIds);
+            tokenIds.add(tokenId);
+            snapshot = RevocationSnapshot.of(tokenIds);
+        }
+        log.info("Token revoked: userId={}", userId);
+    }
+
+    /**
+     * Чи відкликаний токен (без звернення до БД)
+     */
+    public boolean isRevoked(String tokenId) {
+        return tokenId != null && snapshot.contains(tokenId);
+    }
+
+    /**
+     * Перечитує відкликані токени з БД (включно з відкликаними на інших інстансах)
+     */
+    @Scheduled(fixedDelayString = "${jwt.revocation.refresh-interval-ms:10000}",
+               initialDelayString = "${jwt.revocation.refresh-interval-ms:10000}")
+    public void refresh() {
+        try {
+            long startedAt = System.currentTimeMillis();
+            Set<String> tokenIds = new HashSet<>(revokedTokenRepository.findActiveTokenIds(LocalDateTime.now()));
+            synchronized (this) {
+                // Відкликані локально до початку запиту вже є в результаті,
+                // відкликані під час запиту могли в нього не потрапити - додаємо їх
+                localRevocations.values().removeIf(revokedAt -> revokedAt < startedAt);
+                tokenIds.addAll(localRevocations.keySet());
+                snapshot = RevocationSnapshot.of(tokenIds);
+            }
+        } catch (Exception e) {
+            // Лишаємо попередній знімок
+            log.error("Failed to refresh revoked tokens", e);
+        }
+    }
+
+    /**
+     * Видаляє записи про токени, термін дії яких вже минув
+     */
+    @Scheduled(fixedRate = 3600000) // 1 година
+    public void cleanupExpired() {
+        LocalDateTime now = LocalDateTime.now();
+        int deleted = bulkDeleteService.deleteInChunks(limit -> revokedTokenRepository.deleteExpiredChunk(now, limit));
+        if (deleted > 0) {
+            log.debug("Removed {} expired revoked tokens", deleted);
+        }
+    }
+
+    /**
+     * Незмінний знімок відкликаних токенів: фільтр Блума (~1% хибнопозитивних при 10 бітах на елемент)
+     * і точна множина для перевірки позитивних відповідей фільтра
+     */
+    static final class RevocationSnapshot {
+
+        private static final int HASH_COUNT = 7;
+        private static final int BITS_PER_ELEMENT = 10;
+        private static final int MIN_BITS = 1024;
+
+        private final long[] bits;
+        private final int mask;
+        private final Set<String> tokenIds;
+
+        private RevocationSnapshot(long[] bits, Set<String> tokenIds) {
+            this.bits = bits;
+            this.mask = bits.length * Long.SIZE - 1;
+            this.tokenIds = tokenIds;
+        }
+
+        static RevocationSnapshot of(Set<String> tokenIds) {
+            // Кількість бітів - степінь двійки, щоб індекс рахувався маскою
+            int bitCount = Integer.highestOneBit(Math.max(MIN_BITS, tokenIds.size() * BITS_PER_ELEMENT) - 1) << 1;
+            RevocationSnapshot snapshot = new RevocationSnapshot(new long[bitCount / Long.SIZE], Set.copyOf(tokenIds));
+            for (String tokenId : tokenIds) {
+                snapshot.add(tokenId);
+            }
+            return snapshot;
+        }
+
+        private void add(String tokenId) {
+            int hash1 = mix(tokenId.hashCode());
+            int hash2 = mix(hash1) | 1;
+            for (int i = 0; i < HASH_COUNT; i++) {
+                int index = (hash1 + i * hash2) & mask;
+                bits[index >>> 6] |= 1L << index;
+            }
+        }
+
+        boolean contains(String tokenId) {
+            if (tokenIds.isEmpty()) {
+                return false;
+            }
+            // String.hashCode кешується в рядку, тому перевірка не алокує
+            int hash1 = mix(tokenId.hashCode());
+            int hash2 = mix(hash1) | 1;
+            for (int i = 0; i < HASH_COUNT; i++) {
+                int index = (hash1 + i * hash2) & mask;
+                if ((bits[index >>> 6] & (1L << index)) == 0) {
+                    return false;
+                }
+            }
+            return tokenIds.contains(tokenId);
+        }
+
+        /** Фіналізатор MurmurHash3 */
+        private static int mix(int h) {
+            h ^= h >>> 16;
+            h *= 0x85ebca6b;
+            h ^= h >>> 13;
+            h *= 0xc2b2ae35;
+            h ^= h >>> 16;
+            return h;
+        }
+    }
+}
@@ -62,7 +62,7 @@ public class UserService {
 
         // Оновлення email
         if (request.getEmail() != null) {
-            String email = rsaKeyService.decryptIfEncrypted(request.getEmail());
+            String email = rsaKeyService.fieldDecryptor(request).decrypt(request.getEmail());
 
             if (email.trim().isEmpty()) {
                 // Видалення email
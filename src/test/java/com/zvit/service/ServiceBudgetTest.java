@@ -0,0 +1,252 @@
+package com.zvit.service;
+
+import com.zvit.config.SqlStatementCollector;
+import com.zvit.dto.request.SimpleReportRequest;
+import com.zvit.dto.request.UrgentReportRequest;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.lang.management.ManagementFactory;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Бюджети SQL запитів та алокацій для основних методів сервісів.
+ * Групи з 10/100/1000 учасників та історією звітів заповнюються напряму через JDBC.
+ * Кількість SQL запитів не повинна залежати від розміру групи (N+1 ламає тест),
+ * алокації - не більше фіксованої частини плюс лінійна частина на учасника.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class ServiceBudgetTest {
+
+    private static final com.sun.management.ThreadMXBean THREADS =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    private static final int REPORTS_PER_MEMBER = 3;
+    private static final int MEASURED_RUNS = 3;
+
+    @Autowired
+    private ReportService reportService;
+
+    @Autowired
+    private GroupService groupService;
+
+    @Autowired
+    private SqlStatementCollector statementCollector;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    /** Розмір групи -> (groupId, adminId) */
+    private final Map<Integer, String[]> groups = new HashMap<>();
+
+    /** Кількість груп користувача -> userId */
+    private final Map<Integer, String> memberships = new HashMap<>();
+
+    @BeforeAll
+    void seed() {
+        for (int size : new int[] {10, 100, 1000}) {
+            groups.put(size, seedGroup(size));
+        }
+        for (int count : new int[] {10, 100}) {
+            memberships.put(count, seedMemberships(count));
+        }
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {10, 100, 1000})
+    void getGroupStatuses(int members) {
+        String[] group = groups.get(members);
+        Budget budget = measure(() -> { }, () -> reportService.getGroupStatuses(group[0], group[1]));
+        budget.assertWithin(7, 1024, 25, members);
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {10, 100, 1000})
+    void getUserGroups(int members) {
+        String[] group = groups.get(members);
+        Budget budget = measure(() -> { }, () -> groupService.getUserGroups(group[1]));
+        budget.assertWithin(2, 384, 0, members);
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {10, 100})
+    void getUserGroupsAcrossMemberships(int groupCount) {
+        String userId = memberships.get(groupCount);
+        Budget budget = measure(() -> { }, () -> groupService.getUserGroups(userId));
+        budget.assertWithin(2, 384, 8, groupCount);
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {10, 100, 1000})
+    void getGroupMembers(int members) {
+        String[] group = groups.get(members);
+        Budget budget = measure(() -> { }, () -> groupService.getGroupMembers(group[0], group[1]));
+        budget.assertWithin(4, 768, 20, members);
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {10, 100, 1000})
+    void createSimpleReport(int members) {
+        String[] group = groups.get(members);
+        SimpleReportRequest request = new SimpleReportRequest();
+        request.setGroupId(group[0]);
+        request.setSimpleResponse("ОК");
+        request.setComment("На місці");
+        Budget budget = measure(() -> { }, () -> reportService.createSimpleReport(request, group[1]));
+        budget.assertWithin(2, 256, 0, members);
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {10, 100, 1000})
+    void createUrgentRequest(int members) {
+        String[] group = groups.get(members);
+        UrgentReportRequest request = new UrgentReportRequest();
+        request.setGroupId(group[0]);
+        request.setDeadlineMinutes(15);
+        request.setMessage("Терміновий збір");
+        Budget budget = measure(() -> endUrgentSession(group[0]),
+                () -> reportService.createUrgentRequest(request, group[1]));
+        budget.assertWithin(5, 512, 8, members);
+    }
+
+    /**
+     * Мінімум з кількох вимірювань після прогріву (JIT, кеші, ліниві ініціалізації)
+     */
+    private Budget measure(Runnable setup, Runnable call) {
+        setup.run();
+        call.run();
+
+        long statements = Long.MAX_VALUE;
+        long bytes = Long.MAX_VALUE;
+        for (int run = 0; run < MEASURED_RUNS; run++) {
+            setup.run();
+            SqlStatementCollector.RequestStatements collected = statementCollector.start();
+            long allocatedBefore = THREADS.getCurrentThreadAllocatedBytes();
+            try {
+                call.run();
+            } finally {
+                statementCollector.finish();
+            }
+            bytes = Math.min(bytes, THREADS.getCurrentThreadAllocatedBytes() - allocatedBefore);
+            statements = Math.min(statements, collected.getCount());
+        }
+        return new Budget(statements, bytes);
+    }
+
+    private void endUrgentSession(String groupId) {
+        jdbcTemplate.update("UPDATE `groups` SET urgent_session_id = NULL, urgent_requested_at = NULL, "
+                + "urgent_expires_at = NULL, urgent_requested_by = NULL, urgent_message = NULL WHERE id = ?", groupId);
+    }
+
+    /**
+     * Група з адміністратором та members-1 прийнятими учасниками, по REPORTS_PER_MEMBER звітів кожного
+     * @return groupId та id адміністратора
+     */
+    private String[] seedGroup(int members) {
+        String groupId = UUID.randomUUID().toString();
+        LocalDateTime now = LocalDateTime.now();
+        Timestamp createdAt = Timestamp.valueOf(now.minusDays(30));
+
+        List<Object[]> users = new ArrayList<>(members);
+        List<Object[]> memberships = new ArrayList<>(members);
+        List<Object[]> reports = new ArrayList<>(members * REPORTS_PER_MEMBER);
+        for (int i = 0; i < members; i++) {
+            String userId = UUID.randomUUID().toString();
+            users.add(new Object[] {userId, UUID.randomUUID().toString().replace("-", ""), "encrypted",
+                    "$2a$04$seedseedseedseedseedseOq6h7Yl0W4o3m9qzVjQJg0l2o8E8F2G", "Учасник " + i,
+                    createdAt, createdAt, i % 2 == 0 ? "fcm-token-" + i : null});
+            memberships.add(new Object[] {UUID.randomUUID().toString(), groupId, userId,
+                    i == 0 ? "ADMIN" : "MEMBER", "ACCEPTED", createdAt});
+            for (int r = 0; r < REPORTS_PER_MEMBER; r++) {
+                reports.add(new Object[] {UUID.randomUUID().toString(), userId, groupId, "SIMPLE", "ОК",
+                        Timestamp.valueOf(now.minusHours(r * 8L + 1).minusMinutes(i % 60))});
+            }
+        }
+        String adminId = (String) users.get(0)[0];
+
+        jdbcTemplate.batchUpdate("INSERT INTO users (id, phone_hash, phone_encrypted, password_hash, name, "
+                + "phone_verified, email_verified, is_active, created_at, updated_at, fcm_token) "
+                + "VALUES (?, ?, ?, ?, ?, TRUE, FALSE, TRUE, ?, ?, ?)", users);
+        jdbcTemplate.update("INSERT INTO `groups` (id, external_name, access_code, internal_code, max_members, "
+                        + "accepted_count, pending_count, report_type, positive_word, negative_word, created_by, "
+                        + "created_at, updated_at) VALUES (?, ?, ?, ?, ?, ?, 0, 'SIMPLE', 'ОК', 'НЕ ОК', ?, ?, ?)",
+                groupId, "Група " + members, "G-" + members, "@seed" + members, members * 2, members,
+                adminId, createdAt, createdAt);
+        jdbcTemplate.batchUpdate("INSERT INTO group_members (id, group_id, user_id, role, status, joined_at) "
+                + "VALUES (?, ?, ?, ?, ?, ?)", memberships);
+        jdbcTemplate.batchUpdate("INSERT INTO reports (id, user_id, group_id, report_type, simple_response, "
+                + "is_urgent, submitted_at) VALUES (?, ?, ?, ?, ?, FALSE, ?)", reports);
+        return new String[] {groupId, adminId};
+    }
+
+    /**
+     * Користувач, що є учасником groupCount груп (у кожній ще один адміністратор)
+     * @return id користувача
+     */
+    private String seedMemberships(int groupCount) {
+        Timestamp createdAt = Timestamp.valueOf(LocalDateTime.now().minusDays(30));
+        String userId = UUID.randomUUID().toString();
+        String adminId = UUID.randomUUID().toString();
+        jdbcTemplate.batchUpdate("INSERT INTO users (id, phone_hash, phone_encrypted, password_hash, name, "
+                + "phone_verified, email_verified, is_active, created_at, updated_at) "
+                + "VALUES (?, ?, 'encrypted', '$2a$04$seedseedseedseedseedseOq6h7Yl0W4o3m9qzVjQJg0l2o8E8F2G', ?, "
+                + "TRUE, FALSE, TRUE, ?, ?)", List.of(
+                new Object[] {userId, UUID.randomUUID().toString().replace("-", ""), "Учасник", createdAt, createdAt},
+                new Object[] {adminId, UUID.randomUUID().toString().replace("-", ""), "Адміністратор", createdAt,
+                        createdAt}));
+
+        List<Object[]> groupRows = new ArrayList<>(groupCount);
+        List<Object[]> memberRows = new ArrayList<>(groupCount * 2);
+        for (int i = 0; i < groupCount; i++) {
+            String groupId = UUID.randomUUID().toString();
+            String code = groupCount + "-" + i;
+            groupRows.add(new Object[] {groupId, "Група " + code, "M-" + code, "@member" + code, adminId,
+                    createdAt, createdAt});
+            memberRows.add(new Object[] {UUID.randomUUID().toString(), groupId, adminId, "ADMIN", createdAt});
+            memberRows.add(new Object[] {UUID.randomUUID().toString(), groupId, userId, "MEMBER", createdAt});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO `groups` (id, external_name, access_code, internal_code, max_members, "
+                + "accepted_count, pending_count, report_type, positive_word, negative_word, created_by, "
+                + "created_at, updated_at) VALUES (?, ?, ?, ?, 10, 2, 0, 'SIMPLE', 'ОК', 'НЕ ОК', ?, ?, ?)", groupRows);
+        jdbcTemplate.batchUpdate("INSERT INTO group_members (id, group_id, user_id, role, status, joined_at) "
+                + "VALUES (?, ?, ?, ?, 'ACCEPTED', ?)", memberRows);
+        return userId;
+    }
+
+    /**
+     * Виміряні SQL запити та алоковані байти одного виклику
+     */
+    private record Budget(long statements, long bytes) {
+
+        /**
+         * @param maxStatements бюджет SQL запитів (не залежить від розміру)
+         * @param fixedKb       алокації незалежно від розміру, КБ
+         * @param perMemberKb   алокації на учасника (або на групу користувача), КБ
+         * @param size          кількість учасників групи або груп користувача
+         */
+        void assertWithin(long maxStatements, long fixedKb, long perMemberKb, int size) {
+            assertThat(statements)
+                    .as("SQL запитів на виклик (розмір %d)", size)
+                    .isLessThanOrEqualTo(maxStatements);
+            assertThat(bytes)
+                    .as("Алоковано байт на виклик (розмір %d)", size)
+                    .isLessThanOrEqualTo((fixedKb + perMemberKb * size) * 1024);
+        }
+    }
+}
@@ -0,0 +1,175 @@
+package com.zvit.service;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Семантика token bucket-ів та внутрішня структура TokenBucketTable:
+ * видалення з лінійним пробуванням через кінець масиву, колесо таймерів, зміна розміру страйпа
+ */
+class TokenBucketTableTest {
+
+    private static final long START_MS = 1_000_000L;
+    private static final int NAMESPACE = 1;
+
+    /** Один токен на секунду */
+    private static final long PER_SECOND = TokenBucketTable.TOKEN_SCALE / 1000;
+
+    /** Один токен на мілісекунду - відро наповнюється майже одразу */
+    private static final long PER_MS = TokenBucketTable.TOKEN_SCALE;
+
+    private final TokenBucketTable table = new TokenBucketTable(START_MS);
+
+    @Test
+    void allowsCapacityThenWaitsForRefill() {
+        long capacity = 3 * TokenBucketTable.TOKEN_SCALE;
+        for (int i = 0; i < 3; i++) {
+            assertThat(table.tryAcquire(NAMESPACE, "user", capacity, PER_SECOND, START_MS)).isZero();
+        }
+        assertThat(table.tryAcquire(NAMESPACE, "user", capacity, PER_SECOND, START_MS)).isEqualTo(1000);
+
+        // Половина токена за 500 мс - чекати ще 500
+        assertThat(table.tryAcquire(NAMESPACE, "user", capacity, PER_SECOND, START_MS + 500)).isEqualTo(500);
+        assertThat(table.tryAcquire(NAMESPACE, "user", capacity, PER_SECOND, START_MS + 1000)).isZero();
+        assertThat(table.tryAcquire(NAMESPACE, "user", capacity, PER_SECOND, START_MS + 1000)).isEqualTo(1000);
+    }
+
+    @Test
+    void refillIsCappedByCapacity() {
+        long capacity = 2 * TokenBucketTable.TOKEN_SCALE;
+        table.tryAcquire(NAMESPACE, "user", capacity, PER_SECOND, START_MS);
+        table.tryAcquire(NAMESPACE, "user", capacity, PER_SECOND, START_MS);
+
+        // Година простою - все одно лише ємність відра
+        long later = START_MS + 3_600_000L;
+        assertThat(table.tryAcquire(NAMESPACE, "user", capacity, PER_SECOND, later)).isZero();
+        assertThat(table.tryAcquire(NAMESPACE, "user", capacity, PER_SECOND, later)).isZero();
+        assertThat(table.tryAcquire(NAMESPACE, "user", capacity, PER_SECOND, later)).isEqualTo(1000);
+    }
+
+    @Test
+    void namespacesAreIndependent() {
+        long capacity = TokenBucketTable.TOKEN_SCALE;
+        assertThat(table.tryAcquire(1, "same-key", capacity, PER_SECOND, START_MS)).isZero();
+        assertThat(table.tryAcquire(1, "same-key", capacity, PER_SECOND, START_MS)).isPositive();
+        assertThat(table.tryAcquire(2, "same-key", capacity, PER_SECOND, START_MS)).isZero();
+        assertThat(table.size()).isEqualTo(2);
+    }
+
+    @Test
+    void removalWrapsAroundEndOfStripeTable() {
+        // Страйп 15: домашній слот кожного ключа - останній (15) у таблиці на 16 слотів,
+        // тож другий і третій ключі лягають у слоти 0 та 1 (через кінець масиву)
+        List<String> keys = keysInStripe(15, 3);
+        String first = keys.get(0);
+        long capacity = 2 * TokenBucketTable.TOKEN_SCALE;
+
+        table.tryAcquire(NAMESPACE, first, TokenBucketTable.TOKEN_SCALE, PER_MS, START_MS);
+        for (String key : keys.subList(1, 3)) {
+            drain(key, capacity, PER_SECOND / 1000, START_MS);
+        }
+
+        // Перший ключ вже наповнився і видаляється, решта ланцюжка зсувається назад
+        assertThat(table.expire(START_MS + 2000)).isEqualTo(1);
+        assertThat(table.size()).isEqualTo(2);
+
+        // Стан відер, що зсунулись, збережено: токенів немає (нове відро було б повним)
+        for (String key : keys.subList(1, 3)) {
+            assertThat(table.tryAcquire(NAMESPACE, key, capacity, PER_SECOND / 1000, START_MS + 2000)).isPositive();
+        }
+    }
+
+    @Test
+    void removalFromMiddleOfWrappedChain() {
+        List<String> keys = keysInStripe(15, 3);
+        long capacity = 2 * TokenBucketTable.TOKEN_SCALE;
+
+        drain(keys.get(0), capacity, PER_SECOND / 1000, START_MS);
+        table.tryAcquire(NAMESPACE, keys.get(1), TokenBucketTable.TOKEN_SCALE, PER_MS, START_MS);
+        drain(keys.get(2), capacity, PER_SECOND / 1000, START_MS);
+
+        assertThat(table.expire(START_MS + 2000)).isEqualTo(1);
+        assertThat(table.tryAcquire(NAMESPACE, keys.get(0), capacity, PER_SECOND / 1000, START_MS + 2000)).isPositive();
+        assertThat(table.tryAcquire(NAMESPACE, keys.get(2), capacity, PER_SECOND / 1000, START_MS + 2000)).isPositive();
+    }
+
+    @Test
+    void expiresAfterMoreThanOneFullRotation() {
+        table.tryAcquire(NAMESPACE, "fast", TokenBucketTable.TOKEN_SCALE, PER_MS, START_MS);
+
+        // Колесо на 1024 тіки по секунді - пропускаємо більше двох обертів за один виклик
+        assertThat(table.expire(START_MS + 2_500_000L)).isEqualTo(1);
+        assertThat(table.size()).isZero();
+    }
+
+    @Test
+    void reschedulesBucketsThatFillAfterMoreThanOneRotation() {
+        // Два токени по 1 за 1500 с: повне через ~3000 с, це далі ніж один оберт колеса (1024 с),
+        // тому запис обрізається до останнього слота і перепланується, а між викликами минає більше оберту
+        long slowRefill = PER_SECOND / 1500;
+        long capacity = 2 * TokenBucketTable.TOKEN_SCALE;
+        drain("slow", capacity, slowRefill, START_MS);
+
+        assertThat(table.expire(START_MS + 1_100_000L)).isZero();
+        assertThat(table.expire(START_MS + 2_200_000L)).isZero();
+        assertThat(table.size()).isEqualTo(1);
+
+        assertThat(table.expire(START_MS + 3_100_000L)).isEqualTo(1);
+        assertThat(table.size()).isZero();
+    }
+
+    @Test
+    void keepsLiveEntriesAcrossResize() {
+        // 40 ключів в одному страйпі: таблиця росте 16 -> 32 -> 64 -> 128
+        List<String> keys = keysInStripe(5, 40);
+        long capacity = 2 * TokenBucketTable.TOKEN_SCALE;
+        for (int i = 0; i < keys.size(); i++) {
+            // Три з чотирьох ключів наповнюються майже одразу, кожен четвертий - лишається з одним токеном
+            long refill = i % 4 != 3 ? PER_MS : PER_SECOND / 1000;
+            assertThat(table.tryAcquire(NAMESPACE, keys.get(i), capacity, refill, START_MS)).isZero();
+        }
+        assertThat(table.size()).isEqualTo(40);
+        assertThat(stripeCapacity(5)).isEqualTo(128);
+
+        // Після видалення 30 записів таблиця зменшується, решта переноситься разом зі станом
+        assertThat(table.expire(START_MS + 2000)).isEqualTo(30);
+        assertThat(table.size()).isEqualTo(10);
+        assertThat(stripeCapacity(5)).isEqualTo(64);
+        for (int i = 3; i < keys.size(); i += 4) {
+            assertThat(table.tryAcquire(NAMESPACE, keys.get(i), capacity, PER_SECOND / 1000, START_MS + 2000)).isZero();
+            assertThat(table.tryAcquire(NAMESPACE, keys.get(i), capacity, PER_SECOND / 1000, START_MS + 2000))
+                    .isPositive();
+        }
+    }
+
+    private void drain(String key, long capacity, long refillPerMs, long nowMs) {
+        while (table.tryAcquire(NAMESPACE, key, capacity, refillPerMs, nowMs) == 0) {
+            // бере токени, доки відро не спорожніє
+        }
+    }
+
+    private int stripeCapacity(int stripe) {
+        Object[] stripes = (Object[]) ReflectionTestUtils.getField(table, "stripes");
+        return ((String[]) ReflectionTestUtils.getField(stripes[stripe], "keys")).length;
+    }
+
+    /**
+     * Ключі, що потрапляють в один страйп (молодші 6 біт хешу = stripe)
+     */
+    private static List<String> keysInStripe(int stripe, int count) {
+        List<String> keys = new ArrayList<>(count);
+        for (int i = 0; keys.size() < count; i++) {
+            String key = "key-" + i;
+            int hash = ReflectionTestUtils.invokeMethod(TokenBucketTable.class, "hash", key, NAMESPACE);
+            if ((hash & 63) == stripe) {
+                keys.add(key);
+            }
+        }
+        return keys;
+    }
+}